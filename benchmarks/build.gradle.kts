@@ -0,0 +1,46 @@
+plugins {
+    id("me.champeau.jmh") version ("0.7.2")
+}
+
+dependencies {
+    implementation(project(":betterperspective"))
+    implementation(project(":voicechat"))
+    implementation(project(":waypoints"))
+
+    // the integrations only compile against the server api, the benchmarks need it at runtime
+    jmh("net.labymod.serverapi:core:1.0.6")
+    jmh("org.jetbrains:annotations:22.0.0")
+    jmh("org.openjdk.jol:jol-core:0.17")
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
+
+// the benchmarks are neither published nor part of the build output
+tasks.withType<PublishToMavenRepository>().configureEach {
+    enabled = false
+}
+
+tasks.named("copyToCommonOutput") {
+    enabled = false
+}
+
+tasks.register<JavaExec>("joinStorm") {
+    group = "benchmark"
+    description = "Simulates many players joining at once, arguments: [players] [mutes] [group waypoints]"
+
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("net.labymod.serverapi.integration.benchmarks.JoinStormSimulation")
+}
+
+tasks.register<JavaExec>("waypointFootprint") {
+    group = "benchmark"
+    description = "Measures the heap footprint of waypoints, arguments: [waypoints]"
+
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("net.labymod.serverapi.integration.benchmarks.WaypointFootprint")
+    jvmArgs("-Djdk.attach.allowAttachSelf=true")
+}
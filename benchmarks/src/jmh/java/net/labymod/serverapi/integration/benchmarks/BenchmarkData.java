@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.benchmarks;
+
+import net.labymod.serverapi.api.packet.Packet;
+import net.labymod.serverapi.api.payload.io.PayloadWriter;
+import net.labymod.serverapi.integration.voicechat.model.VoiceChatMute;
+import net.labymod.serverapi.integration.waypoints.model.ServerWaypoint;
+import net.labymod.serverapi.integration.waypoints.model.WaypointPosition;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Creates reproducible data for the benchmarks.
+ */
+final class BenchmarkData {
+
+  static final String[] DIMENSIONS = {
+      "minecraft:overworld",
+      "minecraft:the_nether",
+      "minecraft:the_end"
+  };
+
+  private static final String[] ICONS = {"house", "skull", "star", "flag"};
+  private static final long SEED = 1337L;
+
+  private BenchmarkData() {
+  }
+
+  /**
+   * Creates waypoints spread over all {@link #DIMENSIONS dimensions} within the provided range
+   * around the origin. Half of the waypoints have a color.
+   *
+   * @param count the amount of waypoints
+   * @param range the maximum distance of the waypoints to the origin on the x- and z-axis
+   * @return the created waypoints
+   */
+  static @NotNull List<ServerWaypoint> waypoints(int count, int range) {
+    Random random = new Random(SEED);
+    List<ServerWaypoint> waypoints = new ArrayList<>(count);
+    for (int index = 0; index < count; index++) {
+      ServerWaypoint.Builder builder = ServerWaypoint.builder()
+          .name("Waypoint #" + index)
+          .x(coordinate(random, range))
+          .y(random.nextInt(320) - 64)
+          .z(coordinate(random, range))
+          .dimension(DIMENSIONS[random.nextInt(DIMENSIONS.length)])
+          .builtinIcon(ICONS[random.nextInt(ICONS.length)]);
+      if (random.nextBoolean()) {
+        builder.color(random.nextInt(0xFFFFFF));
+      }
+
+      waypoints.add(builder.build());
+    }
+
+    return waypoints;
+  }
+
+  /**
+   * Creates a new position for each provided waypoint.
+   *
+   * @param waypoints the waypoints to move
+   * @return the new positions
+   */
+  static @NotNull List<WaypointPosition> positions(@NotNull List<ServerWaypoint> waypoints) {
+    Random random = new Random(SEED);
+    List<WaypointPosition> positions = new ArrayList<>(waypoints.size());
+    for (ServerWaypoint waypoint : waypoints) {
+      positions.add(new WaypointPosition(
+          waypoint.getId(),
+          waypoint.getX() + random.nextDouble() * 4,
+          waypoint.getY(),
+          waypoint.getZ() + random.nextDouble() * 4
+      ));
+    }
+
+    return positions;
+  }
+
+  /**
+   * Creates mutes of which a third is permanent and a third has no reason.
+   *
+   * @param count the amount of mutes
+   * @return the created mutes
+   */
+  static @NotNull List<VoiceChatMute> mutes(int count) {
+    Random random = new Random(SEED);
+    List<VoiceChatMute> mutes = new ArrayList<>(count);
+    for (int index = 0; index < count; index++) {
+      UUID uniqueId = new UUID(random.nextLong(), random.nextLong());
+      switch (index % 3) {
+        case 0:
+          mutes.add(VoiceChatMute.create(uniqueId, "Spamming in voice chat"));
+          break;
+        case 1:
+          mutes.add(VoiceChatMute.create(uniqueId, null, 1_700_000_000_000L + index));
+          break;
+        default:
+          mutes.add(VoiceChatMute.create(uniqueId, "Reason #" + index, 1_800_000_000_000L));
+          break;
+      }
+    }
+
+    return mutes;
+  }
+
+  /**
+   * @param count the amount of unique ids
+   * @return random unique ids
+   */
+  static @NotNull List<UUID> uniqueIds(int count) {
+    Random random = new Random(SEED);
+    List<UUID> uniqueIds = new ArrayList<>(count);
+    for (int index = 0; index < count; index++) {
+      uniqueIds.add(new UUID(random.nextLong(), random.nextLong()));
+    }
+
+    return uniqueIds;
+  }
+
+  /**
+   * @param packet the packet to encode
+   * @return the encoded payload of the packet
+   */
+  static byte[] encode(@NotNull Packet packet) {
+    PayloadWriter writer = new PayloadWriter();
+    packet.write(writer);
+    return writer.toByteArray();
+  }
+
+  private static double coordinate(Random random, int range) {
+    return (random.nextDouble() * 2 - 1) * range;
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.benchmarks;
+
+import net.labymod.serverapi.api.packet.Direction;
+import net.labymod.serverapi.core.AbstractLabyModPlayer;
+import net.labymod.serverapi.core.AddonProtocol;
+import net.labymod.serverapi.integration.common.packet.EncodedPacket;
+import net.labymod.serverapi.integration.voicechat.packets.VoiceChatMutePacket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sending the same packet to every player with {@link AddonProtocol#sendPacket}, which
+ * encodes the packet once per player, with an {@link EncodedPacket} that is encoded only once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BroadcastBenchmark {
+
+  private static final int MUTE_PACKET_ID = 0;
+
+  @Param({"100", "1000", "5000"})
+  public int playerCount;
+
+  private StubProtocolService service;
+  private AddonProtocol protocol;
+  private VoiceChatMutePacket packet;
+
+  @Setup
+  public void setup() {
+    this.service = new StubProtocolService();
+    this.protocol = new AddonProtocol(this.service, "benchmark");
+    this.protocol.registerPacket(MUTE_PACKET_ID, VoiceChatMutePacket.class, Direction.CLIENTBOUND);
+    for (UUID uniqueId : BenchmarkData.uniqueIds(this.playerCount)) {
+      this.service.addPlayer(uniqueId);
+    }
+
+    this.packet = new VoiceChatMutePacket(BenchmarkData.mutes(1));
+  }
+
+  @Benchmark
+  public long sendPerPlayer() {
+    for (AbstractLabyModPlayer<?> player : this.service.getPlayers()) {
+      this.protocol.sendPacket(player.getUniqueId(), this.packet);
+    }
+
+    return this.service.getSentPackets();
+  }
+
+  @Benchmark
+  public long broadcastEncoded() {
+    EncodedPacket.encode(this.protocol, MUTE_PACKET_ID, this.packet).broadcast(this.service);
+    return this.service.getSentPackets();
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.benchmarks;
+
+import net.labymod.serverapi.integration.betterperspective.BetterPerspectiveIntegration;
+import net.labymod.serverapi.integration.betterperspective.zone.BoxCameraZone;
+import net.labymod.serverapi.integration.betterperspective.zone.CameraZone;
+import net.labymod.serverapi.integration.betterperspective.zone.CameraZoneEngine;
+import net.labymod.serverapi.integration.betterperspective.zone.CameraZoneIndex;
+import net.labymod.serverapi.integration.betterperspective.zone.PolygonCameraZone;
+import net.labymod.serverapi.integration.betterperspective.zone.PositionBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the camera zone lookup of a single player, once directly on the index and once as part
+ * of a batched engine update of 2000 players.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CameraZoneBenchmark {
+
+  private static final int PLAYERS = 2000;
+  private static final int RANGE = 5000;
+
+  @Param({"100", "1000"})
+  public int zoneCount;
+
+  private CameraZoneIndex index;
+  private CameraZoneEngine engine;
+  private String[] dimensions;
+  private double[] xs;
+  private double[] ys;
+  private double[] zs;
+  private PositionBatch batch;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(1337L);
+    List<CameraZone> zones = new ArrayList<>(this.zoneCount);
+    for (int i = 0; i < this.zoneCount; i++) {
+      String dimension = BenchmarkData.DIMENSIONS[i % BenchmarkData.DIMENSIONS.length];
+      double x = coordinate(random);
+      double z = coordinate(random);
+      double size = 16 + random.nextInt(240);
+      if (i % 2 == 0) {
+        zones.add(new BoxCameraZone(
+            "zone-" + i, dimension, random.nextInt(4), random.nextBoolean(),
+            x, 0, z, x + size, 256, z + size
+        ));
+      } else {
+        zones.add(new PolygonCameraZone(
+            "zone-" + i, dimension, random.nextInt(4), random.nextBoolean(),
+            new double[]{x, x + size, x + size / 2, x - size / 2},
+            new double[]{z, z + size / 3, z + size, z + size / 2},
+            0, 256
+        ));
+      }
+    }
+
+    StubProtocolService service = new StubProtocolService();
+    BetterPerspectiveIntegration integration = service.register(new BetterPerspectiveIntegration());
+    this.engine = integration.cameraZones();
+    this.index = this.engine.zones();
+    this.index.addAll(zones);
+
+    List<UUID> uniqueIds = BenchmarkData.uniqueIds(PLAYERS);
+    this.dimensions = new String[PLAYERS];
+    this.xs = new double[PLAYERS];
+    this.ys = new double[PLAYERS];
+    this.zs = new double[PLAYERS];
+    this.batch = new PositionBatch(PLAYERS);
+    for (int i = 0; i < PLAYERS; i++) {
+      service.addPlayer(uniqueIds.get(i));
+      this.dimensions[i] = BenchmarkData.DIMENSIONS[i % BenchmarkData.DIMENSIONS.length];
+      this.xs[i] = coordinate(random);
+      this.ys[i] = 64;
+      this.zs[i] = coordinate(random);
+      this.batch.add(uniqueIds.get(i), this.dimensions[i], this.xs[i], this.ys[i], this.zs[i]);
+    }
+
+    // the first update moves the players into their zones
+    this.engine.update(this.batch);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PLAYERS)
+  public void find(Blackhole blackhole) {
+    for (int i = 0; i < PLAYERS; i++) {
+      blackhole.consume(this.index.find(this.dimensions[i], this.xs[i], this.ys[i], this.zs[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PLAYERS)
+  public int update() {
+    return this.engine.update(this.batch);
+  }
+
+  private static double coordinate(Random random) {
+    return (random.nextDouble() * 2 - 1) * RANGE;
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.benchmarks;
+
+import net.labymod.serverapi.core.AbstractLabyModPlayer;
+import net.labymod.serverapi.core.integration.LabyModProtocolIntegration;
+import net.labymod.serverapi.integration.betterperspective.BetterPerspectiveIntegration;
+import net.labymod.serverapi.integration.voicechat.VoiceChatIntegration;
+import net.labymod.serverapi.integration.waypoints.WaypointsIntegration;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Simulates a server restart: a number of players join one after another while the server
+ * already has mutes and a global waypoint group. Reports the time each integration needs to create
+ * its integration player (p50, p99 and max) and the packets and bytes sent during the storm.
+ * <p>
+ * Arguments: {@code [players] [mutes] [group waypoints]}, run it with
+ * {@code ./gradlew :benchmarks:joinStorm --args="5000 1000 200"}.
+ */
+public final class JoinStormSimulation {
+
+  private static final int WARMUP_ROUNDS = 3;
+
+  private JoinStormSimulation() {
+  }
+
+  public static void main(String[] args) {
+    int players = argument(args, 0, 5_000);
+    int mutes = argument(args, 1, 1_000);
+    int groupWaypoints = argument(args, 2, 200);
+
+    for (int round = 0; round < WARMUP_ROUNDS; round++) {
+      run(players, mutes, groupWaypoints);
+    }
+
+    Result result = run(players, mutes, groupWaypoints);
+    System.out.printf(
+        Locale.ROOT,
+        "Join storm: %d players, %d mutes, %d group waypoints%n",
+        players,
+        mutes,
+        groupWaypoints
+    );
+    System.out.printf(
+        Locale.ROOT,
+        "%-30s %12s %12s %12s%n",
+        "Integration",
+        "p50 (us)",
+        "p99 (us)",
+        "max (us)"
+    );
+    for (int index = 0; index < result.integrations.size(); index++) {
+      long[] durations = result.durations[index];
+      Arrays.sort(durations);
+      System.out.printf(
+          Locale.ROOT,
+          "%-30s %12.2f %12.2f %12.2f%n",
+          result.integrations.get(index).getClass().getSimpleName(),
+          percentile(durations, 0.5) / 1_000D,
+          percentile(durations, 0.99) / 1_000D,
+          durations[durations.length - 1] / 1_000D
+      );
+    }
+
+    System.out.printf(
+        Locale.ROOT,
+        "Sent %d packets with %d bytes (%.1f packets and %.1f bytes per join)%n",
+        result.packets,
+        result.bytes,
+        result.packets / (double) players,
+        result.bytes / (double) players
+    );
+  }
+
+  private static Result run(int players, int mutes, int groupWaypoints) {
+    StubProtocolService service = new StubProtocolService();
+    VoiceChatIntegration voiceChat = service.register(new VoiceChatIntegration());
+    WaypointsIntegration waypoints = service.register(new WaypointsIntegration());
+    service.register(new BetterPerspectiveIntegration());
+
+    voiceChat.muteAll(BenchmarkData.mutes(mutes));
+    voiceChat.flushMuteChanges();
+    waypoints.createGroup("spawn", true)
+        .addWaypoints(BenchmarkData.waypoints(groupWaypoints, 1_000));
+    service.resetCounters();
+
+    List<LabyModProtocolIntegration> integrations = service.integrations();
+    long[][] durations = new long[integrations.size()][players];
+    List<UUID> uniqueIds = BenchmarkData.uniqueIds(players);
+    for (int player = 0; player < players; player++) {
+      // like the server api, first add the player and then create the integration players
+      AbstractLabyModPlayer<?> labyModPlayer = service.addPlayer(uniqueIds.get(player));
+      for (int index = 0; index < integrations.size(); index++) {
+        long start = System.nanoTime();
+        integrations.get(index).createIntegrationPlayer(labyModPlayer);
+        durations[index][player] = System.nanoTime() - start;
+      }
+    }
+
+    return new Result(integrations, durations, service.getSentPackets(), service.getSentBytes());
+  }
+
+  private static long percentile(long[] sortedValues, double percentile) {
+    int index = (int) Math.ceil(percentile * sortedValues.length) - 1;
+    return sortedValues[Math.max(0, index)];
+  }
+
+  private static int argument(String[] args, int index, int defaultValue) {
+    return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+  }
+
+  private static final class Result {
+
+    private final List<LabyModProtocolIntegration> integrations;
+    private final long[][] durations;
+    private final long packets;
+    private final long bytes;
+
+    private Result(
+        List<LabyModProtocolIntegration> integrations,
+        long[][] durations,
+        long packets,
+        long bytes
+    ) {
+      this.integrations = integrations;
+      this.durations = durations;
+      this.packets = packets;
+      this.bytes = bytes;
+    }
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.benchmarks;
+
+import net.labymod.serverapi.api.packet.Packet;
+import net.labymod.serverapi.api.payload.io.PayloadReader;
+import net.labymod.serverapi.api.payload.io.PayloadWriter;
+import net.labymod.serverapi.integration.common.packet.EncodedPacket;
+import net.labymod.serverapi.integration.common.passthrough.PayloadPassthrough;
+import net.labymod.serverapi.integration.common.queue.OutboundPacketQueues;
+import net.labymod.serverapi.integration.voicechat.VoiceChatIntegration;
+import net.labymod.serverapi.integration.voicechat.packets.VoiceChatMutePacket;
+import net.labymod.serverapi.integration.waypoints.WaypointsIntegration;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointPacket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the work of a proxy forwarding a received payload to the players of a backend server:
+ * decoding the packet and encoding it again, or passing the payload through without decoding it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PassthroughBenchmark {
+
+  private static final int PACKET_ID = 0;
+
+  @Param({"1", "100", "1000"})
+  public int entryCount;
+
+  @Param({"1", "100"})
+  public int recipientCount;
+
+  private StubProtocolService service;
+  private OutboundPacketQueues packetQueues;
+  private VoiceChatIntegration voiceChat;
+  private WaypointsIntegration waypoints;
+  private List<UUID> recipients;
+
+  private byte[] mutePayload;
+  private byte[] waypointPayload;
+
+  @Setup
+  public void setup() {
+    this.service = new StubProtocolService();
+    this.voiceChat = this.service.register(new VoiceChatIntegration());
+    this.waypoints = this.service.register(new WaypointsIntegration());
+    this.packetQueues = OutboundPacketQueues.of(this.service);
+    this.recipients = BenchmarkData.uniqueIds(this.recipientCount);
+
+    this.mutePayload = encode(new VoiceChatMutePacket(BenchmarkData.mutes(this.entryCount)));
+    this.waypointPayload = encode(new WaypointPacket(
+        BenchmarkData.waypoints(this.entryCount, 1000)
+    ));
+  }
+
+  @Benchmark
+  public long reencodeMutes() {
+    PayloadReader reader = new PayloadReader(this.mutePayload);
+    int packetId = reader.readVarInt();
+    VoiceChatMutePacket packet = new VoiceChatMutePacket(Collections.emptyList());
+    packet.read(reader);
+    this.send(EncodedPacket.encode(this.voiceChat.voiceChatProtocol(), packetId, packet));
+    return this.service.getSentPackets();
+  }
+
+  @Benchmark
+  public long passthroughMutes() {
+    PayloadPassthrough passthrough = this.voiceChat.passthrough();
+    passthrough.forward(this.recipients, this.mutePayload, 0, this.mutePayload.length);
+    return this.service.getSentPackets();
+  }
+
+  @Benchmark
+  public long reencodeWaypoints() {
+    PayloadReader reader = new PayloadReader(this.waypointPayload);
+    int packetId = reader.readVarInt();
+    WaypointPacket packet = new WaypointPacket(Collections.emptyList());
+    packet.read(reader);
+    this.send(EncodedPacket.encode(this.waypoints.waypointsProtocol(), packetId, packet));
+    return this.service.getSentPackets();
+  }
+
+  @Benchmark
+  public long passthroughWaypoints() {
+    PayloadPassthrough passthrough = this.waypoints.passthrough();
+    passthrough.forward(this.recipients, this.waypointPayload, 0, this.waypointPayload.length);
+    return this.service.getSentPackets();
+  }
+
+  private void send(EncodedPacket packet) {
+    for (UUID recipient : this.recipients) {
+      this.packetQueues.send(recipient, packet);
+    }
+  }
+
+  private static byte[] encode(Packet packet) {
+    PayloadWriter writer = new PayloadWriter();
+    writer.writeVarInt(PACKET_ID);
+    packet.write(writer);
+    return writer.toByteArray();
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.benchmarks;
+
+import net.labymod.serverapi.api.payload.io.PayloadReader;
+import net.labymod.serverapi.integration.voicechat.model.VoiceChatMute;
+import net.labymod.serverapi.integration.voicechat.packets.VoiceChatMutePacket;
+import net.labymod.serverapi.integration.voicechat.packets.VoiceChatUnmutePacket;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointDimensionPacket;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointRemovePacket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of the packets that are sent for a single change, like muting a single
+ * player or updating the dimension of a player.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SinglePacketBenchmark {
+
+  private VoiceChatMutePacket mutePacket;
+  private VoiceChatUnmutePacket unmutePacket;
+  private WaypointDimensionPacket dimensionPacket;
+  private WaypointRemovePacket removePacket;
+
+  private byte[] mutePayload;
+  private byte[] unmutePayload;
+  private byte[] dimensionPayload;
+  private byte[] removePayload;
+
+  @Setup
+  public void setup() {
+    VoiceChatMute mute = BenchmarkData.mutes(1).get(0);
+    this.mutePacket = new VoiceChatMutePacket(mute);
+    this.unmutePacket = new VoiceChatUnmutePacket(mute.getUniqueId());
+    this.dimensionPacket = new WaypointDimensionPacket(
+        BenchmarkData.DIMENSIONS[1],
+        WaypointDimensionPacket.Until.VANILLA_DIMENSION_UPDATE
+    );
+    this.removePacket = new WaypointRemovePacket(UUID.randomUUID().toString());
+
+    this.mutePayload = BenchmarkData.encode(this.mutePacket);
+    this.unmutePayload = BenchmarkData.encode(this.unmutePacket);
+    this.dimensionPayload = BenchmarkData.encode(this.dimensionPacket);
+    this.removePayload = BenchmarkData.encode(this.removePacket);
+  }
+
+  @Benchmark
+  public byte[] writeMute() {
+    return BenchmarkData.encode(this.mutePacket);
+  }
+
+  @Benchmark
+  public VoiceChatMutePacket readMute() {
+    VoiceChatMutePacket packet = new VoiceChatMutePacket();
+    packet.read(new PayloadReader(this.mutePayload));
+    return packet;
+  }
+
+  @Benchmark
+  public byte[] writeUnmute() {
+    return BenchmarkData.encode(this.unmutePacket);
+  }
+
+  @Benchmark
+  public VoiceChatUnmutePacket readUnmute() {
+    VoiceChatUnmutePacket packet = new VoiceChatUnmutePacket(this.unmutePacket.getUniqueId());
+    packet.read(new PayloadReader(this.unmutePayload));
+    return packet;
+  }
+
+  @Benchmark
+  public byte[] writeDimension() {
+    return BenchmarkData.encode(this.dimensionPacket);
+  }
+
+  @Benchmark
+  public WaypointDimensionPacket readDimension() {
+    WaypointDimensionPacket packet = new WaypointDimensionPacket(null);
+    packet.read(new PayloadReader(this.dimensionPayload));
+    return packet;
+  }
+
+  @Benchmark
+  public byte[] writeRemove() {
+    return BenchmarkData.encode(this.removePacket);
+  }
+
+  @Benchmark
+  public WaypointRemovePacket readRemove() {
+    WaypointRemovePacket packet = new WaypointRemovePacket(this.removePacket.getId());
+    packet.read(new PayloadReader(this.removePayload));
+    return packet;
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.benchmarks;
+
+import net.labymod.serverapi.api.payload.PayloadChannelIdentifier;
+import net.labymod.serverapi.api.payload.io.PayloadWriter;
+import net.labymod.serverapi.core.AbstractLabyModPlayer;
+import net.labymod.serverapi.core.AbstractLabyModProtocolService;
+import net.labymod.serverapi.core.integration.LabyModProtocolIntegration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A protocol service without a server. Sent payloads are only counted and players are added
+ * manually with {@link #addPlayer}.
+ */
+final class StubProtocolService extends AbstractLabyModProtocolService {
+
+  private final Map<UUID, AbstractLabyModPlayer<?>> players = new LinkedHashMap<>();
+  private final List<LabyModProtocolIntegration> integrations = new ArrayList<>();
+
+  private long sentPackets;
+  private long sentBytes;
+
+  /**
+   * Initializes the provided integration with this service.
+   *
+   * @param integration the integration to register
+   * @param <T>         the type of the integration
+   * @return the provided integration
+   */
+  <T extends LabyModProtocolIntegration> @NotNull T register(@NotNull T integration) {
+    integration.initialize(this);
+    this.integrations.add(integration);
+    return integration;
+  }
+
+  /**
+   * @return the registered integrations in the order they were registered
+   */
+  @NotNull List<LabyModProtocolIntegration> integrations() {
+    return Collections.unmodifiableList(this.integrations);
+  }
+
+  /**
+   * Adds a player to the service without creating any integration players.
+   *
+   * @param uniqueId the unique id of the player
+   * @return the added player
+   */
+  @NotNull AbstractLabyModPlayer<?> addPlayer(@NotNull UUID uniqueId) {
+    StubPlayer player = new StubPlayer(uniqueId);
+    this.players.put(uniqueId, player);
+    return player;
+  }
+
+  @Override
+  public void send(
+      @NotNull PayloadChannelIdentifier identifier,
+      @NotNull UUID recipient,
+      @NotNull PayloadWriter writer
+  ) {
+    this.sentPackets++;
+    this.sentBytes += writer.toByteArray().length;
+  }
+
+  @Override
+  public @NotNull Collection<AbstractLabyModPlayer<?>> getPlayers() {
+    return this.players.values();
+  }
+
+  @Override
+  public @Nullable AbstractLabyModPlayer<?> getPlayer(@NotNull UUID uniqueId) {
+    return this.players.get(uniqueId);
+  }
+
+  /**
+   * @return the amount of payloads sent since the last {@link #resetCounters()}
+   */
+  long getSentPackets() {
+    return this.sentPackets;
+  }
+
+  /**
+   * @return the amount of bytes sent since the last {@link #resetCounters()}
+   */
+  long getSentBytes() {
+    return this.sentBytes;
+  }
+
+  void resetCounters() {
+    this.sentPackets = 0;
+    this.sentBytes = 0;
+  }
+
+  private static final class StubPlayer extends AbstractLabyModPlayer<StubPlayer> {
+
+    private final UUID uniqueId;
+
+    private StubPlayer(UUID uniqueId) {
+      this.uniqueId = uniqueId;
+    }
+
+    @Override
+    public UUID getUniqueId() {
+      return this.uniqueId;
+    }
+  }
+}
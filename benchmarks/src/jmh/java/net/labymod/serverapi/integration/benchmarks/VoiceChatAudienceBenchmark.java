@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.benchmarks;
+
+import net.labymod.serverapi.core.AbstractLabyModPlayer;
+import net.labymod.serverapi.integration.voicechat.VoiceChatIntegration;
+import net.labymod.serverapi.integration.voicechat.VoiceChatPlayer;
+import net.labymod.serverapi.integration.voicechat.audience.VoiceChatAudienceResolver;
+import net.labymod.serverapi.integration.voicechat.model.VoiceChatMute;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Muting and unmuting a player on a server split into isolated arenas, sending the mutes to all
+ * players or only to the players of the arena of the muted player. The amount of sent payloads
+ * is reported as secondary result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VoiceChatAudienceBenchmark {
+
+  private static final int PLAYERS_PER_ARENA = 10;
+
+  @Param({"20", "200"})
+  public int arenaCount;
+
+  @Param({"false", "true"})
+  public boolean audiences;
+
+  private StubProtocolService service;
+  private VoiceChatPlayer[] players;
+  private VoiceChatMute[] mutes;
+  private int next;
+
+  @Setup
+  public void setup() {
+    this.service = new StubProtocolService();
+    VoiceChatIntegration integration = this.service.register(new VoiceChatIntegration());
+
+    List<UUID> uniqueIds = BenchmarkData.uniqueIds(this.arenaCount * PLAYERS_PER_ARENA);
+    Map<UUID, Integer> arenas = new HashMap<>();
+    for (int index = 0; index < uniqueIds.size(); index++) {
+      arenas.put(uniqueIds.get(index), index % this.arenaCount);
+    }
+
+    if (this.audiences) {
+      integration.setAudienceResolver(VoiceChatAudienceResolver.byGroup(arenas::get));
+    }
+
+    this.players = new VoiceChatPlayer[uniqueIds.size()];
+    this.mutes = new VoiceChatMute[uniqueIds.size()];
+    for (int index = 0; index < uniqueIds.size(); index++) {
+      UUID uniqueId = uniqueIds.get(index);
+      AbstractLabyModPlayer<?> player = this.service.addPlayer(uniqueId);
+      this.players[index] = (VoiceChatPlayer) integration.createIntegrationPlayer(player);
+      this.mutes[index] = VoiceChatMute.create(uniqueId, "Spamming in voice chat");
+    }
+  }
+
+  @Benchmark
+  public void muteAndUnmute(SentPayloads sent) {
+    int index = this.next++ % this.players.length;
+    long before = this.service.getSentPackets();
+    this.players[index].mute(this.mutes[index]);
+    this.players[index].unmute();
+    sent.sentPayloads += this.service.getSentPackets() - before;
+  }
+
+  /**
+   * Reports the amount of payloads sent by a benchmark as secondary result.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class SentPayloads {
+
+    /**
+     * The amount of sent payloads.
+     */
+    public long sentPayloads;
+  }
+}
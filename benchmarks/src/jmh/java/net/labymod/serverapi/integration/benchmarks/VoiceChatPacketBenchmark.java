@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.benchmarks;
+
+import net.labymod.serverapi.api.payload.io.PayloadReader;
+import net.labymod.serverapi.integration.voicechat.packets.VoiceChatBulkUnmutePacket;
+import net.labymod.serverapi.integration.voicechat.packets.VoiceChatMutePacket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of the voice chat packets that contain a list of mutes or unmutes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VoiceChatPacketBenchmark {
+
+  @Param({"1", "100", "1000", "5000"})
+  public int muteCount;
+
+  private VoiceChatMutePacket mutePacket;
+  private VoiceChatBulkUnmutePacket bulkUnmutePacket;
+
+  private byte[] mutePayload;
+  private byte[] bulkUnmutePayload;
+
+  @Setup
+  public void setup() {
+    this.mutePacket = new VoiceChatMutePacket(BenchmarkData.mutes(this.muteCount));
+    this.bulkUnmutePacket = new VoiceChatBulkUnmutePacket(
+        BenchmarkData.uniqueIds(this.muteCount)
+    );
+
+    this.mutePayload = BenchmarkData.encode(this.mutePacket);
+    this.bulkUnmutePayload = BenchmarkData.encode(this.bulkUnmutePacket);
+
+    PayloadSize.report("writeMutes", this.mutePayload);
+    PayloadSize.report("writeBulkUnmutes", this.bulkUnmutePayload);
+  }
+
+  @Benchmark
+  public byte[] writeMutes() {
+    return BenchmarkData.encode(this.mutePacket);
+  }
+
+  @Benchmark
+  public VoiceChatMutePacket readMutes() {
+    VoiceChatMutePacket packet = new VoiceChatMutePacket(Collections.emptyList());
+    packet.read(new PayloadReader(this.mutePayload));
+    return packet;
+  }
+
+  @Benchmark
+  public byte[] writeBulkUnmutes() {
+    return BenchmarkData.encode(this.bulkUnmutePacket);
+  }
+
+  @Benchmark
+  public VoiceChatBulkUnmutePacket readBulkUnmutes() {
+    VoiceChatBulkUnmutePacket packet = new VoiceChatBulkUnmutePacket(Collections.emptyList());
+    packet.read(new PayloadReader(this.bulkUnmutePayload));
+    return packet;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.benchmarks;
+
+import net.labymod.serverapi.integration.waypoints.model.PackedWaypointList;
+import net.labymod.serverapi.integration.waypoints.model.ServerWaypoint;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures the retained heap of a list of {@link ServerWaypoint} objects compared to a
+ * {@link PackedWaypointList} containing the same waypoints. Strings shared between the waypoints
+ * are only counted once.
+ * <p>
+ * Arguments: {@code [waypoints]}, run it with
+ * {@code ./gradlew :benchmarks:waypointFootprint --args="100000"}.
+ */
+public final class WaypointFootprint {
+
+  private WaypointFootprint() {
+  }
+
+  public static void main(String[] args) {
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    List<ServerWaypoint> waypoints = new ArrayList<>(BenchmarkData.waypoints(count, 10_000));
+    PackedWaypointList packed = PackedWaypointList.of(waypoints);
+
+    // the ids and names are identical in both representations, so they are measured separately
+    List<String> strings = new ArrayList<>(count * 2);
+    for (ServerWaypoint waypoint : waypoints) {
+      strings.add(waypoint.getId());
+      strings.add(waypoint.getName());
+    }
+
+    long stringSize = GraphLayout.parseInstance(strings).totalSize();
+    System.out.printf(Locale.ROOT, "Footprint of %d waypoints%n", count);
+    print("ArrayList<ServerWaypoint>", GraphLayout.parseInstance(waypoints), count);
+    print("PackedWaypointList", GraphLayout.parseInstance(packed), count);
+    System.out.printf(
+        Locale.ROOT,
+        "%-28s %12.1f bytes per waypoint%n",
+        "(ids and names)",
+        stringSize / (double) count
+    );
+  }
+
+  private static void print(String name, GraphLayout layout, int count) {
+    System.out.printf(
+        Locale.ROOT,
+        "%-28s %12d bytes %10d objects %8.1f bytes per waypoint%n",
+        name,
+        layout.totalSize(),
+        layout.totalCount(),
+        layout.totalSize() / (double) count
+    );
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.benchmarks;
+
+import net.labymod.serverapi.api.payload.io.PayloadReader;
+import net.labymod.serverapi.integration.waypoints.model.ServerWaypoint;
+import net.labymod.serverapi.integration.waypoints.model.WaypointPosition;
+import net.labymod.serverapi.integration.waypoints.packets.CompactWaypointPacket;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointPacket;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointPositionPacket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of the waypoint packets that contain a list of waypoints or positions.
+ * The payload sizes of the regular and compact variants are printed once per trial, see
+ * {@link PayloadSize}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WaypointPacketBenchmark {
+
+  @Param({"1", "100", "1000", "10000"})
+  public int waypointCount;
+
+  private WaypointPacket waypointPacket;
+  private CompactWaypointPacket compactPacket;
+  private CompactWaypointPacket quantizedPacket;
+  private WaypointPositionPacket positionPacket;
+
+  private byte[] waypointPayload;
+  private byte[] compactPayload;
+  private byte[] quantizedPayload;
+  private byte[] positionPayload;
+
+  @Setup
+  public void setup() {
+    List<ServerWaypoint> waypoints = BenchmarkData.waypoints(this.waypointCount, 10_000);
+    List<WaypointPosition> positions = BenchmarkData.positions(waypoints);
+
+    this.waypointPacket = new WaypointPacket(waypoints);
+    this.compactPacket = new CompactWaypointPacket(waypoints, false);
+    this.quantizedPacket = new CompactWaypointPacket(waypoints, true);
+    this.positionPacket = new WaypointPositionPacket(positions);
+
+    this.waypointPayload = BenchmarkData.encode(this.waypointPacket);
+    this.compactPayload = BenchmarkData.encode(this.compactPacket);
+    this.quantizedPayload = BenchmarkData.encode(this.quantizedPacket);
+    this.positionPayload = BenchmarkData.encode(this.positionPacket);
+
+    PayloadSize.report("writeWaypoints", this.waypointPayload);
+    PayloadSize.report("writeCompactWaypoints", this.compactPayload);
+    PayloadSize.report("writeQuantizedWaypoints", this.quantizedPayload);
+    PayloadSize.report("writePositions", this.positionPayload);
+  }
+
+  @Benchmark
+  public byte[] writeWaypoints() {
+    return BenchmarkData.encode(this.waypointPacket);
+  }
+
+  @Benchmark
+  public WaypointPacket readWaypoints() {
+    WaypointPacket packet = new WaypointPacket(Collections.emptyList());
+    packet.read(new PayloadReader(this.waypointPayload));
+    return packet;
+  }
+
+  @Benchmark
+  public byte[] writeCompactWaypoints() {
+    return BenchmarkData.encode(this.compactPacket);
+  }
+
+  @Benchmark
+  public CompactWaypointPacket readCompactWaypoints() {
+    CompactWaypointPacket packet = new CompactWaypointPacket(Collections.emptyList(), false);
+    packet.read(new PayloadReader(this.compactPayload));
+    return packet;
+  }
+
+  @Benchmark
+  public byte[] writeQuantizedWaypoints() {
+    return BenchmarkData.encode(this.quantizedPacket);
+  }
+
+  @Benchmark
+  public CompactWaypointPacket readQuantizedWaypoints() {
+    CompactWaypointPacket packet = new CompactWaypointPacket(Collections.emptyList(), true);
+    packet.read(new PayloadReader(this.quantizedPayload));
+    return packet;
+  }
+
+  @Benchmark
+  public byte[] writePositions() {
+    return BenchmarkData.encode(this.positionPacket);
+  }
+
+  @Benchmark
+  public WaypointPositionPacket readPositions() {
+    WaypointPositionPacket packet = new WaypointPositionPacket(Collections.emptyList());
+    packet.read(new PayloadReader(this.positionPayload));
+    return packet;
+  }
+}
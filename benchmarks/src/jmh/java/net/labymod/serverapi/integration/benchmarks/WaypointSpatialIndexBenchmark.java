@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.benchmarks;
+
+import net.labymod.serverapi.integration.waypoints.WaypointSpatialIndex;
+import net.labymod.serverapi.integration.waypoints.model.ServerWaypoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a view distance query of the {@link WaypointSpatialIndex} with a linear scan over all
+ * waypoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WaypointSpatialIndexBenchmark {
+
+  private static final int RANGE = 20_000;
+
+  @Param({"10000", "100000"})
+  public int waypointCount;
+
+  @Param({"128", "512"})
+  public double radius;
+
+  private List<ServerWaypoint> waypoints;
+  private WaypointSpatialIndex index;
+
+  @Setup
+  public void setup() {
+    this.waypoints = BenchmarkData.waypoints(this.waypointCount, RANGE);
+    this.index = new WaypointSpatialIndex();
+    this.index.addAll(this.waypoints);
+  }
+
+  @Benchmark
+  public List<ServerWaypoint> query() {
+    return this.index.query(BenchmarkData.DIMENSIONS[0], 0, 64, 0, this.radius);
+  }
+
+  @Benchmark
+  public List<ServerWaypoint> linearScan() {
+    String dimension = BenchmarkData.DIMENSIONS[0];
+    double radiusSquared = this.radius * this.radius;
+    List<ServerWaypoint> result = new ArrayList<>();
+    for (ServerWaypoint waypoint : this.waypoints) {
+      if (waypoint.getDimension() != null && !Objects.equals(waypoint.getDimension(), dimension)) {
+        continue;
+      }
+
+      double dx = waypoint.getX();
+      double dy = waypoint.getY() - 64;
+      double dz = waypoint.getZ();
+      if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+        result.add(waypoint);
+      }
+    }
+
+    return result;
+  }
+}
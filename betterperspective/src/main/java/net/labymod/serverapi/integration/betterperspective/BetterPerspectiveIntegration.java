@@ -25,11 +25,26 @@
 package net.labymod.serverapi.integration.betterperspective;
 
 import com.google.auto.service.AutoService;
+import net.labymod.serverapi.api.packet.Packet;
 import net.labymod.serverapi.core.AbstractLabyModPlayer;
 import net.labymod.serverapi.core.AbstractLabyModProtocolService;
 import net.labymod.serverapi.core.integration.LabyModIntegrationPlayer;
 import net.labymod.serverapi.core.integration.LabyModProtocolIntegration;
 import net.labymod.serverapi.core.model.moderation.Permission;
+import net.labymod.serverapi.core.packet.clientbound.game.moderation.PermissionPacket;
+import net.labymod.serverapi.integration.betterperspective.zone.CameraZoneEngine;
+import net.labymod.serverapi.integration.betterperspective.zone.CameraZoneIndex;
+import net.labymod.serverapi.integration.common.metrics.Counter;
+import net.labymod.serverapi.integration.common.metrics.Histogram;
+import net.labymod.serverapi.integration.common.metrics.IntegrationMetrics;
+import net.labymod.serverapi.integration.common.packet.EncodedPacket;
+import net.labymod.serverapi.integration.common.queue.OutboundPacketQueues;
+import net.labymod.serverapi.integration.common.queue.PacketPriority;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
 
 @AutoService(LabyModProtocolIntegration.class)
 public class BetterPerspectiveIntegration implements LabyModProtocolIntegration {
@@ -38,15 +53,143 @@ public class BetterPerspectiveIntegration implements LabyModProtocolIntegration
       "better_perspective_unlock_camera"
   );
 
+  // the id of the permission packet in the LabyMod protocol
+  static final int PERMISSION_PACKET_ID = 1;
+
+  private static final IntegrationMetrics METRICS = IntegrationMetrics.of("betterperspective");
+  private static final Histogram CREATE_PLAYER_TIME = METRICS.histogram("create_player.nanos");
+  static final Counter SENT = METRICS.counter("unlock_camera.sent");
+  static final Counter SUPPRESSED = METRICS.counter("unlock_camera.suppressed");
+
   private AbstractLabyModProtocolService protocolService;
+  private OutboundPacketQueues packetQueues;
+  private CameraZoneEngine cameraZones;
+  private EncodedPacket allowUnlockCameraPacket;
+  private EncodedPacket denyUnlockCameraPacket;
 
   @Override
   public void initialize(AbstractLabyModProtocolService protocolService) {
     this.protocolService = protocolService;
+    this.cameraZones = new CameraZoneEngine(protocolService, new CameraZoneIndex());
+
+    // the permissions never change, so they are only encoded once for all bulk changes
+    this.allowUnlockCameraPacket = EncodedPacket.encode(
+        protocolService.labyModProtocol(),
+        PERMISSION_PACKET_ID,
+        BetterPerspectivePlayer.ALLOW_UNLOCK_CAMERA_PACKET
+    );
+    this.denyUnlockCameraPacket = EncodedPacket.encode(
+        protocolService.labyModProtocol(),
+        PERMISSION_PACKET_ID,
+        BetterPerspectivePlayer.DENY_UNLOCK_CAMERA_PACKET
+    );
+
+    // only the latest unlock camera permission of a player has to be sent
+    this.packetQueues = OutboundPacketQueues.of(protocolService);
+    this.packetQueues.registerMerger(
+        protocolService.labyModProtocol(),
+        (previous, next) -> isUnlockCameraPacket(previous) && isUnlockCameraPacket(next)
+            ? next
+            : null
+    );
+
+    // permission changes are never delayed by bandwidth budgets
+    this.packetQueues.registerPriority(PermissionPacket.class, PacketPriority.HIGH);
   }
 
   @Override
   public LabyModIntegrationPlayer createIntegrationPlayer(AbstractLabyModPlayer<?> labyModPlayer) {
-    return new BetterPerspectivePlayer(this.protocolService, labyModPlayer.getUniqueId());
+    long start = CREATE_PLAYER_TIME.start();
+    // a rejoining player starts outside of all zones again
+    this.cameraZones.remove(labyModPlayer.getUniqueId());
+    BetterPerspectivePlayer player = new BetterPerspectivePlayer(
+        this,
+        this.protocolService,
+        labyModPlayer.getUniqueId()
+    );
+    CREATE_PLAYER_TIME.recordSince(start);
+    return player;
+  }
+
+  /**
+   * Allows or denies the provided players to use the unlock camera feature, for example all
+   * players in a region. Players that already have the permission do not receive it again and all
+   * players share the same encoded packet.
+   *
+   * @param uniqueIds the unique ids of the players
+   * @param allowed   whether the players are allowed to use the unlock camera feature
+   * @return the amount of players the permission was sent to
+   */
+  public int setUnlockCameraAllowed(@NotNull Collection<UUID> uniqueIds, boolean allowed) {
+    Objects.requireNonNull(uniqueIds, "Unique ids cannot be null");
+    int sentCount = 0;
+    for (UUID uniqueId : uniqueIds) {
+      AbstractLabyModPlayer<?> player = this.protocolService.getPlayer(uniqueId);
+      if (player != null && this.setUnlockCameraAllowed(player, allowed)) {
+        sentCount++;
+      }
+    }
+
+    return sentCount;
+  }
+
+  /**
+   * Allows or denies all players on the server to use the unlock camera feature, see
+   * {@link #setUnlockCameraAllowed(Collection, boolean)}.
+   *
+   * @param allowed whether the players are allowed to use the unlock camera feature
+   * @return the amount of players the permission was sent to
+   */
+  public int setUnlockCameraAllowedForAll(boolean allowed) {
+    int sentCount = 0;
+    for (AbstractLabyModPlayer<?> player : this.protocolService.getPlayers()) {
+      if (this.setUnlockCameraAllowed(player, allowed)) {
+        sentCount++;
+      }
+    }
+
+    return sentCount;
+  }
+
+  /**
+   * @return the engine allowing or denying the unlock camera feature based on the zone a player
+   * is in
+   */
+  public @NotNull CameraZoneEngine cameraZones() {
+    return this.cameraZones;
+  }
+
+  /**
+   * @return the amount of unlock camera permissions that were sent while
+   * {@link IntegrationMetrics#isEnabled() metrics are enabled}
+   */
+  public long getSentCount() {
+    return SENT.sum();
+  }
+
+  /**
+   * @return the amount of unlock camera permissions that were not sent because the player already
+   * had the permission, counted while {@link IntegrationMetrics#isEnabled() metrics are enabled}
+   */
+  public long getSuppressedCount() {
+    return SUPPRESSED.sum();
+  }
+
+  @NotNull OutboundPacketQueues packetQueues() {
+    return this.packetQueues;
+  }
+
+  private boolean setUnlockCameraAllowed(AbstractLabyModPlayer<?> player, boolean allowed) {
+    BetterPerspectivePlayer betterPerspectivePlayer =
+        player.getIntegrationPlayer(BetterPerspectivePlayer.class);
+    return betterPerspectivePlayer != null && betterPerspectivePlayer.setUnlockCameraAllowed(
+        allowed,
+        allowed ? this.allowUnlockCameraPacket : this.denyUnlockCameraPacket
+    );
+  }
+
+  private static boolean isUnlockCameraPacket(Packet packet) {
+    return packet == BetterPerspectivePlayer.ALLOW_UNLOCK_CAMERA_PACKET
+        || packet == BetterPerspectivePlayer.DENY_UNLOCK_CAMERA_PACKET;
   }
 }
@@ -27,15 +27,31 @@ package net.labymod.serverapi.integration.betterperspective;
 import net.labymod.serverapi.core.AbstractLabyModProtocolService;
 import net.labymod.serverapi.core.integration.LabyModIntegrationPlayer;
 import net.labymod.serverapi.core.packet.clientbound.game.moderation.PermissionPacket;
+import net.labymod.serverapi.integration.common.packet.EncodedPacket;
 
 import java.util.UUID;
 
 public class BetterPerspectivePlayer implements LabyModIntegrationPlayer {
 
+  static final PermissionPacket ALLOW_UNLOCK_CAMERA_PACKET = new PermissionPacket(
+      BetterPerspectiveIntegration.UNLOCK_CAMERA_PERMISSION.allow()
+  );
+  static final PermissionPacket DENY_UNLOCK_CAMERA_PACKET = new PermissionPacket(
+      BetterPerspectiveIntegration.UNLOCK_CAMERA_PERMISSION.deny()
+  );
+
+  private final BetterPerspectiveIntegration integration;
   private final AbstractLabyModProtocolService protocolService;
   private final UUID uniqueId;
 
-  protected BetterPerspectivePlayer(AbstractLabyModProtocolService protocolService, UUID uniqueId) {
+  private Boolean unlockCameraAllowed;
+
+  protected BetterPerspectivePlayer(
+      BetterPerspectiveIntegration integration,
+      AbstractLabyModProtocolService protocolService,
+      UUID uniqueId
+  ) {
+    this.integration = integration;
     this.protocolService = protocolService;
     this.uniqueId = uniqueId;
   }
@@ -44,26 +60,79 @@ public class BetterPerspectivePlayer implements LabyModIntegrationPlayer {
    * Allows the player to use the unlock camera feature.
    */
   public void allowUnlockCamera() {
-    this.protocolService.labyModProtocol().sendPacket(
-        this.uniqueId,
-        new PermissionPacket(BetterPerspectiveIntegration.UNLOCK_CAMERA_PERMISSION.allow())
-    );
+    this.setUnlockCameraAllowed(true);
   }
 
   /**
    * Denies the player to use the unlock camera feature.
    */
   public void denyUnlockCamera() {
-    this.protocolService.labyModProtocol().sendPacket(
-        this.uniqueId,
-        new PermissionPacket(BetterPerspectiveIntegration.UNLOCK_CAMERA_PERMISSION.deny())
-    );
+    this.setUnlockCameraAllowed(false);
+  }
+
+  /**
+   * Allows or denies the player to use the unlock camera feature. The permission is only sent if
+   * it differs from the permission that was sent last, so this method can be called as often as
+   * needed.
+   *
+   * @param allowed whether the player is allowed to use the unlock camera feature
+   * @return {@code true} if the permission was sent, {@code false} if the player already had it
+   */
+  public synchronized boolean setUnlockCameraAllowed(boolean allowed) {
+    if (!this.changeUnlockCameraAllowed(allowed)) {
+      return false;
+    }
+
+    this.integration.packetQueues()
+        .queue(this.uniqueId)
+        .enqueue(
+            this.protocolService.labyModProtocol(),
+            allowed ? ALLOW_UNLOCK_CAMERA_PACKET : DENY_UNLOCK_CAMERA_PACKET
+        );
+    return true;
+  }
+
+  /**
+   * Same as {@link #setUnlockCameraAllowed(boolean)}, but sends the provided already encoded
+   * permission that is shared by all players of a bulk change.
+   *
+   * @param allowed whether the player is allowed to use the unlock camera feature
+   * @param packet  the encoded permission packet
+   * @return {@code true} if the permission was sent, {@code false} if the player already had it
+   */
+  synchronized boolean setUnlockCameraAllowed(boolean allowed, EncodedPacket packet) {
+    if (!this.changeUnlockCameraAllowed(allowed)) {
+      return false;
+    }
+
+    this.integration.packetQueues().queue(this.uniqueId).enqueue(packet);
+    return true;
+  }
+
+  /**
+   * @return whether the player was last allowed to use the unlock camera feature, {@code false}
+   * if no permission was sent yet
+   */
+  public synchronized boolean isUnlockCameraAllowed() {
+    return this.unlockCameraAllowed != null && this.unlockCameraAllowed;
+  }
+
+  private boolean changeUnlockCameraAllowed(boolean allowed) {
+    if (this.unlockCameraAllowed != null && this.unlockCameraAllowed == allowed) {
+      BetterPerspectiveIntegration.SUPPRESSED.increment();
+      return false;
+    }
+
+    this.unlockCameraAllowed = allowed;
+    BetterPerspectiveIntegration.SENT.increment();
+    return true;
   }
 
   @Override
   public String toString() {
     return "BetterPerspectivePlayer{" +
         "uniqueId=" + this.uniqueId +
+        ", unlockCameraAllowed=" + this.unlockCameraAllowed +
         '}';
   }
 }
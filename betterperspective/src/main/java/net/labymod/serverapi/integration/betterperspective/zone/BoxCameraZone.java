@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.betterperspective.zone;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An axis-aligned box shaped camera zone. The minimum coordinates are inclusive, the maximum
+ * coordinates are exclusive.
+ */
+public class BoxCameraZone extends CameraZone {
+
+  private final double minX;
+  private final double minY;
+  private final double minZ;
+  private final double maxX;
+  private final double maxY;
+  private final double maxZ;
+
+  public BoxCameraZone(
+      @NotNull String id,
+      @Nullable String dimension,
+      int priority,
+      boolean unlockCameraAllowed,
+      double x1,
+      double y1,
+      double z1,
+      double x2,
+      double y2,
+      double z2
+  ) {
+    super(id, dimension, priority, unlockCameraAllowed);
+    this.minX = Math.min(x1, x2);
+    this.minY = Math.min(y1, y2);
+    this.minZ = Math.min(z1, z2);
+    this.maxX = Math.max(x1, x2);
+    this.maxY = Math.max(y1, y2);
+    this.maxZ = Math.max(z1, z2);
+  }
+
+  @Override
+  public boolean contains(double x, double y, double z) {
+    return x >= this.minX && x < this.maxX
+        && y >= this.minY && y < this.maxY
+        && z >= this.minZ && z < this.maxZ;
+  }
+
+  @Override
+  public double getMinX() {
+    return this.minX;
+  }
+
+  public double getMinY() {
+    return this.minY;
+  }
+
+  @Override
+  public double getMinZ() {
+    return this.minZ;
+  }
+
+  @Override
+  public double getMaxX() {
+    return this.maxX;
+  }
+
+  public double getMaxY() {
+    return this.maxY;
+  }
+
+  @Override
+  public double getMaxZ() {
+    return this.maxZ;
+  }
+
+  @Override
+  public String toString() {
+    return "BoxCameraZone{" +
+        "id='" + this.getId() + '\'' +
+        ", dimension='" + this.getDimension() + '\'' +
+        ", priority=" + this.getPriority() +
+        ", unlockCameraAllowed=" + this.isUnlockCameraAllowed() +
+        ", min=" + this.minX + "," + this.minY + "," + this.minZ +
+        ", max=" + this.maxX + "," + this.maxY + "," + this.maxZ +
+        '}';
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.betterperspective.zone;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * An area in which players are allowed or denied to use the unlock camera feature, see
+ * {@link CameraZoneEngine}. If zones overlap, the zone with the highest priority applies.
+ */
+public abstract class CameraZone {
+
+  private final String id;
+  private final String dimension;
+  private final int priority;
+  private final boolean unlockCameraAllowed;
+
+  protected CameraZone(
+      @NotNull String id,
+      @Nullable String dimension,
+      int priority,
+      boolean unlockCameraAllowed
+  ) {
+    Objects.requireNonNull(id, "Id cannot be null");
+    this.id = id;
+    this.dimension = dimension;
+    this.priority = priority;
+    this.unlockCameraAllowed = unlockCameraAllowed;
+  }
+
+  /**
+   * @return the unique identifier of the zone
+   */
+  public @NotNull String getId() {
+    return this.id;
+  }
+
+  /**
+   * @return the dimension of the zone, if {@code null} the zone exists in every dimension
+   */
+  public @Nullable String getDimension() {
+    return this.dimension;
+  }
+
+  /**
+   * @return the priority of the zone, the zone with the highest priority applies if zones overlap
+   */
+  public int getPriority() {
+    return this.priority;
+  }
+
+  /**
+   * @return whether players in the zone are allowed to use the unlock camera feature
+   */
+  public boolean isUnlockCameraAllowed() {
+    return this.unlockCameraAllowed;
+  }
+
+  /**
+   * @param x the x-coordinate of the position
+   * @param y the y-coordinate of the position
+   * @param z the z-coordinate of the position
+   * @return whether the position is inside the zone
+   */
+  public abstract boolean contains(double x, double y, double z);
+
+  /**
+   * @return the smallest x-coordinate of the zone
+   */
+  public abstract double getMinX();
+
+  /**
+   * @return the smallest z-coordinate of the zone
+   */
+  public abstract double getMinZ();
+
+  /**
+   * @return the largest x-coordinate of the zone
+   */
+  public abstract double getMaxX();
+
+  /**
+   * @return the largest z-coordinate of the zone
+   */
+  public abstract double getMaxZ();
+
+  @Override
+  public boolean equals(Object object) {
+    if (this == object) {
+      return true;
+    }
+    if (!(object instanceof CameraZone)) {
+      return false;
+    }
+    CameraZone that = (CameraZone) object;
+    return Objects.equals(this.id, that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(this.id);
+  }
+}
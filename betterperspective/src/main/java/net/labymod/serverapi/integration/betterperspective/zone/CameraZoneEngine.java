@@ -0,0 +1,258 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.betterperspective.zone;
+
+import net.labymod.serverapi.core.AbstractLabyModPlayer;
+import net.labymod.serverapi.core.AbstractLabyModProtocolService;
+import net.labymod.serverapi.integration.betterperspective.BetterPerspectivePlayer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Allows or denies players to use the unlock camera feature based on the {@link CameraZone} they
+ * are in.
+ * <p>
+ * Plugins pass the positions of their players, usually once per tick using a
+ * {@link PositionBatch}. The engine remembers the zone every player was last in and only sends the
+ * unlock camera permission when a player enters or leaves a zone. Players outside any zone get
+ * the {@link #isOutsideUnlockCameraAllowed() outside permission} once they leave a zone.
+ * <p>
+ * Players leaving the server should be {@link #remove removed}. Players whose leave is not
+ * reported are forgotten by the batch updates, which visit all players at most every 30 seconds.
+ */
+public final class CameraZoneEngine {
+
+  private static final long PRUNE_MILLIS = 30_000L;
+
+  private final AbstractLabyModProtocolService protocolService;
+  private final CameraZoneIndex index;
+  private final Map<UUID, PlayerZoneState> states = new ConcurrentHashMap<>();
+
+  private final LongAdder updates = new LongAdder();
+  private final LongAdder crossings = new LongAdder();
+
+  private volatile boolean outsideUnlockCameraAllowed = true;
+  private volatile long nextPrune;
+
+  public CameraZoneEngine(
+      @NotNull AbstractLabyModProtocolService protocolService,
+      @NotNull CameraZoneIndex index
+  ) {
+    Objects.requireNonNull(protocolService, "Protocol service cannot be null");
+    Objects.requireNonNull(index, "Index cannot be null");
+    this.protocolService = protocolService;
+    this.index = index;
+  }
+
+  /**
+   * @return the zones of the engine
+   */
+  public @NotNull CameraZoneIndex zones() {
+    return this.index;
+  }
+
+  /**
+   * Updates the positions of all players in the provided batch and forgets the players that left
+   * the server without being removed, see {@link #prune}.
+   *
+   * @param batch the positions of the players
+   * @return the amount of players that crossed a zone boundary
+   */
+  public int update(@NotNull PositionBatch batch) {
+    Objects.requireNonNull(batch, "Batch cannot be null");
+    int crossed = 0;
+    for (int i = 0; i < batch.size(); i++) {
+      if (this.update(
+          batch.getUniqueId(i),
+          batch.getDimension(i),
+          batch.getX(i),
+          batch.getY(i),
+          batch.getZ(i)
+      )) {
+        crossed++;
+      }
+    }
+
+    // the batch does not contain the players that left, they are only found by visiting all
+    long timestamp = System.currentTimeMillis();
+    if (timestamp >= this.nextPrune) {
+      this.nextPrune = timestamp + PRUNE_MILLIS;
+      this.prune();
+    }
+
+    return crossed;
+  }
+
+  /**
+   * Updates the position of a player. The unlock camera permission is only sent if the player
+   * entered or left a zone since the last update.
+   *
+   * @param uniqueId  the unique id of the player
+   * @param dimension the dimension the player is in
+   * @param x         the x-coordinate of the player
+   * @param y         the y-coordinate of the player
+   * @param z         the z-coordinate of the player
+   * @return whether the player crossed a zone boundary
+   */
+  public boolean update(
+      @NotNull UUID uniqueId,
+      @Nullable String dimension,
+      double x,
+      double y,
+      double z
+  ) {
+    Objects.requireNonNull(uniqueId, "Unique id cannot be null");
+    this.updates.increment();
+    CameraZone zone = this.index.find(dimension, x, y, z);
+    PlayerZoneState state = this.states.get(uniqueId);
+    if (state == null) {
+      if (zone == null) {
+        // players start outside of all zones
+        return false;
+      }
+
+      state = this.states.computeIfAbsent(uniqueId, id -> new PlayerZoneState());
+    }
+
+    synchronized (state) {
+      if (state.zone == zone) {
+        return false;
+      }
+
+      state.zone = zone;
+    }
+
+    this.crossings.increment();
+    BetterPerspectivePlayer player = this.getBetterPerspectivePlayer(uniqueId);
+    if (player == null) {
+      this.states.remove(uniqueId);
+      return false;
+    }
+
+    player.setUnlockCameraAllowed(
+        zone == null ? this.outsideUnlockCameraAllowed : zone.isUnlockCameraAllowed()
+    );
+    return true;
+  }
+
+  /**
+   * @param uniqueId the unique id of the player
+   * @return the zone the player was in at the last update, or null if the player was outside of
+   * all zones
+   */
+  public @Nullable CameraZone getZone(@NotNull UUID uniqueId) {
+    Objects.requireNonNull(uniqueId, "Unique id cannot be null");
+    PlayerZoneState state = this.states.get(uniqueId);
+    if (state == null) {
+      return null;
+    }
+
+    synchronized (state) {
+      return state.zone;
+    }
+  }
+
+  /**
+   * Forgets the zone of a player, for example when the player leaves the server.
+   *
+   * @param uniqueId the unique id of the player
+   */
+  public void remove(@NotNull UUID uniqueId) {
+    Objects.requireNonNull(uniqueId, "Unique id cannot be null");
+    this.states.remove(uniqueId);
+  }
+
+  /**
+   * Forgets the zones of all players that are no longer on the server.
+   */
+  public void prune() {
+    Iterator<UUID> iterator = this.states.keySet().iterator();
+    while (iterator.hasNext()) {
+      if (this.protocolService.getPlayer(iterator.next()) == null) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * @return whether players outside of all zones are allowed to use the unlock camera feature
+   */
+  public boolean isOutsideUnlockCameraAllowed() {
+    return this.outsideUnlockCameraAllowed;
+  }
+
+  /**
+   * Sets whether players outside of all zones are allowed to use the unlock camera feature. The
+   * permission is sent when a player leaves a zone, players that are already outside of all zones
+   * are not updated. Enabled by default.
+   *
+   * @param outsideUnlockCameraAllowed whether players outside of all zones are allowed to use the
+   *                                   unlock camera feature
+   */
+  public void setOutsideUnlockCameraAllowed(boolean outsideUnlockCameraAllowed) {
+    this.outsideUnlockCameraAllowed = outsideUnlockCameraAllowed;
+  }
+
+  /**
+   * @return the amount of position updates
+   */
+  public long getUpdateCount() {
+    return this.updates.sum();
+  }
+
+  /**
+   * @return the amount of position updates in which a player crossed a zone boundary
+   */
+  public long getCrossingCount() {
+    return this.crossings.sum();
+  }
+
+  private @Nullable BetterPerspectivePlayer getBetterPerspectivePlayer(UUID uniqueId) {
+    AbstractLabyModPlayer<?> player = this.protocolService.getPlayer(uniqueId);
+    return player == null ? null : player.getIntegrationPlayer(BetterPerspectivePlayer.class);
+  }
+
+  @Override
+  public String toString() {
+    return "CameraZoneEngine{" +
+        "zones=" + this.index.getZones().size() +
+        ", players=" + this.states.size() +
+        ", updates=" + this.updates +
+        ", crossings=" + this.crossings +
+        '}';
+  }
+
+  private static final class PlayerZoneState {
+
+    private CameraZone zone;
+  }
+}
@@ -0,0 +1,332 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.betterperspective.zone;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A spatial index of camera zones. Every dimension is divided into square columns, each column
+ * knows the zones overlapping it, so a lookup only has to test the few zones of a single column.
+ * <p>
+ * Zones change rarely compared to how often they are looked up, so every change builds a new
+ * immutable snapshot of the index and lookups never lock.
+ */
+public final class CameraZoneIndex {
+
+  /**
+   * The default edge length of a column.
+   */
+  public static final int DEFAULT_CELL_SIZE = 64;
+
+  // zones covering more columns are tested for every lookup in their dimension instead
+  private static final int MAX_CELLS_PER_ZONE = 4096;
+
+  private static final Comparator<CameraZone> BY_PRIORITY =
+      (a, b) -> Integer.compare(b.getPriority(), a.getPriority());
+
+  private final int cellShift;
+  private final Map<String, CameraZone> zones = new LinkedHashMap<>();
+
+  private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+  public CameraZoneIndex() {
+    this(DEFAULT_CELL_SIZE);
+  }
+
+  /**
+   * @param cellSize the edge length of a column, has to be a power of two
+   */
+  public CameraZoneIndex(int cellSize) {
+    if (cellSize <= 0 || Integer.bitCount(cellSize) != 1) {
+      throw new IllegalArgumentException("Cell size must be a power of two");
+    }
+
+    this.cellShift = Integer.numberOfTrailingZeros(cellSize);
+  }
+
+  /**
+   * Adds the provided zone, replacing a zone with the same id.
+   *
+   * @param zone the zone
+   */
+  public void add(@NotNull CameraZone zone) {
+    Objects.requireNonNull(zone, "Zone cannot be null");
+    this.addAll(Collections.singletonList(zone));
+  }
+
+  /**
+   * Adds the provided zones, replacing zones with the same ids. The index is only rebuilt once.
+   *
+   * @param zones the zones
+   */
+  public void addAll(@NotNull Collection<? extends CameraZone> zones) {
+    Objects.requireNonNull(zones, "Zones cannot be null");
+    synchronized (this.zones) {
+      for (CameraZone zone : zones) {
+        Objects.requireNonNull(zone, "Zone cannot be null");
+        this.zones.put(zone.getId(), zone);
+      }
+
+      this.rebuild();
+    }
+  }
+
+  /**
+   * @param id the id of the zone
+   * @return the removed zone, or null if no zone with the id exists
+   */
+  public @Nullable CameraZone remove(@NotNull String id) {
+    Objects.requireNonNull(id, "Id cannot be null");
+    synchronized (this.zones) {
+      CameraZone zone = this.zones.remove(id);
+      if (zone != null) {
+        this.rebuild();
+      }
+
+      return zone;
+    }
+  }
+
+  /**
+   * Removes all zones.
+   */
+  public void clear() {
+    synchronized (this.zones) {
+      this.zones.clear();
+      this.snapshot = Snapshot.EMPTY;
+    }
+  }
+
+  /**
+   * @param id the id of the zone
+   * @return the zone with the id, or null if no zone with the id exists
+   */
+  public @Nullable CameraZone get(@NotNull String id) {
+    Objects.requireNonNull(id, "Id cannot be null");
+    return this.snapshot.zones.get(id);
+  }
+
+  /**
+   * @return an unmodifiable view of all zones
+   */
+  public @NotNull Collection<CameraZone> getZones() {
+    return Collections.unmodifiableCollection(this.snapshot.zones.values());
+  }
+
+  /**
+   * Finds the zone with the highest priority containing the provided position.
+   *
+   * @param dimension the dimension of the position, null only matches zones in every dimension
+   * @param x         the x-coordinate of the position
+   * @param y         the y-coordinate of the position
+   * @param z         the z-coordinate of the position
+   * @return the zone containing the position, or null if the position is not inside a zone
+   */
+  public @Nullable CameraZone find(@Nullable String dimension, double x, double y, double z) {
+    Snapshot snapshot = this.snapshot;
+    long cell = cellKey(this.cell(x), this.cell(z));
+    CameraZone zone = null;
+    if (dimension != null) {
+      zone = find(snapshot.dimensions.get(dimension), cell, x, y, z, null);
+    }
+
+    return find(snapshot.global, cell, x, y, z, zone);
+  }
+
+  private void rebuild() {
+    Map<String, Grid> dimensions = new HashMap<>();
+    Grid global = new Grid();
+    for (CameraZone zone : this.zones.values()) {
+      Grid grid = zone.getDimension() == null
+          ? global
+          : dimensions.computeIfAbsent(zone.getDimension(), dimension -> new Grid());
+
+      int minCellX = this.cell(zone.getMinX());
+      int minCellZ = this.cell(zone.getMinZ());
+      int maxCellX = this.cell(zone.getMaxX());
+      int maxCellZ = this.cell(zone.getMaxZ());
+      long cellCount = ((long) maxCellX - minCellX + 1) * ((long) maxCellZ - minCellZ + 1);
+      if (cellCount > MAX_CELLS_PER_ZONE) {
+        grid.large.add(zone);
+        continue;
+      }
+
+      for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+        for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+          grid.building.computeIfAbsent(cellKey(cellX, cellZ), key -> new ArrayList<>()).add(zone);
+        }
+      }
+    }
+
+    global.freeze();
+    for (Grid grid : dimensions.values()) {
+      grid.freeze();
+    }
+
+    this.snapshot = new Snapshot(new LinkedHashMap<>(this.zones), dimensions, global);
+  }
+
+  private int cell(double coordinate) {
+    return (int) Math.floor(coordinate) >> this.cellShift;
+  }
+
+  private static long cellKey(int cellX, int cellZ) {
+    return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+  }
+
+  private static @Nullable CameraZone find(
+      @Nullable Grid grid,
+      long cell,
+      double x,
+      double y,
+      double z,
+      @Nullable CameraZone best
+  ) {
+    if (grid == null) {
+      return best;
+    }
+
+    best = find(grid.cell(cell), x, y, z, best);
+    return find(grid.largeZones, x, y, z, best);
+  }
+
+  private static @Nullable CameraZone find(
+      @Nullable CameraZone[] zones,
+      double x,
+      double y,
+      double z,
+      @Nullable CameraZone best
+  ) {
+    if (zones == null) {
+      return best;
+    }
+
+    // zones are sorted by priority, so the first zone containing the position wins
+    for (CameraZone zone : zones) {
+      if (best != null && zone.getPriority() <= best.getPriority()) {
+        return best;
+      }
+
+      if (zone.contains(x, y, z)) {
+        return zone;
+      }
+    }
+
+    return best;
+  }
+
+  private static final class Grid {
+
+    private final Map<Long, List<CameraZone>> building = new HashMap<>();
+    private final List<CameraZone> large = new ArrayList<>();
+
+    // open addressing with linear probing, lookups do not box the cell key
+    private long[] cellKeys = new long[1];
+    private CameraZone[][] cells = new CameraZone[1][];
+    private int mask;
+    private CameraZone[] largeZones = new CameraZone[0];
+
+    private void freeze() {
+      // at most half of the slots are used, so every probe ends at an empty slot
+      int capacity = Integer.highestOneBit(Math.max(1, this.building.size()) * 2 - 1) << 1;
+      long[] cellKeys = new long[capacity];
+      CameraZone[][] cells = new CameraZone[capacity][];
+      int mask = capacity - 1;
+      for (Map.Entry<Long, List<CameraZone>> entry : this.building.entrySet()) {
+        long key = entry.getKey();
+        int index = slot(key) & mask;
+        while (cells[index] != null) {
+          index = (index + 1) & mask;
+        }
+
+        cellKeys[index] = key;
+        cells[index] = sorted(entry.getValue());
+      }
+
+      this.cellKeys = cellKeys;
+      this.cells = cells;
+      this.mask = mask;
+      this.largeZones = sorted(this.large);
+      this.building.clear();
+      this.large.clear();
+    }
+
+    private @Nullable CameraZone[] cell(long key) {
+      int index = slot(key) & this.mask;
+      CameraZone[] zones;
+      while ((zones = this.cells[index]) != null) {
+        if (this.cellKeys[index] == key) {
+          return zones;
+        }
+
+        index = (index + 1) & this.mask;
+      }
+
+      return null;
+    }
+
+    private static int slot(long key) {
+      long hash = key * 0x9E3779B97F4A7C15L;
+      return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static CameraZone[] sorted(List<CameraZone> zones) {
+      CameraZone[] array = zones.toArray(new CameraZone[0]);
+      Arrays.sort(array, BY_PRIORITY);
+      return array;
+    }
+  }
+
+  private static final class Snapshot {
+
+    private static final Snapshot EMPTY = new Snapshot(
+        Collections.emptyMap(),
+        Collections.emptyMap(),
+        null
+    );
+
+    private final Map<String, CameraZone> zones;
+    private final Map<String, Grid> dimensions;
+    private final Grid global;
+
+    private Snapshot(Map<String, CameraZone> zones, Map<String, Grid> dimensions, Grid global) {
+      this.zones = zones;
+      this.dimensions = dimensions;
+      this.global = global;
+    }
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.betterperspective.zone;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A camera zone shaped like a vertical prism: a polygon on the x/z-plane that spans from a minimum
+ * to a maximum y-coordinate.
+ */
+public class PolygonCameraZone extends CameraZone {
+
+  private final double[] xs;
+  private final double[] zs;
+  private final double minY;
+  private final double maxY;
+  private final double minX;
+  private final double minZ;
+  private final double maxX;
+  private final double maxZ;
+
+  /**
+   * Creates a new polygon zone.
+   *
+   * @param id                  the unique identifier of the zone
+   * @param dimension           the dimension of the zone, null for every dimension
+   * @param priority            the priority of the zone
+   * @param unlockCameraAllowed whether players in the zone are allowed to unlock the camera
+   * @param xs                  the x-coordinates of the corners of the polygon
+   * @param zs                  the z-coordinates of the corners of the polygon
+   * @param minY                the smallest y-coordinate of the zone (inclusive)
+   * @param maxY                the largest y-coordinate of the zone (exclusive)
+   */
+  public PolygonCameraZone(
+      @NotNull String id,
+      @Nullable String dimension,
+      int priority,
+      boolean unlockCameraAllowed,
+      @NotNull double[] xs,
+      @NotNull double[] zs,
+      double minY,
+      double maxY
+  ) {
+    super(id, dimension, priority, unlockCameraAllowed);
+    Objects.requireNonNull(xs, "X-coordinates cannot be null");
+    Objects.requireNonNull(zs, "Z-coordinates cannot be null");
+    if (xs.length != zs.length) {
+      throw new IllegalArgumentException("Amount of x- and z-coordinates must be equal");
+    }
+
+    if (xs.length < 3) {
+      throw new IllegalArgumentException("A polygon needs at least 3 corners");
+    }
+
+    this.xs = xs.clone();
+    this.zs = zs.clone();
+    this.minY = Math.min(minY, maxY);
+    this.maxY = Math.max(minY, maxY);
+
+    double minX = Double.POSITIVE_INFINITY;
+    double minZ = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double maxZ = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < xs.length; i++) {
+      minX = Math.min(minX, xs[i]);
+      minZ = Math.min(minZ, zs[i]);
+      maxX = Math.max(maxX, xs[i]);
+      maxZ = Math.max(maxZ, zs[i]);
+    }
+
+    this.minX = minX;
+    this.minZ = minZ;
+    this.maxX = maxX;
+    this.maxZ = maxZ;
+  }
+
+  @Override
+  public boolean contains(double x, double y, double z) {
+    if (y < this.minY || y >= this.maxY
+        || x < this.minX || x > this.maxX
+        || z < this.minZ || z > this.maxZ) {
+      return false;
+    }
+
+    // even-odd rule: count the edges a ray in positive x-direction crosses
+    boolean inside = false;
+    for (int i = 0, j = this.xs.length - 1; i < this.xs.length; j = i++) {
+      double zi = this.zs[i];
+      double zj = this.zs[j];
+      if ((zi > z) != (zj > z)) {
+        double crossX = this.xs[i] + (z - zi) / (zj - zi) * (this.xs[j] - this.xs[i]);
+        if (x < crossX) {
+          inside = !inside;
+        }
+      }
+    }
+
+    return inside;
+  }
+
+  @Override
+  public double getMinX() {
+    return this.minX;
+  }
+
+  @Override
+  public double getMinZ() {
+    return this.minZ;
+  }
+
+  @Override
+  public double getMaxX() {
+    return this.maxX;
+  }
+
+  @Override
+  public double getMaxZ() {
+    return this.maxZ;
+  }
+
+  @Override
+  public String toString() {
+    return "PolygonCameraZone{" +
+        "id='" + this.getId() + '\'' +
+        ", dimension='" + this.getDimension() + '\'' +
+        ", priority=" + this.getPriority() +
+        ", unlockCameraAllowed=" + this.isUnlockCameraAllowed() +
+        ", xs=" + Arrays.toString(this.xs) +
+        ", zs=" + Arrays.toString(this.zs) +
+        ", minY=" + this.minY +
+        ", maxY=" + this.maxY +
+        '}';
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.betterperspective.zone;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A reusable batch of player positions for {@link CameraZoneEngine#update(PositionBatch)}. The
+ * positions are stored in parallel arrays, so filling the batch every tick does not allocate once
+ * it reached its final size.
+ */
+public final class PositionBatch {
+
+  private UUID[] uniqueIds;
+  private String[] dimensions;
+  private double[] xs;
+  private double[] ys;
+  private double[] zs;
+  private int size;
+
+  public PositionBatch() {
+    this(16);
+  }
+
+  /**
+   * @param initialCapacity the amount of positions the batch can hold before it has to grow
+   */
+  public PositionBatch(int initialCapacity) {
+    if (initialCapacity < 0) {
+      throw new IllegalArgumentException("Initial capacity cannot be negative");
+    }
+
+    this.uniqueIds = new UUID[initialCapacity];
+    this.dimensions = new String[initialCapacity];
+    this.xs = new double[initialCapacity];
+    this.ys = new double[initialCapacity];
+    this.zs = new double[initialCapacity];
+  }
+
+  /**
+   * Adds the position of a player to the batch.
+   *
+   * @param uniqueId  the unique id of the player
+   * @param dimension the dimension the player is in
+   * @param x         the x-coordinate of the player
+   * @param y         the y-coordinate of the player
+   * @param z         the z-coordinate of the player
+   * @return this batch
+   */
+  public @NotNull PositionBatch add(
+      @NotNull UUID uniqueId,
+      @Nullable String dimension,
+      double x,
+      double y,
+      double z
+  ) {
+    Objects.requireNonNull(uniqueId, "Unique id cannot be null");
+    if (this.size == this.uniqueIds.length) {
+      int capacity = Math.max(16, this.size + (this.size >> 1));
+      this.uniqueIds = Arrays.copyOf(this.uniqueIds, capacity);
+      this.dimensions = Arrays.copyOf(this.dimensions, capacity);
+      this.xs = Arrays.copyOf(this.xs, capacity);
+      this.ys = Arrays.copyOf(this.ys, capacity);
+      this.zs = Arrays.copyOf(this.zs, capacity);
+    }
+
+    int index = this.size++;
+    this.uniqueIds[index] = uniqueId;
+    this.dimensions[index] = dimension;
+    this.xs[index] = x;
+    this.ys[index] = y;
+    this.zs[index] = z;
+    return this;
+  }
+
+  /**
+   * Removes all positions, keeping the capacity of the batch.
+   */
+  public void clear() {
+    Arrays.fill(this.uniqueIds, 0, this.size, null);
+    Arrays.fill(this.dimensions, 0, this.size, null);
+    this.size = 0;
+  }
+
+  /**
+   * @return the amount of positions in the batch
+   */
+  public int size() {
+    return this.size;
+  }
+
+  @NotNull UUID getUniqueId(int index) {
+    return this.uniqueIds[index];
+  }
+
+  @Nullable String getDimension(int index) {
+    return this.dimensions[index];
+  }
+
+  double getX(int index) {
+    return this.xs[index];
+  }
+
+  double getY(int index) {
+    return this.ys[index];
+  }
+
+  double getZ(int index) {
+    return this.zs[index];
+  }
+
+  @Override
+  public String toString() {
+    return "PositionBatch{" +
+        "size=" + this.size +
+        '}';
+  }
+}
@@ -57,6 +57,12 @@ subprojects {
         annotationProcessor("com.google.auto.service:auto-service:1.1.1")
     }
 
+    if (project.name != "common") {
+        dependencies {
+            "api"(project(":common"))
+        }
+    }
+
     java {
         sourceCompatibility = JavaVersion.VERSION_1_8
         targetCompatibility = JavaVersion.VERSION_1_8
@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.common.capability;
+
+import net.labymod.serverapi.core.AbstractLabyModProtocolService;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The optional protocol features the clients announced, as bit set per player. Capabilities can
+ * be announced before the player joined the server, they are kept until the player left again.
+ */
+public final class ClientCapabilities {
+
+  // capabilities of players not on the server are kept this long, as they might still join
+  private static final long PENDING_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+  private final Map<UUID, Entry> capabilities = new ConcurrentHashMap<>();
+
+  private volatile long nextPrune;
+
+  /**
+   * Sets the capabilities the provided player announced, replacing the previous ones.
+   *
+   * @param uniqueId     the unique id of the player
+   * @param capabilities the announced capabilities
+   */
+  public void put(@NotNull UUID uniqueId, int capabilities) {
+    Objects.requireNonNull(uniqueId, "Unique id cannot be null");
+    this.capabilities.put(uniqueId, new Entry(capabilities, System.currentTimeMillis()));
+  }
+
+  /**
+   * @param uniqueId   the unique id of the player
+   * @param capability the capability to check
+   * @return whether the player announced support for the provided capability
+   */
+  public boolean supports(@NotNull UUID uniqueId, int capability) {
+    Entry entry = this.capabilities.get(uniqueId);
+    return entry != null && (entry.capabilities & capability) == capability;
+  }
+
+  /**
+   * Removes the capabilities of the players that left the server. The entries are visited at most
+   * every 30 seconds, so this method is intended to be called once per server tick.
+   *
+   * @param protocolService the protocol service knowing the players on the server
+   * @param timestamp       the current time in milliseconds
+   */
+  public void prune(@NotNull AbstractLabyModProtocolService protocolService, long timestamp) {
+    if (timestamp < this.nextPrune) {
+      return;
+    }
+
+    this.nextPrune = timestamp + PENDING_MILLIS;
+    Iterator<Map.Entry<UUID, Entry>> iterator = this.capabilities.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<UUID, Entry> entry = iterator.next();
+      if (timestamp - entry.getValue().receivedAt >= PENDING_MILLIS
+          && protocolService.getPlayer(entry.getKey()) == null) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * @return the amount of players with announced capabilities
+   */
+  public int size() {
+    return this.capabilities.size();
+  }
+
+  @Override
+  public String toString() {
+    return "ClientCapabilities{" +
+        "players=" + this.capabilities.size() +
+        '}';
+  }
+
+  private static final class Entry {
+
+    private final int capabilities;
+    private final long receivedAt;
+
+    private Entry(int capabilities, long receivedAt) {
+      this.capabilities = capabilities;
+      this.receivedAt = receivedAt;
+    }
+  }
+}
@@ -0,0 +1,480 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.common.encoding;
+
+import net.labymod.serverapi.api.AbstractProtocolService;
+import net.labymod.serverapi.api.Protocol;
+import net.labymod.serverapi.api.packet.Packet;
+import net.labymod.serverapi.integration.common.packet.EncodedPacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Encodes and sends packets on a bounded pool of worker threads instead of the thread submitting
+ * them, which usually is the main thread of the server. Virtual threads are used if the runtime
+ * supports them.
+ * <p>
+ * Packets of the same player are encoded and sent in the order they were submitted. Packets must
+ * not be modified after they were submitted.
+ * <p>
+ * If more packets than the {@link #getCapacity() capacity} are pending, the submitting thread
+ * waits until all pending packets of the player were sent, or sends the packet itself if the
+ * player has no pending packets. After the pipeline was {@link #shutdown shut down}, packets are
+ * encoded and sent by the submitting thread.
+ */
+public final class PacketEncodingPipeline {
+
+  // lanes are rescheduled after this many packets so one player cannot block a worker
+  private static final int MAX_PACKETS_PER_RUN = 64;
+
+  private final AbstractProtocolService protocolService;
+  private final ThreadPoolExecutor executor;
+  private final int capacity;
+  private final Map<UUID, Lane> lanes = new ConcurrentHashMap<>();
+
+  private final AtomicInteger depth = new AtomicInteger();
+  private final AtomicInteger peakDepth = new AtomicInteger();
+  private final LongAdder submitted = new LongAdder();
+  private final LongAdder sent = new LongAdder();
+  private final LongAdder backpressured = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+
+  private PacketEncodingPipeline(
+      AbstractProtocolService protocolService,
+      int threads,
+      int capacity
+  ) {
+    this.protocolService = protocolService;
+    this.capacity = capacity;
+    this.executor = new ThreadPoolExecutor(
+        threads,
+        threads,
+        60L,
+        TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        threadFactory()
+    );
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Creates a new pipeline.
+   *
+   * @param protocolService the protocol service to send the packets with
+   * @param threads         the maximum amount of packets encoded at the same time
+   * @param capacity        the maximum amount of pending packets before submitting threads have
+   *                        to wait
+   * @return the created pipeline
+   */
+  public static @NotNull PacketEncodingPipeline create(
+      @NotNull AbstractProtocolService protocolService,
+      int threads,
+      int capacity
+  ) {
+    Objects.requireNonNull(protocolService, "Protocol service cannot be null");
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Threads must be positive");
+    }
+
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive");
+    }
+
+    return new PacketEncodingPipeline(protocolService, threads, capacity);
+  }
+
+  /**
+   * Encodes the provided packet and sends it to the provided recipient after all packets that
+   * were previously submitted for the recipient.
+   *
+   * @param recipient the unique id of the recipient
+   * @param protocol  the protocol the packet is registered in
+   * @param packet    the packet to send, must not be modified afterwards
+   */
+  public void submit(@NotNull UUID recipient, @NotNull Protocol protocol, @NotNull Packet packet) {
+    Objects.requireNonNull(recipient, "Recipient cannot be null");
+    Objects.requireNonNull(protocol, "Protocol cannot be null");
+    Objects.requireNonNull(packet, "Packet cannot be null");
+    this.submit(recipient, () -> protocol.sendPacket(recipient, packet));
+  }
+
+  /**
+   * Sends the provided, already encoded packet to the provided recipient after all packets that
+   * were previously submitted for the recipient.
+   *
+   * @param recipient the unique id of the recipient
+   * @param packet    the encoded packet to send
+   */
+  public void submit(@NotNull UUID recipient, @NotNull EncodedPacket packet) {
+    Objects.requireNonNull(recipient, "Recipient cannot be null");
+    Objects.requireNonNull(packet, "Packet cannot be null");
+    this.submit(recipient, () -> packet.sendTo(this.protocolService, recipient));
+  }
+
+  private void submit(UUID recipient, Runnable task) {
+    this.submitted.increment();
+    boolean full = this.depth.get() >= this.capacity;
+    if (full) {
+      this.backpressured.increment();
+    } else {
+      this.updatePeakDepth(this.depth.incrementAndGet());
+    }
+
+    // a lane is retired once it ran empty, a new one is created for the next packet
+    while (true) {
+      Lane lane = this.lanes.computeIfAbsent(recipient, Lane::new);
+      if (lane.submit(task, full)) {
+        return;
+      }
+
+      this.lanes.remove(recipient, lane);
+    }
+  }
+
+  /**
+   * Waits until all pending packets were sent and stops the worker threads. Packets submitted
+   * afterwards are encoded and sent by the submitting thread.
+   *
+   * @param timeout the maximum time to wait
+   * @param unit    the unit of the timeout
+   * @return whether all pending packets were sent in time
+   * @throws InterruptedException if the current thread was interrupted while waiting
+   */
+  public boolean shutdown(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+    Objects.requireNonNull(unit, "Unit cannot be null");
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    synchronized (this.depth) {
+      while (this.depth.get() > 0) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          break;
+        }
+
+        TimeUnit.NANOSECONDS.timedWait(this.depth, remaining);
+      }
+    }
+
+    this.executor.shutdown();
+    return this.executor.awaitTermination(
+        Math.max(0L, deadline - System.nanoTime()),
+        TimeUnit.NANOSECONDS
+    ) && this.depth.get() == 0;
+  }
+
+  /**
+   * @return the maximum amount of pending packets before submitting threads have to wait
+   */
+  public int getCapacity() {
+    return this.capacity;
+  }
+
+  /**
+   * @return the amount of packets that are waiting to be encoded and sent
+   */
+  public int getQueueDepth() {
+    return this.depth.get();
+  }
+
+  /**
+   * @param recipient the unique id of the recipient
+   * @return the amount of packets that are waiting to be encoded and sent to the recipient
+   */
+  public int getQueueDepth(@NotNull UUID recipient) {
+    Objects.requireNonNull(recipient, "Recipient cannot be null");
+    Lane lane = this.lanes.get(recipient);
+    return lane == null ? 0 : lane.size();
+  }
+
+  /**
+   * @return the highest amount of pending packets since the pipeline was created
+   */
+  public int getPeakQueueDepth() {
+    return this.peakDepth.get();
+  }
+
+  /**
+   * @return the amount of submitted packets
+   */
+  public long getSubmittedCount() {
+    return this.submitted.sum();
+  }
+
+  /**
+   * @return the amount of packets that were sent by the worker threads
+   */
+  public long getSentCount() {
+    return this.sent.sum();
+  }
+
+  /**
+   * @return the amount of packets whose submitting thread had to wait or send the packet itself
+   * because the pipeline was full
+   */
+  public long getBackpressureCount() {
+    return this.backpressured.sum();
+  }
+
+  /**
+   * @return the amount of packets that could not be encoded or sent
+   */
+  public long getFailedCount() {
+    return this.failed.sum();
+  }
+
+  private void updatePeakDepth(int depth) {
+    int peak;
+    while (depth > (peak = this.peakDepth.get())) {
+      if (this.peakDepth.compareAndSet(peak, depth)) {
+        return;
+      }
+    }
+  }
+
+  private void completed() {
+    if (this.depth.decrementAndGet() == 0) {
+      synchronized (this.depth) {
+        this.depth.notifyAll();
+      }
+    }
+  }
+
+  private void run(Runnable task) {
+    try {
+      task.run();
+    } catch (RuntimeException exception) {
+      this.failed.increment();
+      Thread thread = Thread.currentThread();
+      thread.getUncaughtExceptionHandler().uncaughtException(thread, exception);
+    } catch (Error error) {
+      this.failed.increment();
+      throw error;
+    }
+  }
+
+  private static ThreadFactory threadFactory() {
+    try {
+      // Thread.ofVirtual().name("labymod-packet-encoder-", 0).factory() on Java 21+
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Method name = builderClass.getMethod("name", String.class, long.class);
+      builder = name.invoke(builder, "labymod-packet-encoder-", 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException exception) {
+      AtomicInteger count = new AtomicInteger();
+      return runnable -> {
+        Thread thread = new Thread(runnable, "labymod-packet-encoder-" + count.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+      };
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "PacketEncodingPipeline{" +
+        "capacity=" + this.capacity +
+        ", depth=" + this.depth +
+        ", peakDepth=" + this.peakDepth +
+        ", submitted=" + this.submitted +
+        ", sent=" + this.sent +
+        ", backpressured=" + this.backpressured +
+        ", failed=" + this.failed +
+        '}';
+  }
+
+  /**
+   * The pending packets of a single player. At most one thread sends the packets of a lane at a
+   * time, which keeps them in order.
+   */
+  private final class Lane implements Runnable {
+
+    private final UUID uniqueId;
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    private boolean active;
+    private boolean retired;
+
+    private Lane(UUID uniqueId) {
+      this.uniqueId = uniqueId;
+    }
+
+    /**
+     * @param task   the task sending the packet
+     * @param inline whether the current thread should send the packet once the lane is idle
+     * @return false if the lane is retired and the task was not accepted
+     */
+    private boolean submit(Runnable task, boolean inline) {
+      synchronized (this) {
+        if (this.retired) {
+          return false;
+        }
+
+        if (!inline) {
+          this.tasks.add(task);
+          if (this.active) {
+            return true;
+          }
+
+          this.active = true;
+        } else {
+          // wait for the worker to send the pending packets first
+          boolean interrupted = false;
+          while (this.active) {
+            try {
+              this.wait();
+            } catch (InterruptedException exception) {
+              interrupted = true;
+            }
+          }
+
+          if (interrupted) {
+            Thread.currentThread().interrupt();
+          }
+
+          if (this.retired) {
+            return false;
+          }
+
+          this.active = true;
+        }
+      }
+
+      if (!inline) {
+        this.schedule();
+        return true;
+      }
+
+      try {
+        PacketEncodingPipeline.this.run(task);
+      } finally {
+        this.release();
+      }
+
+      return true;
+    }
+
+    /**
+     * Hands the lane on to a worker if packets are pending, otherwise retires it. Called by the
+     * thread that sent the last packet, also if sending it failed with an error.
+     */
+    private void release() {
+      synchronized (this) {
+        if (this.tasks.isEmpty()) {
+          this.retire();
+          return;
+        }
+      }
+
+      this.schedule();
+    }
+
+    /**
+     * Hands the lane on to a worker, or sends the pending packets on the current thread if the
+     * pipeline was shut down.
+     */
+    private void schedule() {
+      try {
+        PacketEncodingPipeline.this.executor.execute(this);
+      } catch (RejectedExecutionException exception) {
+        this.drain();
+      }
+    }
+
+    private void drain() {
+      while (true) {
+        Runnable task;
+        synchronized (this) {
+          task = this.tasks.poll();
+          if (task == null) {
+            this.retire();
+            return;
+          }
+        }
+
+        try {
+          PacketEncodingPipeline.this.run(task);
+        } catch (Error error) {
+          this.release();
+          throw error;
+        } finally {
+          PacketEncodingPipeline.this.completed();
+        }
+      }
+    }
+
+    private void retire() {
+      this.active = false;
+      this.retired = true;
+      this.notifyAll();
+      PacketEncodingPipeline.this.lanes.remove(this.uniqueId, this);
+    }
+
+    private synchronized int size() {
+      return this.tasks.size();
+    }
+
+    @Override
+    public void run() {
+      for (int i = 0; i < MAX_PACKETS_PER_RUN; i++) {
+        Runnable task;
+        synchronized (this) {
+          task = this.tasks.poll();
+          if (task == null) {
+            this.retire();
+            return;
+          }
+        }
+
+        try {
+          PacketEncodingPipeline.this.run(task);
+        } catch (Error error) {
+          // the error is passed on to the worker, the lane must not stay active without a worker
+          this.release();
+          throw error;
+        } finally {
+          PacketEncodingPipeline.this.sent.increment();
+          PacketEncodingPipeline.this.completed();
+        }
+      }
+
+      this.schedule();
+    }
+  }
+}
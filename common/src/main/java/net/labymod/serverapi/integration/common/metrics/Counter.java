@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.common.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A striped counter that only counts while {@link IntegrationMetrics#isEnabled() metrics are
+ * enabled}. Counters are created once with {@link IntegrationMetrics#counter(String)} and kept in
+ * a field, recording does not allocate.
+ */
+public final class Counter {
+
+  private final String name;
+  private final LongAdder value = new LongAdder();
+
+  Counter(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Increments the counter by one.
+   */
+  public void increment() {
+    if (IntegrationMetrics.isEnabled()) {
+      this.value.increment();
+    }
+  }
+
+  /**
+   * @param amount the amount to add to the counter
+   */
+  public void add(long amount) {
+    if (IntegrationMetrics.isEnabled()) {
+      this.value.add(amount);
+    }
+  }
+
+  /**
+   * @return the current value of the counter
+   */
+  public long sum() {
+    return this.value.sum();
+  }
+
+  /**
+   * @return the name of the counter
+   */
+  public @NotNull String getName() {
+    return this.name;
+  }
+
+  void reset() {
+    this.value.reset();
+  }
+
+  @Override
+  public String toString() {
+    return "Counter{" +
+        "name='" + this.name + '\'' +
+        ", value=" + this.value +
+        '}';
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.common.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non-negative values, for example durations in nanoseconds or the amount of
+ * recipients of a broadcast. Like an HDR histogram, values are counted in buckets whose width
+ * grows with the value, so every value is recorded with a relative error of at most 12.5% in a
+ * fixed amount of memory. Recording does not allocate and does nothing while
+ * {@link IntegrationMetrics#isEnabled() metrics are disabled}.
+ */
+public final class Histogram {
+
+  /**
+   * The value returned by {@link #start()} while metrics are disabled.
+   */
+  public static final long NOT_STARTED = Long.MIN_VALUE;
+
+  // every power of two is divided into 2^SUB_BUCKET_BITS linear buckets
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  private final String name;
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+  Histogram(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Starts measuring a duration, see {@link #recordSince(long)}.
+   *
+   * @return the current time in nanoseconds, or {@link #NOT_STARTED} if metrics are disabled
+   */
+  public long start() {
+    return IntegrationMetrics.isEnabled() ? System.nanoTime() : NOT_STARTED;
+  }
+
+  /**
+   * Records the time passed since the provided start.
+   *
+   * @param start the value returned by {@link #start()}
+   */
+  public void recordSince(long start) {
+    if (start != NOT_STARTED) {
+      this.record(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Records the provided value, negative values are recorded as zero.
+   *
+   * @param value the value to record
+   */
+  public void record(long value) {
+    if (!IntegrationMetrics.isEnabled()) {
+      return;
+    }
+
+    value = Math.max(0L, value);
+    this.buckets.incrementAndGet(bucket(value));
+    this.count.increment();
+    this.sum.add(value);
+    this.max.accumulate(value);
+  }
+
+  /**
+   * @return the name of the histogram
+   */
+  public @NotNull String getName() {
+    return this.name;
+  }
+
+  /**
+   * @return a snapshot of the recorded values
+   */
+  public @NotNull HistogramSnapshot snapshot() {
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = this.buckets.get(i);
+    }
+
+    return new HistogramSnapshot(counts, this.count.sum(), this.sum.sum(), this.max.get());
+  }
+
+  void reset() {
+    for (int i = 0; i < BUCKETS; i++) {
+      this.buckets.set(i, 0L);
+    }
+
+    this.count.reset();
+    this.sum.reset();
+    this.max.reset();
+  }
+
+  static int bucket(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /**
+   * @param bucket the index of a bucket
+   * @return the largest value counted in the bucket
+   */
+  static long highestValue(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+
+    int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    long subBucket = bucket % SUB_BUCKETS;
+    long lowest = (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    long width = 1L << (exponent - SUB_BUCKET_BITS);
+    return lowest + width - 1 < 0 ? Long.MAX_VALUE : lowest + width - 1;
+  }
+
+  @Override
+  public String toString() {
+    return "Histogram{" +
+        "name='" + this.name + '\'' +
+        ", count=" + this.count +
+        '}';
+  }
+}
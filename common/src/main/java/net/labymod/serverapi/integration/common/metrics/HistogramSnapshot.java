@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.common.metrics;
+
+/**
+ * The values recorded by a {@link Histogram} at the time the snapshot was taken.
+ */
+public final class HistogramSnapshot {
+
+  private final long[] counts;
+  private final long count;
+  private final long sum;
+  private final long max;
+
+  HistogramSnapshot(long[] counts, long count, long sum, long max) {
+    this.counts = counts;
+    this.count = count;
+    this.sum = sum;
+    this.max = max;
+  }
+
+  /**
+   * @return the amount of recorded values
+   */
+  public long getCount() {
+    return this.count;
+  }
+
+  /**
+   * @return the sum of all recorded values
+   */
+  public long getSum() {
+    return this.sum;
+  }
+
+  /**
+   * @return the largest recorded value
+   */
+  public long getMax() {
+    return this.max;
+  }
+
+  /**
+   * @return the average of all recorded values, 0 if no value was recorded
+   */
+  public double getMean() {
+    return this.count == 0 ? 0 : (double) this.sum / this.count;
+  }
+
+  /**
+   * @param percentile the percentile, between 0 and 100
+   * @return the value below or equal to which the provided percentage of values were recorded,
+   * 0 if no value was recorded
+   */
+  public long getPercentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 100");
+    }
+
+    long total = 0;
+    for (long bucketCount : this.counts) {
+      total += bucketCount;
+    }
+
+    if (total == 0) {
+      return 0;
+    }
+
+    long rank = Math.max(1L, (long) Math.ceil(percentile / 100 * total));
+    long seen = 0;
+    for (int bucket = 0; bucket < this.counts.length; bucket++) {
+      seen += this.counts[bucket];
+      if (seen >= rank) {
+        return Math.min(Histogram.highestValue(bucket), this.max);
+      }
+    }
+
+    return this.max;
+  }
+
+  @Override
+  public String toString() {
+    return "HistogramSnapshot{" +
+        "count=" + this.count +
+        ", mean=" + this.getMean() +
+        ", p50=" + this.getPercentile(50) +
+        ", p99=" + this.getPercentile(99) +
+        ", max=" + this.max +
+        '}';
+  }
+}
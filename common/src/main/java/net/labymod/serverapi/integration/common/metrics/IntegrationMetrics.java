@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.common.metrics;
+
+import net.labymod.serverapi.api.packet.Packet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The counters and histograms of a single integration. Integrations create their metrics once and
+ * keep them in fields, so recording only costs a volatile read while metrics are disabled.
+ * <p>
+ * Metrics are disabled by default. Monitoring plugins enable them with {@link #setEnabled} and
+ * poll {@link #snapshotAll()} periodically.
+ */
+public final class IntegrationMetrics {
+
+  private static final Map<String, IntegrationMetrics> INSTANCES = new ConcurrentHashMap<>();
+
+  private static volatile boolean enabled;
+
+  private final String name;
+  private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+  private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+  private final Map<Class<?>, Counter> packetCounters = new ConcurrentHashMap<>();
+
+  private IntegrationMetrics(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @param name the name of the integration
+   * @return the metrics of the integration with the provided name
+   */
+  public static @NotNull IntegrationMetrics of(@NotNull String name) {
+    Objects.requireNonNull(name, "Name cannot be null");
+    return INSTANCES.computeIfAbsent(name, IntegrationMetrics::new);
+  }
+
+  /**
+   * @return whether metrics are recorded
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Sets whether metrics are recorded. Disabled by default.
+   *
+   * @param enabled whether metrics should be recorded
+   */
+  public static void setEnabled(boolean enabled) {
+    IntegrationMetrics.enabled = enabled;
+  }
+
+  /**
+   * @return snapshots of the metrics of all integrations, keyed by the name of the integration
+   */
+  public static @NotNull Map<String, MetricsSnapshot> snapshotAll() {
+    Map<String, MetricsSnapshot> snapshots = new LinkedHashMap<>();
+    for (IntegrationMetrics metrics : INSTANCES.values()) {
+      snapshots.put(metrics.name, metrics.snapshot());
+    }
+
+    return Collections.unmodifiableMap(snapshots);
+  }
+
+  /**
+   * @param name the name of the counter
+   * @return the counter with the provided name, created if it does not exist yet
+   */
+  public @NotNull Counter counter(@NotNull String name) {
+    Objects.requireNonNull(name, "Name cannot be null");
+    return this.counters.computeIfAbsent(name, Counter::new);
+  }
+
+  /**
+   * @param name the name of the histogram
+   * @return the histogram with the provided name, created if it does not exist yet
+   */
+  public @NotNull Histogram histogram(@NotNull String name) {
+    Objects.requireNonNull(name, "Name cannot be null");
+    return this.histograms.computeIfAbsent(name, Histogram::new);
+  }
+
+  /**
+   * Returns the counter of the provided packet type, named {@code packets.<SimpleName>}. The
+   * counter is looked up without allocating once it exists.
+   *
+   * @param type the type of the packet
+   * @return the counter of the packet type
+   */
+  public @NotNull Counter packetCounter(@NotNull Class<? extends Packet> type) {
+    Counter counter = this.packetCounters.get(type);
+    if (counter == null) {
+      counter = this.packetCounters.computeIfAbsent(
+          type,
+          key -> this.counter("packets." + key.getSimpleName())
+      );
+    }
+
+    return counter;
+  }
+
+  /**
+   * @return the name of the integration
+   */
+  public @NotNull String getName() {
+    return this.name;
+  }
+
+  /**
+   * @return a snapshot of all counters and histograms
+   */
+  public @NotNull MetricsSnapshot snapshot() {
+    Map<String, Long> counters = new LinkedHashMap<>();
+    for (Counter counter : this.counters.values()) {
+      counters.put(counter.getName(), counter.sum());
+    }
+
+    Map<String, HistogramSnapshot> histograms = new LinkedHashMap<>();
+    for (Histogram histogram : this.histograms.values()) {
+      histograms.put(histogram.getName(), histogram.snapshot());
+    }
+
+    return new MetricsSnapshot(this.name, counters, histograms);
+  }
+
+  /**
+   * Resets all counters and histograms to zero.
+   */
+  public void reset() {
+    for (Counter counter : this.counters.values()) {
+      counter.reset();
+    }
+
+    for (Histogram histogram : this.histograms.values()) {
+      histogram.reset();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "IntegrationMetrics{" +
+        "name='" + this.name + '\'' +
+        ", counters=" + this.counters.size() +
+        ", histograms=" + this.histograms.size() +
+        '}';
+  }
+}
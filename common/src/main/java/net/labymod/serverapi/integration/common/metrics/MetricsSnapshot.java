@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.common.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The metrics of an integration at the time the snapshot was taken.
+ */
+public final class MetricsSnapshot {
+
+  private final String name;
+  private final Map<String, Long> counters;
+  private final Map<String, HistogramSnapshot> histograms;
+
+  MetricsSnapshot(
+      String name,
+      Map<String, Long> counters,
+      Map<String, HistogramSnapshot> histograms
+  ) {
+    this.name = name;
+    this.counters = Collections.unmodifiableMap(counters);
+    this.histograms = Collections.unmodifiableMap(histograms);
+  }
+
+  /**
+   * @return the name of the integration
+   */
+  public @NotNull String getName() {
+    return this.name;
+  }
+
+  /**
+   * @return the values of all counters, keyed by their name
+   */
+  public @NotNull Map<String, Long> getCounters() {
+    return this.counters;
+  }
+
+  /**
+   * @param name the name of the counter
+   * @return the value of the counter, 0 if the counter does not exist
+   */
+  public long getCounter(@NotNull String name) {
+    Long value = this.counters.get(name);
+    return value == null ? 0 : value;
+  }
+
+  /**
+   * @return the snapshots of all histograms, keyed by their name
+   */
+  public @NotNull Map<String, HistogramSnapshot> getHistograms() {
+    return this.histograms;
+  }
+
+  /**
+   * @param name the name of the histogram
+   * @return the snapshot of the histogram, null if the histogram does not exist
+   */
+  public @Nullable HistogramSnapshot getHistogram(@NotNull String name) {
+    return this.histograms.get(name);
+  }
+
+  @Override
+  public String toString() {
+    return "MetricsSnapshot{" +
+        "name='" + this.name + '\'' +
+        ", counters=" + this.counters +
+        ", histograms=" + this.histograms +
+        '}';
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.common.packet;
+
+import net.labymod.serverapi.api.AbstractProtocolService;
+import net.labymod.serverapi.api.Protocol;
+import net.labymod.serverapi.api.packet.Packet;
+import net.labymod.serverapi.api.payload.PayloadChannelIdentifier;
+import net.labymod.serverapi.api.payload.io.PayloadWriter;
+import net.labymod.serverapi.core.AbstractLabyModPlayer;
+import net.labymod.serverapi.core.AbstractLabyModProtocolService;
+import net.labymod.serverapi.integration.common.metrics.Histogram;
+import net.labymod.serverapi.integration.common.metrics.IntegrationMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A packet that has already been serialized, including its packet id. The payload is written
+ * exactly once and is not modified afterwards, so the same instance can be sent to any number of
+ * recipients without encoding the packet again.
+ */
+public final class EncodedPacket {
+
+  private static final IntegrationMetrics METRICS = IntegrationMetrics.of("common");
+  private static final Histogram ENCODE_TIME = METRICS.histogram("encode.nanos");
+
+  private final PayloadChannelIdentifier identifier;
+  private final Class<? extends Packet> type;
+  private final PayloadWriter payload;
+
+  private int size;
+
+  private EncodedPacket(
+      PayloadChannelIdentifier identifier,
+      Class<? extends Packet> type,
+      PayloadWriter payload,
+      int size
+  ) {
+    this.identifier = identifier;
+    this.type = type;
+    this.payload = payload;
+    this.size = size;
+  }
+
+  /**
+   * Serializes the provided packet for the provided protocol.
+   *
+   * @param protocol the protocol the packet is registered in
+   * @param packetId the id the packet is registered with
+   * @param packet   the packet to serialize
+   * @return the encoded packet
+   */
+  public static @NotNull EncodedPacket encode(
+      @NotNull Protocol protocol,
+      int packetId,
+      @NotNull Packet packet
+  ) {
+    Objects.requireNonNull(protocol, "Protocol cannot be null");
+    Objects.requireNonNull(packet, "Packet cannot be null");
+
+    long start = ENCODE_TIME.start();
+    PayloadWriter writer = new PayloadWriter();
+    writer.writeVarInt(packetId);
+    packet.write(writer);
+    if (start != Histogram.NOT_STARTED) {
+      ENCODE_TIME.recordSince(start);
+    }
+
+    return new EncodedPacket(protocol.identifier(), packet.getClass(), writer, -1);
+  }
+
+  /**
+   * Wraps an already encoded payload, for example one that was received and is forwarded. The
+   * payload is copied into the packet once, and once more before if the range does not cover the
+   * whole array, as the writer only accepts whole arrays.
+   *
+   * @param protocol the protocol the packet is registered in
+   * @param packetId the id the packet is registered with
+   * @param type     the type of the packet
+   * @param data     the encoded payload, without the packet id
+   * @param offset   the index of the first byte of the payload
+   * @param length   the length of the payload
+   * @return the encoded packet
+   */
+  public static @NotNull EncodedPacket wrap(
+      @NotNull Protocol protocol,
+      int packetId,
+      @NotNull Class<? extends Packet> type,
+      @NotNull byte[] data,
+      int offset,
+      int length
+  ) {
+    Objects.requireNonNull(protocol, "Protocol cannot be null");
+    Objects.requireNonNull(type, "Type cannot be null");
+    Objects.requireNonNull(data, "Data cannot be null");
+
+    PayloadWriter writer = new PayloadWriter();
+    writer.writeVarInt(packetId);
+    writer.writeBytes(range(data, offset, length));
+    return new EncodedPacket(protocol.identifier(), type, writer, varIntSize(packetId) + length);
+  }
+
+  /**
+   * Wraps a complete encoded payload that already starts with the packet id, for example one that
+   * is passed through a proxy. The payload is copied like by {@link #wrap}.
+   *
+   * @param protocol the protocol the packet is registered in
+   * @param type     the type of the packet
+   * @param data     the encoded payload, including the packet id
+   * @param offset   the index of the first byte of the payload
+   * @param length   the length of the payload
+   * @return the encoded packet
+   */
+  public static @NotNull EncodedPacket raw(
+      @NotNull Protocol protocol,
+      @NotNull Class<? extends Packet> type,
+      @NotNull byte[] data,
+      int offset,
+      int length
+  ) {
+    Objects.requireNonNull(protocol, "Protocol cannot be null");
+    Objects.requireNonNull(type, "Type cannot be null");
+    Objects.requireNonNull(data, "Data cannot be null");
+
+    PayloadWriter writer = new PayloadWriter();
+    writer.writeBytes(range(data, offset, length));
+    return new EncodedPacket(protocol.identifier(), type, writer, length);
+  }
+
+  /**
+   * @return the type of the encoded packet
+   */
+  public @NotNull Class<? extends Packet> getType() {
+    return this.type;
+  }
+
+  /**
+   * @return the identifier of the channel the payload is sent on
+   */
+  public @NotNull PayloadChannelIdentifier getIdentifier() {
+    return this.identifier;
+  }
+
+  /**
+   * @return the size of the encoded payload in bytes, including the packet id
+   */
+  public int size() {
+    int size = this.size;
+    if (size == -1) {
+      // copies an encoded payload once, wrapped payloads know their size already
+      size = this.payload.toByteArray().length;
+      this.size = size;
+    }
+
+    return size;
+  }
+
+  /**
+   * Sends the encoded payload to the provided recipient.
+   *
+   * @param protocolService the protocol service to send the payload with
+   * @param recipient       the unique id of the recipient
+   */
+  public void sendTo(@NotNull AbstractProtocolService protocolService, @NotNull UUID recipient) {
+    protocolService.send(this.identifier, recipient, this.payload);
+  }
+
+  /**
+   * Sends the encoded payload to all LabyMod players on the server. Every recipient receives the
+   * same payload instance.
+   *
+   * @param protocolService the protocol service to send the payload with
+   */
+  public void broadcast(@NotNull AbstractLabyModProtocolService protocolService) {
+    for (AbstractLabyModPlayer<?> player : protocolService.getPlayers()) {
+      protocolService.send(this.identifier, player.getUniqueId(), this.payload);
+    }
+  }
+
+  private static int varIntSize(int value) {
+    int size = 1;
+    while ((value & ~0x7F) != 0) {
+      value >>>= 7;
+      size++;
+    }
+
+    return size;
+  }
+
+  private static byte[] range(byte[] data, int offset, int length) {
+    return offset == 0 && length == data.length
+        ? data
+        : Arrays.copyOfRange(data, offset, offset + length);
+  }
+
+  @Override
+  public String toString() {
+    return "EncodedPacket{" +
+        "identifier=" + this.identifier +
+        ", type=" + this.type.getSimpleName() +
+        '}';
+  }
+}
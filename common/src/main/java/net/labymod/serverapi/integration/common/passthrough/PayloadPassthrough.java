@@ -0,0 +1,335 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.common.passthrough;
+
+import net.labymod.serverapi.api.Protocol;
+import net.labymod.serverapi.api.packet.Packet;
+import net.labymod.serverapi.core.AbstractLabyModProtocolService;
+import net.labymod.serverapi.integration.common.metrics.Counter;
+import net.labymod.serverapi.integration.common.metrics.IntegrationMetrics;
+import net.labymod.serverapi.integration.common.packet.EncodedPacket;
+import net.labymod.serverapi.integration.common.payload.PayloadCursor;
+import net.labymod.serverapi.integration.common.queue.OutboundPacketQueues;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Forwards received payloads of a protocol without decoding them, for example on a proxy that
+ * passes the packets of its backend servers on to the players. Only the packet id at the start of
+ * a payload is read, the rest is sent on as it is, so no packet or model objects are created.
+ * <p>
+ * Payloads of packets that are not {@link #register registered} are not forwarded, the caller is
+ * expected to handle them as usual. An optional {@link PayloadInterceptor} can inspect, rewrite or
+ * drop every forwarded payload.
+ */
+public final class PayloadPassthrough {
+
+  private static final IntegrationMetrics METRICS = IntegrationMetrics.of("common");
+  private static final Counter FORWARDED = METRICS.counter("passthrough.forwarded");
+  private static final Counter FORWARDED_BYTES = METRICS.counter("passthrough.bytes");
+  private static final Counter DROPPED = METRICS.counter("passthrough.dropped");
+
+  private final OutboundPacketQueues packetQueues;
+  private final Protocol protocol;
+
+  private final LongAdder forwarded = new LongAdder();
+  private final LongAdder rewritten = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+
+  // indexed by packet id, replaced on registration so forwarding never locks
+  private volatile Class<? extends Packet>[] types = newTypes(0);
+  private volatile PayloadInterceptor interceptor;
+
+  /**
+   * @param protocolService the protocol service to send the forwarded payloads with
+   * @param protocol        the protocol of the forwarded payloads
+   */
+  public PayloadPassthrough(
+      @NotNull AbstractLabyModProtocolService protocolService,
+      @NotNull Protocol protocol
+  ) {
+    Objects.requireNonNull(protocolService, "Protocol service cannot be null");
+    Objects.requireNonNull(protocol, "Protocol cannot be null");
+    this.packetQueues = OutboundPacketQueues.of(protocolService);
+    this.protocol = protocol;
+  }
+
+  /**
+   * Forwards the payloads of the provided packet.
+   *
+   * @param packetId the id the packet is registered with
+   * @param type     the type of the packet
+   * @return this passthrough
+   */
+  public synchronized @NotNull PayloadPassthrough register(
+      int packetId,
+      @NotNull Class<? extends Packet> type
+  ) {
+    Objects.requireNonNull(type, "Type cannot be null");
+    if (packetId < 0) {
+      throw new IllegalArgumentException("Packet id cannot be negative");
+    }
+
+    Class<? extends Packet>[] types = this.types;
+    if (packetId >= types.length) {
+      Class<? extends Packet>[] grown = newTypes(packetId + 1);
+      System.arraycopy(types, 0, grown, 0, types.length);
+      types = grown;
+    } else {
+      types = Arrays.copyOf(types, types.length);
+    }
+
+    types[packetId] = type;
+    this.types = types;
+    return this;
+  }
+
+  /**
+   * @param packetId the id of the packet
+   * @return whether payloads of the packet are forwarded
+   */
+  public boolean isForwarded(int packetId) {
+    return this.type(packetId) != null;
+  }
+
+  /**
+   * Sets the interceptor called for every forwarded payload.
+   *
+   * @param interceptor the interceptor, null to forward the payloads as they are
+   */
+  public void setInterceptor(@Nullable PayloadInterceptor interceptor) {
+    this.interceptor = interceptor;
+  }
+
+  /**
+   * @return the interceptor called for every forwarded payload, null if there is none
+   */
+  public @Nullable PayloadInterceptor getInterceptor() {
+    return this.interceptor;
+  }
+
+  /**
+   * Forwards the provided payload to the provided recipient.
+   *
+   * @param recipient the unique id of the recipient
+   * @param data      the received payload, starting with the packet id
+   * @return {@code true} if the payload was handled, {@code false} if the packet is not forwarded
+   * and has to be handled by the caller
+   */
+  public boolean forward(@NotNull UUID recipient, @NotNull byte[] data) {
+    Objects.requireNonNull(data, "Data cannot be null");
+    return this.forward(recipient, data, 0, data.length);
+  }
+
+  /**
+   * Forwards the provided payload to the provided recipient.
+   *
+   * @param recipient the unique id of the recipient
+   * @param data      the received payload, starting with the packet id
+   * @param offset    the index of the first byte of the payload
+   * @param length    the length of the payload
+   * @return {@code true} if the payload was handled, {@code false} if the packet is not forwarded
+   * and has to be handled by the caller
+   */
+  public boolean forward(@NotNull UUID recipient, @NotNull byte[] data, int offset, int length) {
+    Objects.requireNonNull(recipient, "Recipient cannot be null");
+    PayloadCursor cursor = new PayloadCursor(data, offset, offset + length);
+    int packetId = cursor.readVarInt();
+    Class<? extends Packet> type = this.type(packetId);
+    if (type == null) {
+      return false;
+    }
+
+    EncodedPacket packet = this.encode(packetId, type, data, offset, cursor);
+    if (packet != null) {
+      this.packetQueues.send(recipient, packet);
+    }
+
+    return true;
+  }
+
+  /**
+   * Forwards the provided payload to all provided recipients. The payload is intercepted and
+   * wrapped only once for all recipients.
+   *
+   * @param recipients the unique ids of the recipients
+   * @param data       the received payload, starting with the packet id
+   * @param offset     the index of the first byte of the payload
+   * @param length     the length of the payload
+   * @return {@code true} if the payload was handled, {@code false} if the packet is not forwarded
+   * and has to be handled by the caller
+   */
+  public boolean forward(
+      @NotNull Collection<UUID> recipients,
+      @NotNull byte[] data,
+      int offset,
+      int length
+  ) {
+    Objects.requireNonNull(recipients, "Recipients cannot be null");
+    PayloadCursor cursor = new PayloadCursor(data, offset, offset + length);
+    int packetId = cursor.readVarInt();
+    Class<? extends Packet> type = this.type(packetId);
+    if (type == null) {
+      return false;
+    }
+
+    EncodedPacket packet = this.encode(packetId, type, data, offset, cursor);
+    if (packet != null) {
+      for (UUID recipient : recipients) {
+        this.packetQueues.send(recipient, packet);
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Forwards the provided payload to all LabyMod players. The payload is intercepted and wrapped
+   * only once for all players.
+   *
+   * @param data   the received payload, starting with the packet id
+   * @param offset the index of the first byte of the payload
+   * @param length the length of the payload
+   * @return {@code true} if the payload was handled, {@code false} if the packet is not forwarded
+   * and has to be handled by the caller
+   */
+  public boolean forwardToAll(@NotNull byte[] data, int offset, int length) {
+    PayloadCursor cursor = new PayloadCursor(data, offset, offset + length);
+    int packetId = cursor.readVarInt();
+    Class<? extends Packet> type = this.type(packetId);
+    if (type == null) {
+      return false;
+    }
+
+    EncodedPacket packet = this.encode(packetId, type, data, offset, cursor);
+    if (packet != null) {
+      this.packetQueues.broadcast(packet);
+    }
+
+    return true;
+  }
+
+  /**
+   * @return the amount of forwarded payloads
+   */
+  public long getForwardedCount() {
+    return this.forwarded.sum();
+  }
+
+  /**
+   * @return the amount of forwarded payloads that were rewritten by the interceptor
+   */
+  public long getRewrittenCount() {
+    return this.rewritten.sum();
+  }
+
+  /**
+   * @return the amount of payloads that were dropped by the interceptor
+   */
+  public long getDroppedCount() {
+    return this.dropped.sum();
+  }
+
+  private @Nullable Class<? extends Packet> type(int packetId) {
+    Class<? extends Packet>[] types = this.types;
+    return packetId >= 0 && packetId < types.length ? types[packetId] : null;
+  }
+
+  private @Nullable EncodedPacket encode(
+      int packetId,
+      Class<? extends Packet> type,
+      byte[] data,
+      int offset,
+      PayloadCursor cursor
+  ) {
+    int length = cursor.position() + cursor.remaining() - offset;
+    PayloadInterceptor interceptor = this.interceptor;
+    ByteBuffer payload = null;
+    ByteBuffer result = null;
+    if (interceptor != null) {
+      payload = ByteBuffer.wrap(data, cursor.position(), cursor.remaining()).slice();
+      result = interceptor.intercept(packetId, payload);
+      if (result == null) {
+        this.dropped.increment();
+        DROPPED.increment();
+        return null;
+      }
+    }
+
+    if (result == payload) {
+      // forwarded as received, changes made in place by the interceptor are included
+      return this.forwarded(EncodedPacket.raw(this.protocol, type, data, offset, length), length);
+    }
+
+    this.rewritten.increment();
+    length = result.remaining();
+    EncodedPacket packet;
+    if (result.hasArray()) {
+      packet = EncodedPacket.wrap(
+          this.protocol,
+          packetId,
+          type,
+          result.array(),
+          result.arrayOffset() + result.position(),
+          length
+      );
+    } else {
+      byte[] bytes = new byte[length];
+      result.duplicate().get(bytes);
+      packet = EncodedPacket.wrap(this.protocol, packetId, type, bytes, 0, length);
+    }
+
+    return this.forwarded(packet, length);
+  }
+
+  private EncodedPacket forwarded(EncodedPacket packet, int length) {
+    this.forwarded.increment();
+    FORWARDED.increment();
+    FORWARDED_BYTES.add(length);
+    return packet;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Class<? extends Packet>[] newTypes(int length) {
+    return (Class<? extends Packet>[]) new Class<?>[length];
+  }
+
+  @Override
+  public String toString() {
+    return "PayloadPassthrough{" +
+        "protocol=" + this.protocol.identifier() +
+        ", forwarded=" + this.forwarded +
+        ", rewritten=" + this.rewritten +
+        ", dropped=" + this.dropped +
+        '}';
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.common.payload;
+
+import net.labymod.serverapi.api.Protocol;
+import net.labymod.serverapi.api.packet.Packet;
+import net.labymod.serverapi.integration.common.packet.EncodedPacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * An unmodifiable list backed by the encoded payload of a packet containing a collection. The
+ * payload is not copied, only the offsets of the elements are indexed the first time the list is
+ * accessed. Elements are decoded every time they are accessed, so code that only counts, filters
+ * or forwards the payload never creates the elements.
+ *
+ * @param <T> the type of the elements
+ */
+public abstract class LazyPayloadList<T> extends AbstractList<T> implements RandomAccess {
+
+  private final Class<? extends Packet> type;
+  private final byte[] data;
+  private final int offset;
+  private final int limit;
+
+  // offsets[i] is the start of element i, offsets[size] the end of the last element
+  private int[] offsets;
+
+  /**
+   * @param type   the type of the packet the payload belongs to
+   * @param data   the payload, starting after the packet id
+   * @param offset the index of the first byte of the payload
+   * @param length the length of the payload
+   */
+  protected LazyPayloadList(
+      @NotNull Class<? extends Packet> type,
+      @NotNull byte[] data,
+      int offset,
+      int length
+  ) {
+    Objects.requireNonNull(type, "Type cannot be null");
+    Objects.requireNonNull(data, "Data cannot be null");
+    if (offset < 0 || length < 0 || offset + length > data.length) {
+      throw new IndexOutOfBoundsException(
+          "Invalid range " + offset + " + " + length + " of " + data.length + " bytes"
+      );
+    }
+
+    this.type = type;
+    this.data = data;
+    this.offset = offset;
+    this.limit = offset + length;
+  }
+
+  /**
+   * Skips a single element.
+   *
+   * @param cursor the cursor positioned at the start of the element
+   */
+  protected abstract void skip(@NotNull PayloadCursor cursor);
+
+  /**
+   * Decodes a single element.
+   *
+   * @param cursor the cursor positioned at the start of the element
+   * @return the decoded element
+   */
+  protected abstract @NotNull T decode(@NotNull PayloadCursor cursor);
+
+  @Override
+  public @NotNull T get(int index) {
+    return this.decode(this.cursor(index));
+  }
+
+  @Override
+  public int size() {
+    return this.offsets().length - 1;
+  }
+
+  /**
+   * @param index the index of the element
+   * @return a cursor positioned at the start of the element, limited to the element
+   */
+  protected @NotNull PayloadCursor cursor(int index) {
+    int[] offsets = this.offsets();
+    if (index < 0 || index >= offsets.length - 1) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (offsets.length - 1));
+    }
+
+    return new PayloadCursor(this.data, offsets[index], offsets[index + 1]);
+  }
+
+  /**
+   * @return a read-only view of the whole payload
+   */
+  public @NotNull ByteBuffer slice() {
+    return ByteBuffer.wrap(this.data, this.offset, this.limit - this.offset)
+        .slice()
+        .asReadOnlyBuffer();
+  }
+
+  /**
+   * @param index the index of the element
+   * @return a read-only view of the encoded element
+   */
+  public @NotNull ByteBuffer slice(int index) {
+    PayloadCursor cursor = this.cursor(index);
+    return ByteBuffer.wrap(this.data, cursor.position(), cursor.remaining())
+        .slice()
+        .asReadOnlyBuffer();
+  }
+
+  /**
+   * Wraps the untouched payload into an encoded packet, so it can be forwarded without decoding
+   * and encoding the elements again. Unlike the list, the packet does not share the payload, the
+   * bytes are copied by {@link EncodedPacket#wrap}: twice if the payload is only a range of the
+   * array, which is the case after the packet id was read, otherwise once.
+   *
+   * @param protocol the protocol the packet is registered in
+   * @param packetId the id the packet is registered with
+   * @return the encoded packet
+   */
+  public @NotNull EncodedPacket forward(@NotNull Protocol protocol, int packetId) {
+    return EncodedPacket.wrap(
+        protocol,
+        packetId,
+        this.type,
+        this.data,
+        this.offset,
+        this.limit - this.offset
+    );
+  }
+
+  private int[] offsets() {
+    int[] offsets = this.offsets;
+    if (offsets == null) {
+      PayloadCursor cursor = new PayloadCursor(this.data, this.offset, this.limit);
+      int size = cursor.readVarInt();
+      if (size < 0 || size > cursor.remaining()) {
+        throw new IllegalStateException("Invalid element count " + size);
+      }
+
+      offsets = new int[size + 1];
+      for (int i = 0; i < size; i++) {
+        offsets[i] = cursor.position();
+        this.skip(cursor);
+      }
+
+      offsets[size] = cursor.position();
+      this.offsets = offsets;
+    }
+
+    return offsets;
+  }
+}
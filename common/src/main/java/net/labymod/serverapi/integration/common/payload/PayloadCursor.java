@@ -0,0 +1,162 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.common.payload;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Reads values in the format of the {@code PayloadWriter} directly from a byte array, without
+ * copying the array. Values can also be skipped without decoding them, which is used to index
+ * lazily decoded payloads.
+ */
+public final class PayloadCursor {
+
+  private final byte[] data;
+  private final int limit;
+  private int position;
+
+  /**
+   * @param data   the payload
+   * @param offset the index of the first byte to read
+   * @param limit  the index after the last byte to read
+   */
+  public PayloadCursor(@NotNull byte[] data, int offset, int limit) {
+    Objects.requireNonNull(data, "Data cannot be null");
+    if (offset < 0 || limit > data.length || offset > limit) {
+      throw new IndexOutOfBoundsException(
+          "Invalid range " + offset + " to " + limit + " of " + data.length + " bytes"
+      );
+    }
+
+    this.data = data;
+    this.position = offset;
+    this.limit = limit;
+  }
+
+  /**
+   * @return the index of the next byte to read
+   */
+  public int position() {
+    return this.position;
+  }
+
+  /**
+   * @return the amount of bytes left to read
+   */
+  public int remaining() {
+    return this.limit - this.position;
+  }
+
+  public byte readByte() {
+    this.require(1);
+    return this.data[this.position++];
+  }
+
+  public boolean readBoolean() {
+    return this.readByte() != 0;
+  }
+
+  public int readVarInt() {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      byte current = this.readByte();
+      value |= (current & 0x7F) << shift;
+      if ((current & 0x80) == 0) {
+        return value;
+      }
+    }
+
+    throw new IllegalStateException("VarInt is too big");
+  }
+
+  public long readLong() {
+    this.require(8);
+    long value = 0;
+    for (int i = 0; i < 8; i++) {
+      value = (value << 8) | (this.data[this.position++] & 0xFFL);
+    }
+
+    return value;
+  }
+
+  public double readDouble() {
+    return Double.longBitsToDouble(this.readLong());
+  }
+
+  public @NotNull UUID readUUID() {
+    return new UUID(this.readLong(), this.readLong());
+  }
+
+  public @NotNull String readString() {
+    int length = this.readVarInt();
+    this.require(length);
+    String value = new String(this.data, this.position, length, StandardCharsets.UTF_8);
+    this.position += length;
+    return value;
+  }
+
+  public @Nullable String readOptionalString() {
+    return this.readBoolean() ? this.readString() : null;
+  }
+
+  /**
+   * @param length the amount of bytes to skip
+   */
+  public void skip(int length) {
+    this.require(length);
+    this.position += length;
+  }
+
+  public void skipString() {
+    this.skip(this.readVarInt());
+  }
+
+  public void skipOptionalString() {
+    if (this.readBoolean()) {
+      this.skipString();
+    }
+  }
+
+  private void require(int length) {
+    if (length < 0 || this.limit - this.position < length) {
+      throw new IndexOutOfBoundsException(
+          "Cannot read " + length + " bytes, only " + this.remaining() + " bytes left"
+      );
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "PayloadCursor{" +
+        "position=" + this.position +
+        ", limit=" + this.limit +
+        '}';
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.common.queue;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The outbound bandwidth of a protocol per player, applied as token bucket to the packets with
+ * {@link PacketPriority#LOW low priority}. The bucket of every player starts full, is refilled
+ * continuously and allows a burst of up to the bucket size.
+ */
+public final class BandwidthBudget {
+
+  private static final int TICKS_PER_SECOND = 20;
+
+  private final int bytesPerSecond;
+  private final int burstBytes;
+  private final int chunkBytes;
+
+  private BandwidthBudget(int bytesPerSecond, int burstBytes, int chunkBytes) {
+    this.bytesPerSecond = bytesPerSecond;
+    this.burstBytes = burstBytes;
+    this.chunkBytes = chunkBytes;
+  }
+
+  /**
+   * Creates a budget that splits packets into chunks of the bytes refilled per server tick.
+   *
+   * @param bytesPerSecond the bytes the bucket is refilled with per second
+   * @param burstBytes     the size of the bucket in bytes
+   * @return the created budget
+   */
+  public static @NotNull BandwidthBudget of(int bytesPerSecond, int burstBytes) {
+    if (bytesPerSecond <= 0) {
+      throw new IllegalArgumentException("Bytes per second must be positive");
+    }
+
+    if (burstBytes <= 0) {
+      throw new IllegalArgumentException("Burst bytes must be positive");
+    }
+
+    int chunkBytes = Math.max(1, Math.min(burstBytes, bytesPerSecond / TICKS_PER_SECOND));
+    return new BandwidthBudget(bytesPerSecond, burstBytes, chunkBytes);
+  }
+
+  /**
+   * @param chunkBytes the size in bytes above which packets are split into chunks
+   * @return a copy of this budget with the provided chunk size
+   */
+  public @NotNull BandwidthBudget withChunkBytes(int chunkBytes) {
+    if (chunkBytes <= 0) {
+      throw new IllegalArgumentException("Chunk bytes must be positive");
+    }
+
+    return new BandwidthBudget(this.bytesPerSecond, this.burstBytes, chunkBytes);
+  }
+
+  /**
+   * @return the bytes the bucket is refilled with per second
+   */
+  public int getBytesPerSecond() {
+    return this.bytesPerSecond;
+  }
+
+  /**
+   * @return the size of the bucket in bytes
+   */
+  public int getBurstBytes() {
+    return this.burstBytes;
+  }
+
+  /**
+   * @return the size in bytes above which packets are split into chunks
+   */
+  public int getChunkBytes() {
+    return this.chunkBytes;
+  }
+
+  @Override
+  public String toString() {
+    return "BandwidthBudget{" +
+        "bytesPerSecond=" + this.bytesPerSecond +
+        ", burstBytes=" + this.burstBytes +
+        ", chunkBytes=" + this.chunkBytes +
+        '}';
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.common.queue;
+
+import net.labymod.serverapi.api.Protocol;
+import net.labymod.serverapi.api.packet.Packet;
+import net.labymod.serverapi.api.payload.io.PayloadWriter;
+import net.labymod.serverapi.integration.common.metrics.Counter;
+import net.labymod.serverapi.integration.common.metrics.Histogram;
+import net.labymod.serverapi.integration.common.metrics.IntegrationMetrics;
+import net.labymod.serverapi.integration.common.packet.EncodedPacket;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The token bucket and the deferred packets of a single protocol of a single player. Packets are
+ * dispatched while holding the lock of the limiter, so their order is kept.
+ */
+final class BandwidthLimiter {
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private static final IntegrationMetrics METRICS = IntegrationMetrics.of("common");
+  private static final Counter DEFERRED = METRICS.counter("budget.deferred");
+  private static final Counter DEFERRED_BYTES = METRICS.counter("budget.deferred.bytes");
+  private static final Counter CHUNKS = METRICS.counter("budget.chunks");
+  private static final Histogram DELAY = METRICS.histogram("budget.delay.nanos");
+
+  private final OutboundPacketQueues queues;
+  private final UUID uniqueId;
+  private final ArrayDeque<Deferred> deferred = new ArrayDeque<>();
+
+  private BandwidthBudget budget;
+  private long tokens;
+  private long refilledAt;
+
+  BandwidthLimiter(OutboundPacketQueues queues, UUID uniqueId, BandwidthBudget budget) {
+    this.queues = queues;
+    this.uniqueId = uniqueId;
+    this.budget = budget;
+    this.tokens = budget.getBurstBytes();
+    this.refilledAt = System.nanoTime();
+  }
+
+  synchronized void send(
+      @Nullable BandwidthBudget budget,
+      Protocol protocol,
+      Packet packet,
+      PacketPriority priority
+  ) {
+    if (this.bypass(budget, priority)) {
+      this.queues.dispatch(this.uniqueId, protocol, packet);
+      return;
+    }
+
+    if (priority != PacketPriority.LOW) {
+      this.deferred.add(new Deferred(protocol, packet, null, 0));
+      return;
+    }
+
+    // packets with a known id are deferred encoded, so they are not encoded again when sent
+    EncodedPacket encoded = this.encode(protocol, packet);
+    int size = encoded != null ? encoded.size() : measure(packet);
+    int chunkBytes = this.budget.getChunkBytes();
+    List<Packet> chunks = null;
+    if (size > chunkBytes) {
+      PacketSplitter splitter = this.queues.getSplitter(protocol);
+      int count = (size + chunkBytes - 1) / chunkBytes;
+      chunks = splitter == null ? null : splitter.split(packet, count);
+    }
+
+    if (chunks == null || chunks.size() < 2) {
+      this.defer(new Deferred(protocol, packet, encoded, size));
+    } else {
+      CHUNKS.add(chunks.size());
+      int chunkSize = size / chunks.size();
+      for (Packet chunk : chunks) {
+        EncodedPacket encodedChunk = this.encode(protocol, chunk);
+        this.defer(encodedChunk != null
+            ? new Deferred(protocol, chunk, encodedChunk, encodedChunk.size())
+            : new Deferred(protocol, chunk, null, chunkSize));
+      }
+    }
+
+    this.drain(budget);
+  }
+
+  synchronized void send(
+      @Nullable BandwidthBudget budget,
+      EncodedPacket packet,
+      PacketPriority priority
+  ) {
+    if (this.bypass(budget, priority)) {
+      this.queues.dispatch(this.uniqueId, packet);
+      return;
+    }
+
+    if (priority != PacketPriority.LOW) {
+      this.deferred.add(new Deferred(null, null, packet, 0));
+      return;
+    }
+
+    this.defer(new Deferred(null, null, packet, packet.size()));
+    this.drain(budget);
+  }
+
+  /**
+   * Sends the deferred packets the budget allows, all of them if the budget was removed.
+   *
+   * @param budget the current budget, null if the budget was removed
+   */
+  synchronized void drain(@Nullable BandwidthBudget budget) {
+    if (budget != null) {
+      this.refill(budget);
+    }
+
+    while (!this.deferred.isEmpty()) {
+      Deferred next = this.deferred.peek();
+      if (budget != null && next.size > 0) {
+        // packets larger than the bucket are sent once the bucket is full
+        if (this.tokens < Math.min(next.size, budget.getBurstBytes())) {
+          return;
+        }
+
+        this.tokens -= next.size;
+      }
+
+      this.deferred.poll();
+      if (next.size > 0) {
+        DELAY.recordSince(next.deferredAt);
+      }
+
+      if (next.encoded == null) {
+        this.queues.dispatch(this.uniqueId, next.protocol, next.packet);
+      } else {
+        this.queues.dispatch(this.uniqueId, next.encoded);
+      }
+    }
+  }
+
+  synchronized int deferredCount() {
+    return this.deferred.size();
+  }
+
+  private boolean bypass(@Nullable BandwidthBudget budget, PacketPriority priority) {
+    if (budget == null) {
+      this.drain(null);
+      return true;
+    }
+
+    this.budget = budget;
+    return priority == PacketPriority.HIGH
+        || priority == PacketPriority.NORMAL && this.deferred.isEmpty();
+  }
+
+  private void defer(Deferred deferred) {
+    this.deferred.add(deferred);
+    DEFERRED.increment();
+    DEFERRED_BYTES.add(deferred.size);
+  }
+
+  private void refill(BandwidthBudget budget) {
+    this.budget = budget;
+    long now = System.nanoTime();
+    long elapsed = now - this.refilledAt;
+    this.refilledAt = now;
+    long burstBytes = budget.getBurstBytes();
+    if (elapsed >= NANOS_PER_SECOND * (burstBytes - this.tokens) / budget.getBytesPerSecond()) {
+      this.tokens = burstBytes;
+    } else {
+      this.tokens += elapsed * budget.getBytesPerSecond() / NANOS_PER_SECOND;
+    }
+  }
+
+  private @Nullable EncodedPacket encode(Protocol protocol, Packet packet) {
+    Integer packetId = this.queues.getPacketId(packet.getClass());
+    return packetId != null ? EncodedPacket.encode(protocol, packetId, packet) : null;
+  }
+
+  private static int measure(Packet packet) {
+    PayloadWriter writer = new PayloadWriter();
+    packet.write(writer);
+    // the packet id is a var int, which is a single byte for all integration packets
+    return writer.toByteArray().length + 1;
+  }
+
+  private static final class Deferred {
+
+    private final Protocol protocol;
+    private final Packet packet;
+    private final EncodedPacket encoded;
+    private final int size;
+    private final long deferredAt;
+
+    private Deferred(Protocol protocol, Packet packet, EncodedPacket encoded, int size) {
+      this.protocol = protocol;
+      this.packet = packet;
+      this.encoded = encoded;
+      this.size = size;
+      this.deferredAt = size > 0 ? DELAY.start() : Histogram.NOT_STARTED;
+    }
+  }
+}
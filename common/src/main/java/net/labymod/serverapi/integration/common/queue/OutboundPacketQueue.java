@@ -0,0 +1,240 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.common.queue;
+
+import net.labymod.serverapi.api.Protocol;
+import net.labymod.serverapi.api.packet.Packet;
+import net.labymod.serverapi.api.payload.PayloadChannelIdentifier;
+import net.labymod.serverapi.integration.common.packet.EncodedPacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Packets queued for a single player. A queued packet is merged into the last queued packet of
+ * the same protocol if the {@link PacketMerger} of the protocol is able to, so several changes
+ * within a tick result in as few packets as possible. Encoded packets are queued as they are and
+ * are never merged.
+ * <p>
+ * If a {@link BandwidthBudget} is set for a protocol, the queue also holds the packets of the
+ * protocol that were deferred because the budget of the player was used up.
+ */
+public class OutboundPacketQueue {
+
+  private final OutboundPacketQueues queues;
+  private final UUID uniqueId;
+  private final List<QueuedPacket> packets = new ArrayList<>();
+  private final Map<PayloadChannelIdentifier, BandwidthLimiter> limiters =
+      new ConcurrentHashMap<>();
+
+  OutboundPacketQueue(OutboundPacketQueues queues, UUID uniqueId) {
+    this.queues = queues;
+    this.uniqueId = uniqueId;
+  }
+
+  /**
+   * Queues the provided packet. If queueing is {@link OutboundPacketQueues#isEnabled() disabled},
+   * the packet is sent immediately.
+   *
+   * @param protocol the protocol the packet is registered in
+   * @param packet   the packet to send
+   */
+  public void enqueue(@NotNull Protocol protocol, @NotNull Packet packet) {
+    Objects.requireNonNull(protocol, "Protocol cannot be null");
+    Objects.requireNonNull(packet, "Packet cannot be null");
+    this.queues.recordEnqueued();
+    if (!this.queues.isEnabled()) {
+      this.send(protocol, packet);
+      return;
+    }
+
+    synchronized (this) {
+      PacketMerger merger = this.queues.getMerger(protocol);
+      if (merger != null) {
+        PayloadChannelIdentifier identifier = protocol.identifier();
+        for (int index = this.packets.size() - 1; index >= 0; index--) {
+          QueuedPacket queued = this.packets.get(index);
+          if (!queued.identifier().equals(identifier)) {
+            continue;
+          }
+
+          if (queued.packet == null) {
+            // the encoded packet has to stay between the packets
+            break;
+          }
+
+          Packet merged = merger.merge(queued.packet, packet);
+          if (merged != null) {
+            this.packets.set(index, new QueuedPacket(protocol, merged, null));
+            this.queues.recordMerged();
+            return;
+          }
+
+          break;
+        }
+      }
+
+      this.packets.add(new QueuedPacket(protocol, packet, null));
+    }
+  }
+
+  /**
+   * Queues the provided encoded packet. If queueing is
+   * {@link OutboundPacketQueues#isEnabled() disabled}, the packet is sent immediately.
+   *
+   * @param packet the encoded packet to send
+   */
+  public void enqueue(@NotNull EncodedPacket packet) {
+    Objects.requireNonNull(packet, "Packet cannot be null");
+    this.queues.recordEnqueued();
+    if (!this.queues.isEnabled()) {
+      this.send(packet);
+      return;
+    }
+
+    synchronized (this) {
+      this.packets.add(new QueuedPacket(null, null, packet));
+    }
+  }
+
+  /**
+   * Sends all queued packets in the order they were queued.
+   */
+  public void flush() {
+    List<QueuedPacket> packets;
+    synchronized (this) {
+      if (this.packets.isEmpty()) {
+        return;
+      }
+
+      packets = new ArrayList<>(this.packets);
+      this.packets.clear();
+    }
+
+    for (QueuedPacket queued : packets) {
+      if (queued.encoded == null) {
+        this.send(queued.protocol, queued.packet);
+      } else {
+        this.send(queued.encoded);
+      }
+    }
+  }
+
+  /**
+   * @return the amount of currently deferred packets of all protocols with a bandwidth budget
+   */
+  public int deferredCount() {
+    int count = 0;
+    for (BandwidthLimiter limiter : this.limiters.values()) {
+      count += limiter.deferredCount();
+    }
+
+    return count;
+  }
+
+  /**
+   * @return the amount of currently queued packets
+   */
+  public synchronized int size() {
+    return this.packets.size();
+  }
+
+  /**
+   * @return the unique id of the player the packets are queued for
+   */
+  public @NotNull UUID getUniqueId() {
+    return this.uniqueId;
+  }
+
+  void send(BandwidthBudget budget, Protocol protocol, Packet packet, PacketPriority priority) {
+    this.limiter(protocol.identifier(), budget).send(budget, protocol, packet, priority);
+  }
+
+  void send(BandwidthBudget budget, EncodedPacket packet, PacketPriority priority) {
+    this.limiter(packet.getIdentifier(), budget).send(budget, packet, priority);
+  }
+
+  /**
+   * Sends the deferred packets the budgets allow. Packets of protocols without a budget anymore
+   * are all sent.
+   */
+  void drainDeferred() {
+    for (Map.Entry<PayloadChannelIdentifier, BandwidthLimiter> entry : this.limiters.entrySet()) {
+      BandwidthBudget budget = this.queues.getBandwidthBudget(entry.getKey());
+      entry.getValue().drain(budget);
+      if (budget == null && entry.getValue().deferredCount() == 0) {
+        this.limiters.remove(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  private BandwidthLimiter limiter(PayloadChannelIdentifier identifier, BandwidthBudget budget) {
+    return this.limiters.computeIfAbsent(
+        identifier,
+        key -> new BandwidthLimiter(this.queues, this.uniqueId, budget)
+    );
+  }
+
+  private void send(Protocol protocol, Packet packet) {
+    this.queues.sendNow(this.uniqueId, protocol, packet);
+    this.queues.recordSent();
+  }
+
+  private void send(EncodedPacket packet) {
+    this.queues.sendNow(this.uniqueId, packet);
+    this.queues.recordSent();
+  }
+
+  @Override
+  public String toString() {
+    return "OutboundPacketQueue{" +
+        "uniqueId=" + this.uniqueId +
+        ", size=" + this.size() +
+        ", deferred=" + this.deferredCount() +
+        '}';
+  }
+
+  private static final class QueuedPacket {
+
+    private final Protocol protocol;
+    private final Packet packet;
+    private final EncodedPacket encoded;
+
+    private QueuedPacket(Protocol protocol, Packet packet, EncodedPacket encoded) {
+      this.protocol = protocol;
+      this.packet = packet;
+      this.encoded = encoded;
+    }
+
+    private PayloadChannelIdentifier identifier() {
+      return this.encoded == null ? this.protocol.identifier() : this.encoded.getIdentifier();
+    }
+  }
+}
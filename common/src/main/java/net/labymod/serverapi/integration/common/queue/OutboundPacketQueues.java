@@ -0,0 +1,472 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.common.queue;
+
+import net.labymod.serverapi.api.Protocol;
+import net.labymod.serverapi.api.packet.Packet;
+import net.labymod.serverapi.api.payload.PayloadChannelIdentifier;
+import net.labymod.serverapi.core.AbstractLabyModPlayer;
+import net.labymod.serverapi.core.AbstractLabyModProtocolService;
+import net.labymod.serverapi.integration.common.encoding.PacketEncodingPipeline;
+import net.labymod.serverapi.integration.common.metrics.Counter;
+import net.labymod.serverapi.integration.common.metrics.Histogram;
+import net.labymod.serverapi.integration.common.metrics.IntegrationMetrics;
+import net.labymod.serverapi.integration.common.packet.EncodedPacket;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The outbound packet queues of all players, shared by all integrations of a protocol service.
+ * <p>
+ * Queueing is disabled by default, in which case every packet is sent immediately. Once enabled,
+ * packets are only sent when {@link #flush()} is called, which should happen once per server
+ * tick after all integrations sent their packets. All packets of a player are sent in the order
+ * they were passed to the queues, whether they were {@link OutboundPacketQueue#enqueue queued},
+ * {@link #send sent} or {@link #broadcast broadcast}.
+ * <p>
+ * The queues of a protocol service are only kept while they are referenced, the integrations
+ * keep a reference for as long as they are used by the protocol service.
+ * <p>
+ * If an {@link #setEncodingPipeline(PacketEncodingPipeline) encoding pipeline} is set, all packets
+ * sent through the queues are handed to the pipeline, which encodes them off the calling thread
+ * while keeping the order of the packets of every player.
+ * <p>
+ * If a {@link #setBandwidthBudget bandwidth budget} is set for a protocol, packets of the
+ * protocol with {@link PacketPriority#LOW low priority} are limited per player and deferred to
+ * later ticks once the budget of the player is used up. Deferred packets are sent by
+ * {@link #flush()}, so it has to be called once per server tick as long as a budget is set.
+ */
+public final class OutboundPacketQueues {
+
+  private static final Map<AbstractLabyModProtocolService, Reference<OutboundPacketQueues>>
+      INSTANCES = new WeakHashMap<>();
+
+  private static final IntegrationMetrics METRICS = IntegrationMetrics.of("common");
+  private static final Histogram BROADCAST_RECIPIENTS = METRICS.histogram("broadcast.recipients");
+  // only packets sent encoded are counted, packets encoded by their protocol are not measured
+  private static final Counter SENT_BYTES = METRICS.counter("sent.bytes");
+
+  private final AbstractLabyModProtocolService protocolService;
+  private final Map<UUID, OutboundPacketQueue> queues = new ConcurrentHashMap<>();
+  private final Map<Protocol, PacketMerger> mergers = new ConcurrentHashMap<>();
+  private final Map<Protocol, PacketSplitter> splitters = new ConcurrentHashMap<>();
+  private final Map<Class<? extends Packet>, PacketPriority> priorities =
+      new ConcurrentHashMap<>();
+  private final Map<Class<? extends Packet>, Integer> packetIds = new ConcurrentHashMap<>();
+  private final Map<PayloadChannelIdentifier, BandwidthBudget> budgets =
+      new ConcurrentHashMap<>();
+
+  private final LongAdder enqueued = new LongAdder();
+  private final LongAdder merged = new LongAdder();
+  private final LongAdder sent = new LongAdder();
+
+  private volatile boolean enabled;
+  private volatile PacketEncodingPipeline encodingPipeline;
+
+  private OutboundPacketQueues(AbstractLabyModProtocolService protocolService) {
+    this.protocolService = protocolService;
+  }
+
+  /**
+   * @param protocolService the protocol service
+   * @return the outbound packet queues of the provided protocol service
+   */
+  public static @NotNull OutboundPacketQueues of(
+      @NotNull AbstractLabyModProtocolService protocolService
+  ) {
+    Objects.requireNonNull(protocolService, "Protocol service cannot be null");
+    synchronized (INSTANCES) {
+      Reference<OutboundPacketQueues> reference = INSTANCES.get(protocolService);
+      OutboundPacketQueues queues = reference == null ? null : reference.get();
+      if (queues == null) {
+        // the queues reference the protocol service, so they cannot be held strongly here
+        queues = new OutboundPacketQueues(protocolService);
+        INSTANCES.put(protocolService, new WeakReference<>(queues));
+      }
+
+      return queues;
+    }
+  }
+
+  /**
+   * @param uniqueId the unique id of the player
+   * @return the outbound packet queue of the player
+   */
+  public @NotNull OutboundPacketQueue queue(@NotNull UUID uniqueId) {
+    Objects.requireNonNull(uniqueId, "Unique id cannot be null");
+    return this.queues.computeIfAbsent(uniqueId, id -> new OutboundPacketQueue(this, id));
+  }
+
+  /**
+   * Registers a merger used for packets of the provided protocol. Several mergers can be
+   * registered for the same protocol, they are asked in the order they were registered until one
+   * of them merges the packets.
+   *
+   * @param protocol the protocol
+   * @param merger   the merger
+   */
+  public void registerMerger(@NotNull Protocol protocol, @NotNull PacketMerger merger) {
+    Objects.requireNonNull(protocol, "Protocol cannot be null");
+    Objects.requireNonNull(merger, "Merger cannot be null");
+    this.mergers.merge(protocol, merger, PacketMerger::or);
+  }
+
+  @Nullable PacketMerger getMerger(Protocol protocol) {
+    return this.mergers.get(protocol);
+  }
+
+  /**
+   * Registers the splitter used for packets of the provided protocol that exceed the chunk size
+   * of the {@link #setBandwidthBudget bandwidth budget}.
+   *
+   * @param protocol the protocol
+   * @param splitter the splitter
+   */
+  public void registerSplitter(@NotNull Protocol protocol, @NotNull PacketSplitter splitter) {
+    Objects.requireNonNull(protocol, "Protocol cannot be null");
+    Objects.requireNonNull(splitter, "Splitter cannot be null");
+    this.splitters.put(protocol, splitter);
+  }
+
+  @Nullable Integer getPacketId(Class<? extends Packet> type) {
+    return this.packetIds.get(type);
+  }
+
+  @Nullable PacketSplitter getSplitter(Protocol protocol) {
+    return this.splitters.get(protocol);
+  }
+
+  /**
+   * Sets the priority of the provided packet type, {@link PacketPriority#NORMAL} by default.
+   *
+   * @param type     the type of the packet
+   * @param priority the priority
+   */
+  public void registerPriority(
+      @NotNull Class<? extends Packet> type,
+      @NotNull PacketPriority priority
+  ) {
+    Objects.requireNonNull(type, "Type cannot be null");
+    Objects.requireNonNull(priority, "Priority cannot be null");
+    this.priorities.put(type, priority);
+  }
+
+  /**
+   * Sets the priority of the provided packet type, {@link PacketPriority#NORMAL} by default. Low
+   * priority packets of the type that are limited by a {@link #setBandwidthBudget bandwidth
+   * budget} are encoded once with the provided id and deferred encoded, instead of being encoded
+   * to measure them and again when they are sent.
+   *
+   * @param type     the type of the packet
+   * @param packetId the id the packet type is registered with in its protocol
+   * @param priority the priority
+   */
+  public void registerPriority(
+      @NotNull Class<? extends Packet> type,
+      int packetId,
+      @NotNull PacketPriority priority
+  ) {
+    this.registerPriority(type, priority);
+    this.packetIds.put(type, packetId);
+  }
+
+  /**
+   * @param type the type of the packet
+   * @return the priority of the packet type
+   */
+  public @NotNull PacketPriority getPriority(@NotNull Class<? extends Packet> type) {
+    return this.priorities.getOrDefault(type, PacketPriority.NORMAL);
+  }
+
+  /**
+   * Sets the outbound bandwidth every player has for the provided protocol. Disabled by default.
+   * Removing the budget sends all deferred packets of the protocol with the next {@link #flush()}.
+   *
+   * @param protocol the protocol
+   * @param budget   the budget, null to not limit the protocol
+   */
+  public void setBandwidthBudget(@NotNull Protocol protocol, @Nullable BandwidthBudget budget) {
+    Objects.requireNonNull(protocol, "Protocol cannot be null");
+    if (budget == null) {
+      this.budgets.remove(protocol.identifier());
+    } else {
+      this.budgets.put(protocol.identifier(), budget);
+    }
+  }
+
+  /**
+   * @param protocol the protocol
+   * @return the outbound bandwidth every player has for the protocol, null if it is not limited
+   */
+  public @Nullable BandwidthBudget getBandwidthBudget(@NotNull Protocol protocol) {
+    Objects.requireNonNull(protocol, "Protocol cannot be null");
+    return this.budgets.get(protocol.identifier());
+  }
+
+  @Nullable BandwidthBudget getBandwidthBudget(PayloadChannelIdentifier identifier) {
+    return this.budgets.get(identifier);
+  }
+
+  /**
+   * Sends the queued packets of all players, followed by the deferred packets their bandwidth
+   * budgets allow. Empty queues of players that left the server are dropped.
+   */
+  public void flush() {
+    Iterator<OutboundPacketQueue> iterator = this.queues.values().iterator();
+    while (iterator.hasNext()) {
+      OutboundPacketQueue queue = iterator.next();
+      queue.flush();
+      queue.drainDeferred();
+      if (queue.size() == 0 && this.protocolService.getPlayer(queue.getUniqueId()) == null) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Sends the provided packet to the provided recipient. If queueing is
+   * {@link #isEnabled() enabled}, the packet is queued after all packets that are already queued
+   * for the recipient, like {@link OutboundPacketQueue#enqueue}.
+   *
+   * @param recipient the unique id of the recipient
+   * @param protocol  the protocol the packet is registered in
+   * @param packet    the packet to send
+   */
+  public void send(@NotNull UUID recipient, @NotNull Protocol protocol, @NotNull Packet packet) {
+    Objects.requireNonNull(recipient, "Recipient cannot be null");
+    Objects.requireNonNull(protocol, "Protocol cannot be null");
+    Objects.requireNonNull(packet, "Packet cannot be null");
+    if (this.enabled) {
+      this.queue(recipient).enqueue(protocol, packet);
+      return;
+    }
+
+    this.sendNow(recipient, protocol, packet);
+  }
+
+  /**
+   * Sends the provided encoded packet to the provided recipient. If queueing is
+   * {@link #isEnabled() enabled}, the packet is queued after all packets that are already queued
+   * for the recipient.
+   *
+   * @param recipient the unique id of the recipient
+   * @param packet    the encoded packet to send
+   */
+  public void send(@NotNull UUID recipient, @NotNull EncodedPacket packet) {
+    Objects.requireNonNull(recipient, "Recipient cannot be null");
+    Objects.requireNonNull(packet, "Packet cannot be null");
+    if (this.enabled) {
+      this.queue(recipient).enqueue(packet);
+      return;
+    }
+
+    this.sendNow(recipient, packet);
+  }
+
+  /**
+   * Sends the provided encoded packet to all LabyMod players on the server. If queueing is
+   * {@link #isEnabled() enabled}, the packet is queued for every player after all packets that
+   * are already queued for the player.
+   *
+   * @param packet the encoded packet to send
+   */
+  public void broadcast(@NotNull EncodedPacket packet) {
+    Objects.requireNonNull(packet, "Packet cannot be null");
+    if (this.enabled || !this.budgets.isEmpty()
+        && this.budgets.containsKey(packet.getIdentifier())) {
+      // every player has an own queue and budget
+      for (AbstractLabyModPlayer<?> player : this.protocolService.getPlayers()) {
+        this.send(player.getUniqueId(), packet);
+      }
+
+      return;
+    }
+
+    if (IntegrationMetrics.isEnabled()) {
+      int recipients = this.protocolService.getPlayers().size();
+      METRICS.packetCounter(packet.getType()).add(recipients);
+      BROADCAST_RECIPIENTS.record(recipients);
+      SENT_BYTES.add((long) packet.size() * recipients);
+    }
+
+    PacketEncodingPipeline pipeline = this.encodingPipeline;
+    if (pipeline == null) {
+      packet.broadcast(this.protocolService);
+      return;
+    }
+
+    for (AbstractLabyModPlayer<?> player : this.protocolService.getPlayers()) {
+      pipeline.submit(player.getUniqueId(), packet);
+    }
+  }
+
+  /**
+   * Sends the provided packet without queueing it, unless it is deferred by the
+   * {@link #setBandwidthBudget bandwidth budget} of its protocol.
+   */
+  void sendNow(UUID recipient, Protocol protocol, Packet packet) {
+    if (!this.budgets.isEmpty()) {
+      BandwidthBudget budget = this.budgets.get(protocol.identifier());
+      if (budget != null) {
+        this.queue(recipient).send(budget, protocol, packet, this.getPriority(packet.getClass()));
+        return;
+      }
+    }
+
+    this.dispatch(recipient, protocol, packet);
+  }
+
+  /**
+   * Sends the provided encoded packet without queueing it, unless it is deferred by the
+   * {@link #setBandwidthBudget bandwidth budget} of its protocol.
+   */
+  void sendNow(UUID recipient, EncodedPacket packet) {
+    if (!this.budgets.isEmpty()) {
+      BandwidthBudget budget = this.budgets.get(packet.getIdentifier());
+      if (budget != null) {
+        this.queue(recipient).send(budget, packet, this.getPriority(packet.getType()));
+        return;
+      }
+    }
+
+    this.dispatch(recipient, packet);
+  }
+
+  void dispatch(UUID recipient, Protocol protocol, Packet packet) {
+    METRICS.packetCounter(packet.getClass()).increment();
+    PacketEncodingPipeline pipeline = this.encodingPipeline;
+    if (pipeline == null) {
+      protocol.sendPacket(recipient, packet);
+    } else {
+      pipeline.submit(recipient, protocol, packet);
+    }
+  }
+
+  void dispatch(UUID recipient, EncodedPacket packet) {
+    METRICS.packetCounter(packet.getType()).increment();
+    if (IntegrationMetrics.isEnabled()) {
+      SENT_BYTES.add(packet.size());
+    }
+
+    PacketEncodingPipeline pipeline = this.encodingPipeline;
+    if (pipeline == null) {
+      packet.sendTo(this.protocolService, recipient);
+    } else {
+      pipeline.submit(recipient, packet);
+    }
+  }
+
+  /**
+   * @return the pipeline encoding the sent packets, or null if packets are encoded on the calling
+   * thread
+   */
+  public @Nullable PacketEncodingPipeline getEncodingPipeline() {
+    return this.encodingPipeline;
+  }
+
+  /**
+   * Sets the pipeline encoding the sent packets. Disabled by default, in which case packets are
+   * encoded on the thread sending or flushing them.
+   *
+   * @param encodingPipeline the pipeline, or null to encode packets on the calling thread
+   */
+  public void setEncodingPipeline(@Nullable PacketEncodingPipeline encodingPipeline) {
+    this.encodingPipeline = encodingPipeline;
+  }
+
+  /**
+   * @return whether packets are queued until {@link #flush()} is called
+   */
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  /**
+   * Sets whether packets are queued until {@link #flush()} is called. Disabling queueing sends all
+   * currently queued packets.
+   *
+   * @param enabled whether packets should be queued
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    if (!enabled) {
+      this.flush();
+    }
+  }
+
+  /**
+   * @return the amount of packets that were queued
+   */
+  public long getEnqueuedCount() {
+    return this.enqueued.sum();
+  }
+
+  /**
+   * @return the amount of packets that were merged into an already queued packet
+   */
+  public long getMergedCount() {
+    return this.merged.sum();
+  }
+
+  /**
+   * @return the amount of packets that were actually sent
+   */
+  public long getSentCount() {
+    return this.sent.sum();
+  }
+
+  void recordEnqueued() {
+    this.enqueued.increment();
+  }
+
+  void recordMerged() {
+    this.merged.increment();
+  }
+
+  void recordSent() {
+    this.sent.increment();
+  }
+
+  @Override
+  public String toString() {
+    return "OutboundPacketQueues{" +
+        "enabled=" + this.enabled +
+        ", encodingPipeline=" + this.encodingPipeline +
+        ", enqueued=" + this.enqueued +
+        ", merged=" + this.merged +
+        ", sent=" + this.sent +
+        '}';
+  }
+}
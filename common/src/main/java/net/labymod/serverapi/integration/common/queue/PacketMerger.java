@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.common.queue;
+
+import net.labymod.serverapi.api.packet.Packet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Merges two packets of the same protocol that are queued for the same player.
+ */
+@FunctionalInterface
+public interface PacketMerger {
+
+  /**
+   * Merges the provided packets into a single packet. The returned packet must have the same
+   * effect on the client as sending {@code previous} followed by {@code next}.
+   *
+   * @param previous the packet that is already queued
+   * @param next     the packet that is queued after the previous packet
+   * @return the packet replacing both packets, or {@code null} if the packets cannot be merged
+   */
+  @Nullable Packet merge(@NotNull Packet previous, @NotNull Packet next);
+
+  /**
+   * @param other the merger to ask if this merger cannot merge the packets
+   * @return a merger asking this merger first and the provided merger second
+   */
+  default @NotNull PacketMerger or(@NotNull PacketMerger other) {
+    return (previous, next) -> {
+      Packet merged = this.merge(previous, next);
+      return merged != null ? merged : other.merge(previous, next);
+    };
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.common.queue;
+
+/**
+ * The priority of a packet type when a {@link BandwidthBudget} is set for its protocol.
+ */
+public enum PacketPriority {
+
+  /**
+   * Sent immediately, even if packets of the same protocol are deferred. Used for changes the
+   * player has to receive without delay, like mutes and permissions.
+   */
+  HIGH,
+
+  /**
+   * Sent immediately, unless packets of the same protocol are deferred, in which case it is sent
+   * after them to keep the order of the packets.
+   */
+  NORMAL,
+
+  /**
+   * Limited by the budget. Deferred to later ticks if the budget is used up and split into
+   * chunks by the {@link PacketSplitter} of the protocol if it is too large.
+   */
+  LOW
+}
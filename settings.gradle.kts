@@ -1,5 +1,7 @@
 rootProject.name = "labymod4-server-api-integrations"
 
+include(":common")
+include(":benchmarks")
 include(":voicechat")
 include(":betterperspective")
 include(":waypoints")
\ No newline at end of file
@@ -0,0 +1,427 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.voicechat;
+
+import net.labymod.serverapi.core.AbstractLabyModProtocolService;
+import net.labymod.serverapi.core.AddonProtocol;
+import net.labymod.serverapi.integration.common.capability.ClientCapabilities;
+import net.labymod.serverapi.integration.common.packet.EncodedPacket;
+import net.labymod.serverapi.integration.common.queue.OutboundPacketQueues;
+import net.labymod.serverapi.integration.voicechat.audience.VoiceChatAudienceResolver;
+import net.labymod.serverapi.integration.voicechat.model.VoiceChatMute;
+import net.labymod.serverapi.integration.voicechat.packets.VoiceChatMutePacket;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Sends mutes only to the players that can hear the muted player, as decided by a
+ * {@link VoiceChatAudienceResolver}. The group of every player is cached and only resolved again
+ * when it is {@link #update updated}, for example after the player changed the world or joined
+ * another game instance.
+ * <p>
+ * For every mute it is tracked which players received it, so an unmute is sent to exactly those
+ * players, wherever they are by then. When a player moves into a group, the mutes of the group
+ * members are sent to the player and the mute of the player is sent to the group members, in
+ * both cases only to the players that did not receive the mute before.
+ */
+public final class VoiceChatAudiences {
+
+  private static final long PRUNE_MILLIS = 30_000L;
+
+  private final AbstractLabyModProtocolService protocolService;
+  private final AddonProtocol addonProtocol;
+  private final OutboundPacketQueues packetQueues;
+  private final VoiceChatMuteRegistry muteRegistry;
+  private final ClientCapabilities capabilities;
+  private final VoiceChatAudienceResolver resolver;
+
+  private final Map<UUID, Object> groups = new HashMap<>();
+  private final Map<Object, Set<UUID>> members = new HashMap<>();
+  // the players that received the mute of a player and did not receive the unmute yet
+  private final Map<UUID, Set<UUID>> receivers = new HashMap<>();
+  // the reverse of the receivers, the muted players whose mute a player received
+  private final Map<UUID, Set<UUID>> received = new HashMap<>();
+  private long nextPrune;
+
+  VoiceChatAudiences(
+      AbstractLabyModProtocolService protocolService,
+      AddonProtocol addonProtocol,
+      OutboundPacketQueues packetQueues,
+      VoiceChatMuteRegistry muteRegistry,
+      ClientCapabilities capabilities,
+      VoiceChatAudienceResolver resolver
+  ) {
+    this.protocolService = protocolService;
+    this.addonProtocol = addonProtocol;
+    this.packetQueues = packetQueues;
+    this.muteRegistry = muteRegistry;
+    this.capabilities = capabilities;
+    this.resolver = resolver;
+  }
+
+  /**
+   * Resolves the group of the provided player again and sends the mutes the player or the members
+   * of the new group did not receive yet. Should be called whenever the group of the player might
+   * have changed.
+   *
+   * @param uniqueId the unique id of the player
+   */
+  public void update(@NotNull UUID uniqueId) {
+    Objects.requireNonNull(uniqueId, "Unique id cannot be null");
+    Object group = this.resolver.resolveGroup(uniqueId);
+    long timestamp = System.currentTimeMillis();
+    Map<UUID, List<VoiceChatMute>> mutes = new LinkedHashMap<>();
+    synchronized (this) {
+      Object previous = group == null
+          ? this.groups.remove(uniqueId)
+          : this.groups.put(uniqueId, group);
+      if (Objects.equals(previous, group)) {
+        return;
+      }
+
+      if (previous != null) {
+        this.removeMember(previous, uniqueId);
+      }
+
+      if (group == null) {
+        return;
+      }
+
+      Set<UUID> members = this.members.computeIfAbsent(group, key -> new HashSet<>());
+      members.add(uniqueId);
+
+      VoiceChatMute mute = this.activeMute(uniqueId, timestamp);
+      if (mute != null) {
+        for (UUID member : members) {
+          if (this.resolver.canHear(member, uniqueId) && this.addReceiver(uniqueId, member)) {
+            mutes.computeIfAbsent(member, key -> new ArrayList<>()).add(mute);
+          }
+        }
+      }
+
+      for (UUID member : members) {
+        VoiceChatMute memberMute = member.equals(uniqueId)
+            ? null
+            : this.activeMute(member, timestamp);
+        if (memberMute != null && this.resolver.canHear(uniqueId, member)
+            && this.addReceiver(member, uniqueId)) {
+          mutes.computeIfAbsent(uniqueId, key -> new ArrayList<>()).add(memberMute);
+        }
+      }
+    }
+
+    this.send(mutes, this::mutePacket);
+  }
+
+  /**
+   * @param uniqueId the unique id of the player
+   * @return the cached group of the player, null if the player is in no group
+   */
+  public synchronized @Nullable Object getGroup(@NotNull UUID uniqueId) {
+    return this.groups.get(uniqueId);
+  }
+
+  /**
+   * @param group the group
+   * @return the unique ids of all players in the group
+   */
+  public synchronized @NotNull Set<UUID> getMembers(@NotNull Object group) {
+    Set<UUID> members = this.members.get(group);
+    return members == null ? Collections.emptySet() : new HashSet<>(members);
+  }
+
+  /**
+   * @param speaker the unique id of the speaking player
+   * @return the unique ids of all players that can hear the provided player
+   */
+  public synchronized @NotNull Set<UUID> getAudience(@NotNull UUID speaker) {
+    Set<UUID> audience = new HashSet<>();
+    this.collectAudience(speaker, audience);
+    return audience;
+  }
+
+  /**
+   * Starts tracking a joining player. The player did not receive any mute yet, the mutes of the
+   * group are sent with the first {@link #update}.
+   *
+   * @param uniqueId the unique id of the player
+   */
+  void join(UUID uniqueId) {
+    synchronized (this) {
+      this.forget(uniqueId);
+    }
+
+    this.update(uniqueId);
+  }
+
+  /**
+   * Stops tracking a player that left the server. Only the mutes the player received are visited.
+   * Players whose leave is not reported are forgotten by the next prune of
+   * {@link VoiceChatIntegration#tick}, which visits all players at most every 30 seconds.
+   *
+   * @param uniqueId the unique id of the player
+   */
+  public synchronized void quit(@NotNull UUID uniqueId) {
+    Objects.requireNonNull(uniqueId, "Unique id cannot be null");
+    this.forget(uniqueId);
+  }
+
+  /**
+   * Assumes that the provided players received all mutes of the registry, which is the case for
+   * the players on the server before the audiences were enabled.
+   *
+   * @param receivers the unique ids of the players
+   */
+  synchronized void assumeReceived(@NotNull Iterable<UUID> receivers) {
+    for (VoiceChatMute mute : this.muteRegistry.getMutes()) {
+      for (UUID receiver : receivers) {
+        this.addReceiver(mute.getUniqueId(), receiver);
+      }
+    }
+  }
+
+  /**
+   * Takes over the received mutes tracked by the provided audiences, which are replaced by these.
+   *
+   * @param previous the replaced audiences
+   */
+  void assumeReceived(@NotNull VoiceChatAudiences previous) {
+    Map<UUID, Set<UUID>> receivers = new HashMap<>();
+    synchronized (previous) {
+      for (Map.Entry<UUID, Set<UUID>> entry : previous.receivers.entrySet()) {
+        receivers.put(entry.getKey(), new HashSet<>(entry.getValue()));
+      }
+    }
+
+    synchronized (this) {
+      for (Map.Entry<UUID, Set<UUID>> entry : receivers.entrySet()) {
+        for (UUID receiver : entry.getValue()) {
+          this.addReceiver(entry.getKey(), receiver);
+        }
+      }
+    }
+  }
+
+  /**
+   * Sends the provided mutes to the players that can hear the muted players or received an older
+   * mute of them, and the provided unmutes to the players that received the mutes. Players that
+   * are affected by the same changes share the encoded packets.
+   *
+   * @param mutes   the mutes to send
+   * @param unmutes the unique ids of the unmuted players
+   */
+  void send(@NotNull List<VoiceChatMute> mutes, @NotNull List<UUID> unmutes) {
+    Map<UUID, List<VoiceChatMute>> mutesByReceiver = new LinkedHashMap<>();
+    Map<UUID, List<UUID>> unmutesByReceiver = new LinkedHashMap<>();
+    synchronized (this) {
+      for (VoiceChatMute mute : mutes) {
+        UUID uniqueId = mute.getUniqueId();
+        Set<UUID> audience = new HashSet<>();
+        this.collectAudience(uniqueId, audience);
+        for (UUID receiver : audience) {
+          this.addReceiver(uniqueId, receiver);
+        }
+
+        Set<UUID> receivers = this.receivers.get(uniqueId);
+        if (receivers == null) {
+          // sent once the muted player joins a group
+          continue;
+        }
+
+        for (UUID receiver : receivers) {
+          mutesByReceiver.computeIfAbsent(receiver, key -> new ArrayList<>()).add(mute);
+        }
+      }
+
+      for (UUID uniqueId : unmutes) {
+        Set<UUID> receivers = this.removeReceivers(uniqueId);
+        if (receivers == null) {
+          continue;
+        }
+
+        for (UUID receiver : receivers) {
+          unmutesByReceiver.computeIfAbsent(receiver, key -> new ArrayList<>()).add(uniqueId);
+        }
+      }
+    }
+
+    this.send(mutesByReceiver, this::mutePacket);
+    if (!unmutesByReceiver.isEmpty()) {
+      VoiceChatUnmuteEncoder encoder = new VoiceChatUnmuteEncoder(
+          this.addonProtocol,
+          this.capabilities,
+          this.packetQueues
+      );
+      for (Map.Entry<UUID, List<UUID>> entry : unmutesByReceiver.entrySet()) {
+        encoder.send(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Stops tracking the players that left the server without being {@link #quit reported}. The
+   * players are visited at most every 30 seconds, so this method is intended to be called once
+   * per server tick.
+   *
+   * @param timestamp the current time in milliseconds
+   */
+  synchronized void prune(long timestamp) {
+    if (timestamp < this.nextPrune) {
+      return;
+    }
+
+    this.nextPrune = timestamp + PRUNE_MILLIS;
+    Set<UUID> left = new HashSet<>();
+    for (UUID uniqueId : this.groups.keySet()) {
+      if (this.protocolService.getPlayer(uniqueId) == null) {
+        left.add(uniqueId);
+      }
+    }
+
+    for (UUID uniqueId : this.received.keySet()) {
+      if (this.protocolService.getPlayer(uniqueId) == null) {
+        left.add(uniqueId);
+      }
+    }
+
+    for (UUID uniqueId : left) {
+      this.forget(uniqueId);
+    }
+  }
+
+  private void forget(UUID uniqueId) {
+    Object group = this.groups.remove(uniqueId);
+    if (group != null) {
+      this.removeMember(group, uniqueId);
+    }
+
+    Set<UUID> mutedPlayers = this.received.remove(uniqueId);
+    if (mutedPlayers == null) {
+      return;
+    }
+
+    for (UUID muted : mutedPlayers) {
+      Set<UUID> receivers = this.receivers.get(muted);
+      if (receivers != null && receivers.remove(uniqueId) && receivers.isEmpty()) {
+        this.receivers.remove(muted);
+      }
+    }
+  }
+
+  private boolean addReceiver(UUID muted, UUID receiver) {
+    if (!this.receivers.computeIfAbsent(muted, key -> new HashSet<>()).add(receiver)) {
+      return false;
+    }
+
+    this.received.computeIfAbsent(receiver, key -> new HashSet<>()).add(muted);
+    return true;
+  }
+
+  private @Nullable Set<UUID> removeReceivers(UUID muted) {
+    Set<UUID> receivers = this.receivers.remove(muted);
+    if (receivers == null) {
+      return null;
+    }
+
+    for (UUID receiver : receivers) {
+      Set<UUID> mutedPlayers = this.received.get(receiver);
+      if (mutedPlayers != null && mutedPlayers.remove(muted) && mutedPlayers.isEmpty()) {
+        this.received.remove(receiver);
+      }
+    }
+
+    return receivers;
+  }
+
+  private void collectAudience(UUID speaker, Set<UUID> audience) {
+    Object group = this.groups.get(speaker);
+    Set<UUID> members = group == null ? null : this.members.get(group);
+    if (members == null) {
+      return;
+    }
+
+    for (UUID member : members) {
+      if (this.resolver.canHear(member, speaker)) {
+        audience.add(member);
+      }
+    }
+  }
+
+  private void removeMember(Object group, UUID uniqueId) {
+    Set<UUID> members = this.members.get(group);
+    if (members != null && members.remove(uniqueId) && members.isEmpty()) {
+      this.members.remove(group);
+    }
+  }
+
+  private @Nullable VoiceChatMute activeMute(UUID uniqueId, long timestamp) {
+    VoiceChatMute mute = this.muteRegistry.getMute(uniqueId);
+    return mute == null || mute.isExpired(timestamp) ? null : mute;
+  }
+
+  private <T> void send(
+      Map<UUID, List<T>> changesByReceiver,
+      Function<List<T>, EncodedPacket> encoder
+  ) {
+    if (changesByReceiver.isEmpty()) {
+      return;
+    }
+
+    // the players of a group usually receive the same changes
+    Map<List<T>, EncodedPacket> packets = new HashMap<>();
+    for (Map.Entry<UUID, List<T>> entry : changesByReceiver.entrySet()) {
+      this.packetQueues.send(entry.getKey(), packets.computeIfAbsent(entry.getValue(), encoder));
+    }
+  }
+
+  private EncodedPacket mutePacket(List<VoiceChatMute> mutes) {
+    return EncodedPacket.encode(
+        this.addonProtocol,
+        VoiceChatIntegration.MUTE_PACKET_ID,
+        new VoiceChatMutePacket(mutes)
+    );
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "VoiceChatAudiences{" +
+        "players=" + this.groups.size() +
+        ", groups=" + this.members.size() +
+        ", mutes=" + this.receivers.size() +
+        '}';
+  }
+}
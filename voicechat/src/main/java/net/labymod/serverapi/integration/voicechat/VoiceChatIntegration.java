@@ -31,20 +31,56 @@ import net.labymod.serverapi.core.AbstractLabyModProtocolService;
 import net.labymod.serverapi.core.AddonProtocol;
 import net.labymod.serverapi.core.integration.LabyModIntegrationPlayer;
 import net.labymod.serverapi.core.integration.LabyModProtocolIntegration;
+import net.labymod.serverapi.integration.common.capability.ClientCapabilities;
+import net.labymod.serverapi.integration.common.metrics.Histogram;
+import net.labymod.serverapi.integration.common.metrics.IntegrationMetrics;
+import net.labymod.serverapi.integration.common.packet.EncodedPacket;
+import net.labymod.serverapi.integration.common.passthrough.PayloadPassthrough;
+import net.labymod.serverapi.integration.common.queue.OutboundPacketQueues;
+import net.labymod.serverapi.integration.common.queue.PacketPriority;
+import net.labymod.serverapi.integration.voicechat.audience.VoiceChatAudienceResolver;
 import net.labymod.serverapi.integration.voicechat.model.VoiceChatMute;
+import net.labymod.serverapi.integration.voicechat.packets.VoiceChatBulkUnmutePacket;
+import net.labymod.serverapi.integration.voicechat.packets.VoiceChatCapabilitiesPacket;
 import net.labymod.serverapi.integration.voicechat.packets.VoiceChatMutePacket;
 import net.labymod.serverapi.integration.voicechat.packets.VoiceChatOpenChannelsPacket;
 import net.labymod.serverapi.integration.voicechat.packets.VoiceChatUnmutePacket;
+import net.labymod.serverapi.integration.voicechat.store.VoiceChatMuteStore;
+import net.labymod.serverapi.integration.voicechat.sync.VoiceChatMuteSyncTransport;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
 
 @AutoService(LabyModProtocolIntegration.class)
 public class VoiceChatIntegration implements LabyModProtocolIntegration {
 
+  static final int MUTE_PACKET_ID = 0;
+  static final int UNMUTE_PACKET_ID = 1;
+  static final int OPEN_CHANNELS_PACKET_ID = 2;
+  static final int BULK_UNMUTE_PACKET_ID = 3;
+  static final int CAPABILITIES_PACKET_ID = 4;
+
+  static final IntegrationMetrics METRICS = IntegrationMetrics.of("voicechat");
+  private static final Histogram CREATE_PLAYER_TIME = METRICS.histogram("create_player.nanos");
+  private static final Histogram TICK_TIME = METRICS.histogram("tick.nanos");
+
+  private final VoiceChatMuteChangeQueue changeQueue = new VoiceChatMuteChangeQueue();
+  private final ClientCapabilities capabilities = new ClientCapabilities();
+
   private AddonProtocol addonProtocol;
   private AbstractLabyModProtocolService protocolService;
+  private OutboundPacketQueues packetQueues;
+  private VoiceChatMuteRegistry muteRegistry;
+  private VoiceChatMuteSync muteSync;
+  private PayloadPassthrough passthrough;
+  private volatile VoiceChatAudiences audiences;
 
   @Override
   public void initialize(AbstractLabyModProtocolService protocolService) {
@@ -55,32 +91,362 @@ public class VoiceChatIntegration implements LabyModProtocolIntegration {
     this.protocolService = protocolService;
 
     this.addonProtocol = new AddonProtocol(protocolService, "voicechat");
-    this.addonProtocol.registerPacket(0, VoiceChatMutePacket.class, Direction.CLIENTBOUND);
-    this.addonProtocol.registerPacket(1, VoiceChatUnmutePacket.class, Direction.CLIENTBOUND);
-    this.addonProtocol.registerPacket(2, VoiceChatOpenChannelsPacket.class, Direction.CLIENTBOUND);
+    this.addonProtocol.registerPacket(
+        MUTE_PACKET_ID,
+        VoiceChatMutePacket.class,
+        Direction.CLIENTBOUND
+    );
+    this.addonProtocol.registerPacket(
+        UNMUTE_PACKET_ID,
+        VoiceChatUnmutePacket.class,
+        Direction.CLIENTBOUND
+    );
+    this.addonProtocol.registerPacket(
+        OPEN_CHANNELS_PACKET_ID,
+        VoiceChatOpenChannelsPacket.class,
+        Direction.CLIENTBOUND
+    );
+    this.addonProtocol.registerPacket(
+        BULK_UNMUTE_PACKET_ID,
+        VoiceChatBulkUnmutePacket.class,
+        Direction.CLIENTBOUND
+    );
+    this.addonProtocol.registerPacket(
+        CAPABILITIES_PACKET_ID,
+        VoiceChatCapabilitiesPacket.class,
+        Direction.SERVERBOUND,
+        (sender, packet) -> this.capabilities.put(sender, packet.getCapabilities())
+    );
+
+    this.muteRegistry = new VoiceChatMuteRegistry(this.addonProtocol);
 
     protocolService.registry().registerProtocol(this.addonProtocol);
+
+    // mute changes are never delayed by bandwidth budgets
+    this.packetQueues = OutboundPacketQueues.of(protocolService);
+    this.packetQueues.registerPriority(VoiceChatMutePacket.class, PacketPriority.HIGH);
+    this.packetQueues.registerPriority(VoiceChatUnmutePacket.class, PacketPriority.HIGH);
+    this.packetQueues.registerPriority(VoiceChatBulkUnmutePacket.class, PacketPriority.HIGH);
+
+    this.passthrough = new PayloadPassthrough(protocolService, this.addonProtocol)
+        .register(MUTE_PACKET_ID, VoiceChatMutePacket.class)
+        .register(UNMUTE_PACKET_ID, VoiceChatUnmutePacket.class)
+        .register(OPEN_CHANNELS_PACKET_ID, VoiceChatOpenChannelsPacket.class);
   }
 
   @Override
   public LabyModIntegrationPlayer createIntegrationPlayer(AbstractLabyModPlayer<?> labyModPlayer) {
-    List<VoiceChatMute> mutes = new ArrayList<>();
-    for (AbstractLabyModPlayer<?> player : this.protocolService.getPlayers()) {
-      VoiceChatPlayer integrationPlayer = player.getIntegrationPlayer(VoiceChatPlayer.class);
-      if (integrationPlayer != null && integrationPlayer.isMuted()) {
-        mutes.add(integrationPlayer.getMute());
+    long start = CREATE_PLAYER_TIME.start();
+    VoiceChatAudiences audiences = this.audiences;
+    if (audiences == null) {
+      EncodedPacket snapshot = this.muteRegistry.snapshot(System.currentTimeMillis());
+      if (snapshot != null) {
+        this.packetQueues.send(labyModPlayer.getUniqueId(), snapshot);
       }
+    } else {
+      // only the mutes of the players the joining player can hear
+      audiences.join(labyModPlayer.getUniqueId());
     }
 
-    if (!mutes.isEmpty()) {
-      labyModPlayer.sendPacket(new VoiceChatMutePacket(mutes));
+    VoiceChatPlayer player = new VoiceChatPlayer(
+        this,
+        this.protocolService,
+        this.addonProtocol,
+        this.muteRegistry,
+        labyModPlayer.getUniqueId()
+    );
+    CREATE_PLAYER_TIME.recordSince(start);
+    return player;
+  }
+
+  /**
+   * Mutes all provided players. The mutes are applied immediately, but are only sent to the
+   * LabyMod players on the server with the next {@link #tick} or {@link #flushMuteChanges}, merged
+   * with all other mute changes since then.
+   *
+   * @param mutes the mutes to apply
+   */
+  public void muteAll(@NotNull Collection<VoiceChatMute> mutes) {
+    Objects.requireNonNull(mutes, "Mutes cannot be null");
+    VoiceChatMuteRegistry muteRegistry = this.muteRegistry();
+    for (VoiceChatMute mute : mutes) {
+      Objects.requireNonNull(mute, "Mute cannot be null");
+      muteRegistry.put(mute);
+      this.changeQueue.mute(mute);
+    }
+  }
+
+  /**
+   * Unmutes all provided players. The unmutes are applied immediately, but are only sent to the
+   * LabyMod players on the server with the next {@link #tick} or {@link #flushMuteChanges}, merged
+   * with all other mute changes since then.
+   *
+   * @param uniqueIds the unique ids of the players to unmute
+   */
+  public void unmuteAll(@NotNull Collection<UUID> uniqueIds) {
+    Objects.requireNonNull(uniqueIds, "Unique ids cannot be null");
+    VoiceChatMuteRegistry muteRegistry = this.muteRegistry();
+    for (UUID uniqueId : uniqueIds) {
+      Objects.requireNonNull(uniqueId, "Unique id cannot be null");
+      muteRegistry.remove(uniqueId);
+      this.changeQueue.unmute(uniqueId);
     }
+  }
 
-    return new VoiceChatPlayer(
+  /**
+   * Sets the store the mutes of the server are persisted in. All stored mutes that did not end yet
+   * are loaded into the {@link #muteRegistry() mute registry} and sent to the LabyMod players on
+   * the server with the next {@link #tick} or {@link #flushMuteChanges}. Afterwards every mute
+   * change is passed on to the store, so joining players never wait for the store. The previous
+   * store is flushed and closed, it stays in use if the new store could not be loaded.
+   *
+   * @param store the store, null to stop persisting the mutes
+   * @throws IOException if the stored mutes could not be loaded or the previous store could not
+   *                     be closed
+   */
+  public void setMuteStore(@Nullable VoiceChatMuteStore store) throws IOException {
+    long timestamp = System.currentTimeMillis();
+    for (VoiceChatMute mute : this.muteRegistry().load(store, timestamp)) {
+      this.changeQueue.mute(mute);
+    }
+  }
+
+  /**
+   * Sets the resolver deciding which players can hear each other. Mutes and unmutes, including the
+   * mutes sent to joining players, are then only sent to the players that can hear the muted
+   * player. Disabled by default, in which case all mutes are sent to all LabyMod players.
+   * <p>
+   * The group of a joining player is resolved once, {@link VoiceChatAudiences#update} has to be
+   * called whenever the group of a player might have changed afterwards.
+   *
+   * @param resolver the resolver, null to send all mutes to all players again
+   * @return the audiences of the players, null if the resolver is null
+   */
+  public @Nullable VoiceChatAudiences setAudienceResolver(
+      @Nullable VoiceChatAudienceResolver resolver
+  ) {
+    VoiceChatMuteRegistry muteRegistry = this.muteRegistry();
+    VoiceChatAudiences previous = this.audiences;
+    if (resolver == null) {
+      this.audiences = null;
+      if (previous != null) {
+        // the players only received the mutes of the players they could hear
+        EncodedPacket snapshot = muteRegistry.snapshot(System.currentTimeMillis());
+        if (snapshot != null) {
+          this.packetQueues.broadcast(snapshot);
+        }
+      }
+
+      return null;
+    }
+
+    List<UUID> players = new ArrayList<>();
+    for (AbstractLabyModPlayer<?> player : this.protocolService.getPlayers()) {
+      players.add(player.getUniqueId());
+    }
+
+    VoiceChatAudiences audiences = new VoiceChatAudiences(
         this.protocolService,
         this.addonProtocol,
-        labyModPlayer.getUniqueId()
+        this.packetQueues,
+        muteRegistry,
+        this.capabilities,
+        resolver
     );
+
+    if (previous == null) {
+      // all players on the server received all mutes so far
+      audiences.assumeReceived(players);
+    } else {
+      audiences.assumeReceived(previous);
+    }
+
+    this.audiences = audiences;
+    for (UUID uniqueId : players) {
+      audiences.update(uniqueId);
+    }
+
+    return audiences;
+  }
+
+  /**
+   * @return the audiences of the players, null if all mutes are sent to all players
+   */
+  public @Nullable VoiceChatAudiences audiences() {
+    return this.audiences;
+  }
+
+  /**
+   * Synchronizes the mutes of this server with all other servers of the network using the
+   * provided transport. Mute changes of this server are published with the next {@link #tick},
+   * changes of other servers are sent to the local LabyMod players with the next batched mute
+   * broadcast.
+   *
+   * @param transport the transport connecting the servers
+   * @param nodeId    the unique id of this server in the network
+   * @return the mute synchronization
+   */
+  public @NotNull VoiceChatMuteSync enableMuteSync(
+      @NotNull VoiceChatMuteSyncTransport transport,
+      @NotNull String nodeId
+  ) {
+    Objects.requireNonNull(transport, "Transport cannot be null");
+    Objects.requireNonNull(nodeId, "Node id cannot be null");
+    VoiceChatMuteRegistry muteRegistry = this.muteRegistry();
+    if (this.muteSync != null) {
+      throw new IllegalStateException("Mute synchronization is already enabled");
+    }
+
+    this.muteSync = new VoiceChatMuteSync(nodeId, transport, muteRegistry, this.changeQueue);
+    muteRegistry.setSync(this.muteSync);
+    return this.muteSync;
+  }
+
+  /**
+   * @return the mute synchronization, null if it is not enabled
+   */
+  public @Nullable VoiceChatMuteSync muteSync() {
+    return this.muteSync;
+  }
+
+  /**
+   * Removes all temporary mutes that ended and sends all pending mute changes to all LabyMod
+   * players on the server. If {@link #enableMuteSync mute synchronization} is enabled, the local
+   * mute changes are published to the other servers. Only the ended mutes are visited, so this
+   * method is intended to be called once per server tick.
+   */
+  public void tick() {
+    long start = TICK_TIME.start();
+    long timestamp = System.currentTimeMillis();
+    for (UUID uniqueId : this.muteRegistry().expire(timestamp)) {
+      this.changeQueue.unmute(uniqueId);
+    }
+
+    VoiceChatMuteSync muteSync = this.muteSync;
+    if (muteSync != null) {
+      muteSync.flush();
+    }
+
+    VoiceChatAudiences audiences = this.audiences;
+    if (audiences != null) {
+      audiences.prune(timestamp);
+    }
+
+    this.capabilities.prune(this.protocolService, timestamp);
+    this.flushMuteChanges();
+    TICK_TIME.recordSince(start);
+  }
+
+  /**
+   * Sends all pending mute changes to all LabyMod players on the server. All mutes are sent in a
+   * single {@link VoiceChatMutePacket} and all unmutes in a single
+   * {@link VoiceChatBulkUnmutePacket}, each encoded only once for all players. Players that did
+   * not {@link #isBulkUnmuteSupported announce support} for the bulk packet receive one
+   * {@link VoiceChatUnmutePacket} per unmuted player instead. If an
+   * {@link #setAudienceResolver audience resolver} is set, every player only receives the changes
+   * of the players it can hear.
+   */
+  public void flushMuteChanges() {
+    VoiceChatMuteChangeQueue.Changes changes = this.changeQueue.drain();
+    VoiceChatAudiences audiences = this.audiences;
+    if (audiences != null) {
+      audiences.send(changes.mutes(), changes.unmutes());
+      return;
+    }
+
+    OutboundPacketQueues packetQueues = this.packetQueues;
+    if (!changes.mutes().isEmpty()) {
+      packetQueues.broadcast(EncodedPacket.encode(
+          this.addonProtocol,
+          MUTE_PACKET_ID,
+          new VoiceChatMutePacket(changes.mutes())
+      ));
+    }
+
+    List<UUID> unmutes = changes.unmutes();
+    if (!unmutes.isEmpty()) {
+      VoiceChatUnmuteEncoder encoder = new VoiceChatUnmuteEncoder(
+          this.addonProtocol,
+          this.capabilities,
+          packetQueues
+      );
+      for (AbstractLabyModPlayer<?> player : this.protocolService.getPlayers()) {
+        encoder.send(player.getUniqueId(), unmutes);
+      }
+    }
+  }
+
+  void sendMute(VoiceChatMute mute) {
+    // a pending older change would otherwise overwrite this one with the next flush
+    this.changeQueue.discard(mute.getUniqueId());
+    VoiceChatAudiences audiences = this.audiences;
+    if (audiences != null) {
+      audiences.send(Collections.singletonList(mute), Collections.emptyList());
+      return;
+    }
+
+    this.packetQueues.broadcast(EncodedPacket.encode(
+        this.addonProtocol,
+        MUTE_PACKET_ID,
+        new VoiceChatMutePacket(mute)
+    ));
+  }
+
+  void sendUnmute(UUID uniqueId) {
+    this.changeQueue.discard(uniqueId);
+    VoiceChatAudiences audiences = this.audiences;
+    if (audiences != null) {
+      audiences.send(Collections.emptyList(), Collections.singletonList(uniqueId));
+      return;
+    }
+
+    this.packetQueues.broadcast(EncodedPacket.encode(
+        this.addonProtocol,
+        UNMUTE_PACKET_ID,
+        new VoiceChatUnmutePacket(uniqueId)
+    ));
+  }
+
+  /**
+   * @param uniqueId the unique id of the player
+   * @return whether the player announced support for the {@link VoiceChatBulkUnmutePacket}
+   */
+  public boolean isBulkUnmuteSupported(@NotNull UUID uniqueId) {
+    return this.capabilities.supports(uniqueId, VoiceChatCapabilitiesPacket.BULK_UNMUTE);
+  }
+
+  @NotNull OutboundPacketQueues packetQueues() {
+    if (this.packetQueues == null) {
+      throw new IllegalStateException("VoiceChatIntegration is not initialized");
+    }
+
+    return this.packetQueues;
+  }
+
+  /**
+   * @return the registry containing all voice chat mutes of the server
+   */
+  public @NotNull VoiceChatMuteRegistry muteRegistry() {
+    if (this.muteRegistry == null) {
+      throw new IllegalStateException("VoiceChatIntegration is not initialized");
+    }
+
+    return this.muteRegistry;
+  }
+
+  /**
+   * Returns the passthrough forwarding received mute, unmute and open channels payloads without
+   * decoding them, intended for proxies that pass the mutes of their backend servers on to the
+   * players. Forwarded mutes are not added to the {@link #muteRegistry() mute registry}.
+   *
+   * @return the voice chat passthrough
+   */
+  public @NotNull PayloadPassthrough passthrough() {
+    if (this.passthrough == null) {
+      throw new IllegalStateException("VoiceChatIntegration is not initialized");
+    }
+
+    return this.passthrough;
   }
 
   /**
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.voicechat;
+
+import net.labymod.serverapi.integration.voicechat.model.VoiceChatMute;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Collects mute changes until they are flushed. Only the latest change per player is kept, so
+ * muting and unmuting the same player before a flush results in a single unmute.
+ */
+final class VoiceChatMuteChangeQueue {
+
+  private Map<UUID, VoiceChatMute> changes = new LinkedHashMap<>();
+
+  synchronized void mute(@NotNull VoiceChatMute mute) {
+    this.changes.put(mute.getUniqueId(), mute);
+  }
+
+  synchronized void unmute(@NotNull UUID uniqueId) {
+    this.changes.put(uniqueId, null);
+  }
+
+  /**
+   * Removes the pending change of the provided player, as it is replaced by a newer change that is
+   * sent immediately.
+   *
+   * @param uniqueId the unique id of the player
+   */
+  synchronized void discard(@NotNull UUID uniqueId) {
+    this.changes.remove(uniqueId);
+  }
+
+  /**
+   * Removes all pending changes from the queue.
+   *
+   * @return the pending changes
+   */
+  @NotNull Changes drain() {
+    Map<UUID, VoiceChatMute> changes;
+    synchronized (this) {
+      if (this.changes.isEmpty()) {
+        return Changes.EMPTY;
+      }
+
+      changes = this.changes;
+      this.changes = new LinkedHashMap<>();
+    }
+
+    List<VoiceChatMute> mutes = new ArrayList<>();
+    List<UUID> unmutes = new ArrayList<>();
+    for (Map.Entry<UUID, VoiceChatMute> entry : changes.entrySet()) {
+      if (entry.getValue() == null) {
+        unmutes.add(entry.getKey());
+      } else {
+        mutes.add(entry.getValue());
+      }
+    }
+
+    return new Changes(mutes, unmutes);
+  }
+
+  static final class Changes {
+
+    private static final Changes EMPTY = new Changes(
+        Collections.emptyList(),
+        Collections.emptyList()
+    );
+
+    private final List<VoiceChatMute> mutes;
+    private final List<UUID> unmutes;
+
+    private Changes(List<VoiceChatMute> mutes, List<UUID> unmutes) {
+      this.mutes = mutes;
+      this.unmutes = unmutes;
+    }
+
+    @NotNull List<VoiceChatMute> mutes() {
+      return this.mutes;
+    }
+
+    @NotNull List<UUID> unmutes() {
+      return this.unmutes;
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.voicechat;
+
+import net.labymod.serverapi.integration.voicechat.model.VoiceChatMute;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Delay queue of all temporary mutes, ordered by their end. Permanent mutes are never added.
+ * Entries of mutes that were replaced or removed in the meantime are not removed from the queue,
+ * instead they are dropped once they are polled.
+ */
+final class VoiceChatMuteExpiryQueue {
+
+  private static final Comparator<VoiceChatMute> BY_END =
+      Comparator.comparingLong(VoiceChatMute::getEnd);
+
+  private final PriorityQueue<VoiceChatMute> queue = new PriorityQueue<>(BY_END);
+
+  synchronized void schedule(@NotNull VoiceChatMute mute) {
+    if (!mute.isPermanent()) {
+      this.queue.add(mute);
+    }
+  }
+
+  /**
+   * Removes all mutes that ended at the provided timestamp from the queue.
+   *
+   * @param timestamp the current timestamp
+   * @return the ended mutes, ordered by their end
+   */
+  synchronized @NotNull List<VoiceChatMute> poll(long timestamp) {
+    List<VoiceChatMute> expired = null;
+    VoiceChatMute next;
+    while ((next = this.queue.peek()) != null && next.isExpired(timestamp)) {
+      if (expired == null) {
+        expired = new ArrayList<>();
+      }
+
+      expired.add(this.queue.poll());
+    }
+
+    return expired == null ? Collections.emptyList() : expired;
+  }
+
+  synchronized int size() {
+    return this.queue.size();
+  }
+}
@@ -0,0 +1,307 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.voicechat;
+
+import net.labymod.serverapi.core.AddonProtocol;
+import net.labymod.serverapi.integration.common.packet.EncodedPacket;
+import net.labymod.serverapi.integration.voicechat.model.VoiceChatMute;
+import net.labymod.serverapi.integration.voicechat.packets.VoiceChatMutePacket;
+import net.labymod.serverapi.integration.voicechat.store.VoiceChatMuteStore;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-wide registry of all voice chat mutes, keyed by the unique id of the muted player. The
+ * registry is kept up to date by {@link VoiceChatPlayer#mute} and {@link VoiceChatPlayer#unmute}
+ * and is used to build the mute snapshot that is sent to joining players. If a
+ * {@link VoiceChatMuteStore} is set, all changes are passed on to the store.
+ */
+public class VoiceChatMuteRegistry {
+
+  private final Map<UUID, VoiceChatMute> mutes = new ConcurrentHashMap<>();
+  private final AtomicLong modifications = new AtomicLong();
+  private final VoiceChatMuteExpiryQueue expiryQueue = new VoiceChatMuteExpiryQueue();
+  private final AddonProtocol addonProtocol;
+
+  private volatile Snapshot snapshot;
+  private volatile VoiceChatMuteStore store;
+  private volatile VoiceChatMuteSync sync;
+
+  protected VoiceChatMuteRegistry(@NotNull AddonProtocol addonProtocol) {
+    this.addonProtocol = addonProtocol;
+  }
+
+  /**
+   * Temporary mutes that ended are not returned, even if they were not removed by
+   * {@link VoiceChatIntegration#tick} yet.
+   *
+   * @param uniqueId the unique id of the player
+   * @return the mute of the player, null if the player is not muted
+   */
+  public @Nullable VoiceChatMute getMute(@NotNull UUID uniqueId) {
+    VoiceChatMute mute = this.mutes.get(uniqueId);
+    return mute == null || mute.isExpired(System.currentTimeMillis()) ? null : mute;
+  }
+
+  /**
+   * Temporary mutes that ended do not count, even if they were not removed by
+   * {@link VoiceChatIntegration#tick} yet.
+   *
+   * @param uniqueId the unique id of the player
+   * @return whether the player is muted or not
+   */
+  public boolean isMuted(@NotNull UUID uniqueId) {
+    return this.getMute(uniqueId) != null;
+  }
+
+  /**
+   * The view contains temporary mutes that ended until they are removed by
+   * {@link VoiceChatIntegration#tick}, use {@link VoiceChatMute#isExpired} to skip them.
+   *
+   * @return an unmodifiable view of all registered mutes
+   */
+  public @NotNull Collection<VoiceChatMute> getMutes() {
+    return Collections.unmodifiableCollection(this.mutes.values());
+  }
+
+  /**
+   * @return the amount of registered mutes
+   */
+  public int size() {
+    return this.mutes.size();
+  }
+
+  void put(@NotNull VoiceChatMute mute) {
+    Objects.requireNonNull(mute, "Mute cannot be null");
+    VoiceChatMuteSync sync = this.sync;
+    if (sync != null) {
+      // applied by the sync, ordered with the changes received from other nodes
+      sync.recordMute(mute);
+    } else {
+      this.putInternal(mute);
+    }
+  }
+
+  @Nullable VoiceChatMute remove(@NotNull UUID uniqueId) {
+    VoiceChatMuteSync sync = this.sync;
+    return sync != null ? sync.recordUnmute(uniqueId) : this.removeInternal(uniqueId);
+  }
+
+  /**
+   * Applies a mute change without publishing it, called by the {@link VoiceChatMuteSync} while it
+   * holds its lock.
+   *
+   * @param uniqueId the unique id of the player
+   * @param mute     the new mute of the player, null to unmute the player
+   * @return the removed mute if the player was unmuted, otherwise null
+   */
+  @Nullable VoiceChatMute apply(@NotNull UUID uniqueId, @Nullable VoiceChatMute mute) {
+    if (mute == null) {
+      return this.removeInternal(uniqueId);
+    }
+
+    this.putInternal(mute);
+    return null;
+  }
+
+  void setSync(@Nullable VoiceChatMuteSync sync) {
+    this.sync = sync;
+  }
+
+  private void putInternal(VoiceChatMute mute) {
+    this.mutes.put(mute.getUniqueId(), mute);
+    this.modifications.incrementAndGet();
+    this.expiryQueue.schedule(mute);
+
+    VoiceChatMuteStore store = this.store;
+    if (store != null) {
+      store.save(mute);
+    }
+  }
+
+  private @Nullable VoiceChatMute removeInternal(UUID uniqueId) {
+    VoiceChatMute removed = this.mutes.remove(uniqueId);
+    if (removed != null) {
+      this.modifications.incrementAndGet();
+      VoiceChatMuteStore store = this.store;
+      if (store != null) {
+        store.delete(uniqueId);
+      }
+    }
+
+    return removed;
+  }
+
+  /**
+   * Sets the store the mutes are persisted in and adds all stored mutes that did not end yet.
+   * Stored mutes replace registered mutes of the same player. The previous store is flushed and
+   * closed once the new store was loaded, it is kept if loading fails.
+   *
+   * @param store     the store, null to stop persisting the mutes
+   * @param timestamp the current timestamp
+   * @return the loaded mutes
+   * @throws IOException if the stored mutes could not be loaded or the previous store could not
+   *                     be closed
+   */
+  @NotNull List<VoiceChatMute> load(
+      @Nullable VoiceChatMuteStore store,
+      long timestamp
+  ) throws IOException {
+    VoiceChatMuteStore previous = this.store;
+    List<VoiceChatMute> loaded = new ArrayList<>();
+    if (store != null) {
+      for (VoiceChatMute mute : store.load()) {
+        if (mute.isExpired(timestamp)) {
+          store.delete(mute.getUniqueId());
+          continue;
+        }
+
+        this.mutes.put(mute.getUniqueId(), mute);
+        this.expiryQueue.schedule(mute);
+        loaded.add(mute);
+      }
+
+      if (!loaded.isEmpty()) {
+        this.modifications.incrementAndGet();
+      }
+    }
+
+    this.store = store;
+    if (previous != null && previous != store) {
+      // close() writes the pending changes of the previous store
+      previous.close();
+    }
+
+    return loaded;
+  }
+
+  /**
+   * @return the store the mutes are persisted in, null if the mutes are not persisted
+   */
+  public @Nullable VoiceChatMuteStore getStore() {
+    return this.store;
+  }
+
+  /**
+   * Removes all temporary mutes that ended at the provided timestamp. Only the mutes that ended
+   * are visited, mutes that were replaced or removed in the meantime are skipped.
+   *
+   * @param timestamp the current timestamp
+   * @return the unique ids of the players whose mute was removed
+   */
+  @NotNull List<UUID> expire(long timestamp) {
+    List<VoiceChatMute> expired = this.expiryQueue.poll(timestamp);
+    if (expired.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    List<UUID> uniqueIds = new ArrayList<>(expired.size());
+    for (VoiceChatMute mute : expired) {
+      if (this.mutes.remove(mute.getUniqueId(), mute)) {
+        uniqueIds.add(mute.getUniqueId());
+      }
+    }
+
+    if (!uniqueIds.isEmpty()) {
+      this.modifications.incrementAndGet();
+      VoiceChatMuteStore store = this.store;
+      if (store != null) {
+        for (UUID uniqueId : uniqueIds) {
+          store.delete(uniqueId);
+        }
+      }
+    }
+
+    return uniqueIds;
+  }
+
+  /**
+   * Returns the encoded {@link VoiceChatMutePacket} containing all registered mutes that did not
+   * end yet. The payload is cached and only rebuilt after the registered mutes changed or one of
+   * the contained mutes ended.
+   *
+   * @param timestamp the current timestamp
+   * @return the encoded snapshot, null if no player is muted
+   */
+  @Nullable EncodedPacket snapshot(long timestamp) {
+    long modifications = this.modifications.get();
+    Snapshot snapshot = this.snapshot;
+    if (snapshot != null && snapshot.modifications == modifications
+        && snapshot.validUntil > timestamp) {
+      return snapshot.packet;
+    }
+
+    List<VoiceChatMute> mutes = new ArrayList<>(this.mutes.size());
+    long validUntil = Long.MAX_VALUE;
+    for (VoiceChatMute mute : this.mutes.values()) {
+      if (mute.isPermanent()) {
+        mutes.add(mute);
+      } else if (!mute.isExpired(timestamp)) {
+        mutes.add(mute);
+        validUntil = Math.min(validUntil, mute.getEnd());
+      }
+    }
+
+    EncodedPacket packet = mutes.isEmpty() ? null : EncodedPacket.encode(
+        this.addonProtocol,
+        VoiceChatIntegration.MUTE_PACKET_ID,
+        new VoiceChatMutePacket(mutes)
+    );
+
+    this.snapshot = new Snapshot(modifications, validUntil, packet);
+    return packet;
+  }
+
+  @Override
+  public String toString() {
+    return "VoiceChatMuteRegistry{" +
+        "mutes=" + this.mutes.size() +
+        '}';
+  }
+
+  private static final class Snapshot {
+
+    private final long modifications;
+    private final long validUntil;
+    private final EncodedPacket packet;
+
+    private Snapshot(long modifications, long validUntil, EncodedPacket packet) {
+      this.modifications = modifications;
+      this.validUntil = validUntil;
+      this.packet = packet;
+    }
+  }
+}
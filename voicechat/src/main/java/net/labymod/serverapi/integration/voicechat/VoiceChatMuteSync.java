@@ -0,0 +1,238 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.voicechat;
+
+import net.labymod.serverapi.integration.voicechat.model.VoiceChatMute;
+import net.labymod.serverapi.integration.voicechat.sync.VoiceChatMuteDelta;
+import net.labymod.serverapi.integration.voicechat.sync.VoiceChatMuteSyncMessage;
+import net.labymod.serverapi.integration.voicechat.sync.VoiceChatMuteSyncTransport;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Synchronizes the mutes of this node with all other nodes of a network, see
+ * {@link VoiceChatIntegration#enableMuteSync}.
+ * <p>
+ * Local mute changes are collected and published as a single message with the next
+ * {@link VoiceChatIntegration#tick}. Changes of other nodes are applied to the
+ * {@link VoiceChatMuteRegistry} and sent to the local players with the next batched mute
+ * broadcast. Conflicting changes of the same player are resolved as described in
+ * {@link VoiceChatMuteDelta}.
+ * <p>
+ * Versions are taken from a hybrid clock: the current time in milliseconds, but always greater
+ * than every version this node created or received before.
+ */
+public final class VoiceChatMuteSync {
+
+  // unmutes and expired mutes are remembered this long to reject older changes that arrive late
+  private static final long TOMBSTONE_RETENTION_MILLIS = 10 * 60 * 1000L;
+
+  private final String nodeId;
+  private final VoiceChatMuteSyncTransport transport;
+  private final VoiceChatMuteRegistry muteRegistry;
+  private final VoiceChatMuteChangeQueue changeQueue;
+
+  // guarded by this
+  private final Map<UUID, VoiceChatMuteDelta> latest = new HashMap<>();
+  private Map<UUID, VoiceChatMuteDelta> outgoing = new LinkedHashMap<>();
+  private long clock;
+
+  private final LongAdder publishedMessages = new LongAdder();
+  private final LongAdder publishedDeltas = new LongAdder();
+  private final LongAdder appliedDeltas = new LongAdder();
+  private final LongAdder rejectedDeltas = new LongAdder();
+
+  VoiceChatMuteSync(
+      String nodeId,
+      VoiceChatMuteSyncTransport transport,
+      VoiceChatMuteRegistry muteRegistry,
+      VoiceChatMuteChangeQueue changeQueue
+  ) {
+    this.nodeId = nodeId;
+    this.transport = transport;
+    this.muteRegistry = muteRegistry;
+    this.changeQueue = changeQueue;
+    transport.subscribe(this::receive);
+  }
+
+  synchronized void recordMute(@NotNull VoiceChatMute mute) {
+    this.muteRegistry.apply(mute.getUniqueId(), mute);
+    this.record(VoiceChatMuteDelta.mute(mute, this.nextVersion(), this.nodeId));
+  }
+
+  synchronized @Nullable VoiceChatMute recordUnmute(@NotNull UUID uniqueId) {
+    VoiceChatMute removed = this.muteRegistry.apply(uniqueId, null);
+    if (removed != null) {
+      this.record(VoiceChatMuteDelta.unmute(uniqueId, this.nextVersion(), this.nodeId));
+    }
+
+    return removed;
+  }
+
+  /**
+   * Publishes all local mute changes since the last flush as a single message.
+   *
+   * @return the amount of published changes
+   */
+  public int flush() {
+    Map<UUID, VoiceChatMuteDelta> outgoing;
+    synchronized (this) {
+      this.prune();
+      if (this.outgoing.isEmpty()) {
+        return 0;
+      }
+
+      outgoing = this.outgoing;
+      this.outgoing = new LinkedHashMap<>();
+    }
+
+    this.transport.publish(new VoiceChatMuteSyncMessage(
+        this.nodeId,
+        new ArrayList<>(outgoing.values())
+    ));
+    this.publishedMessages.increment();
+    this.publishedDeltas.add(outgoing.size());
+    return outgoing.size();
+  }
+
+  /**
+   * @return the id of this node
+   */
+  public @NotNull String getNodeId() {
+    return this.nodeId;
+  }
+
+  /**
+   * @return the amount of published messages
+   */
+  public long getPublishedMessageCount() {
+    return this.publishedMessages.sum();
+  }
+
+  /**
+   * @return the amount of published changes
+   */
+  public long getPublishedDeltaCount() {
+    return this.publishedDeltas.sum();
+  }
+
+  /**
+   * @return the amount of changes of other nodes that were applied
+   */
+  public long getAppliedDeltaCount() {
+    return this.appliedDeltas.sum();
+  }
+
+  /**
+   * @return the amount of changes of other nodes that lost against a newer change
+   */
+  public long getRejectedDeltaCount() {
+    return this.rejectedDeltas.sum();
+  }
+
+  private void receive(VoiceChatMuteSyncMessage message) {
+    if (message.getOrigin().equals(this.nodeId)) {
+      return;
+    }
+
+    int accepted = 0;
+    synchronized (this) {
+      for (VoiceChatMuteDelta delta : message.getDeltas()) {
+        this.clock = Math.max(this.clock, delta.getVersion());
+        VoiceChatMuteDelta current = this.latest.get(delta.getUniqueId());
+        if (current != null && !delta.isNewerThan(current)) {
+          this.rejectedDeltas.increment();
+          continue;
+        }
+
+        this.latest.put(delta.getUniqueId(), delta);
+        // a pending local change lost against the received one
+        this.outgoing.remove(delta.getUniqueId());
+
+        // applied while holding the lock, otherwise an older change could overwrite it
+        VoiceChatMute mute = delta.getMute();
+        this.muteRegistry.apply(delta.getUniqueId(), mute);
+        if (mute == null) {
+          this.changeQueue.unmute(delta.getUniqueId());
+        } else {
+          this.changeQueue.mute(mute);
+        }
+
+        accepted++;
+      }
+    }
+
+    this.appliedDeltas.add(accepted);
+  }
+
+  private void record(VoiceChatMuteDelta delta) {
+    this.latest.put(delta.getUniqueId(), delta);
+    this.outgoing.put(delta.getUniqueId(), delta);
+  }
+
+  private long nextVersion() {
+    this.clock = Math.max(this.clock + 1, System.currentTimeMillis());
+    return this.clock;
+  }
+
+  /**
+   * Forgets unmutes and expired mutes that are older than the retention, a late change of the
+   * player would not change anything anymore.
+   */
+  private void prune() {
+    long timestamp = System.currentTimeMillis();
+    long threshold = timestamp - TOMBSTONE_RETENTION_MILLIS;
+    Iterator<VoiceChatMuteDelta> iterator = this.latest.values().iterator();
+    while (iterator.hasNext()) {
+      VoiceChatMuteDelta delta = iterator.next();
+      if (delta.getVersion() >= threshold) {
+        continue;
+      }
+
+      VoiceChatMute mute = delta.getMute();
+      if (mute == null || mute.isExpired(timestamp)) {
+        iterator.remove();
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "VoiceChatMuteSync{" +
+        "nodeId='" + this.nodeId + '\'' +
+        ", publishedMessages=" + this.publishedMessages +
+        ", appliedDeltas=" + this.appliedDeltas +
+        ", rejectedDeltas=" + this.rejectedDeltas +
+        '}';
+  }
+}
@@ -24,14 +24,12 @@
 
 package net.labymod.serverapi.integration.voicechat;
 
-import net.labymod.serverapi.core.AbstractLabyModPlayer;
 import net.labymod.serverapi.core.AbstractLabyModProtocolService;
 import net.labymod.serverapi.core.AddonProtocol;
 import net.labymod.serverapi.core.integration.LabyModIntegrationPlayer;
+import net.labymod.serverapi.integration.common.metrics.Counter;
 import net.labymod.serverapi.integration.voicechat.model.VoiceChatMute;
-import net.labymod.serverapi.integration.voicechat.packets.VoiceChatMutePacket;
 import net.labymod.serverapi.integration.voicechat.packets.VoiceChatOpenChannelsPacket;
-import net.labymod.serverapi.integration.voicechat.packets.VoiceChatUnmutePacket;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -40,72 +38,81 @@ import java.util.UUID;
 
 public class VoiceChatPlayer implements LabyModIntegrationPlayer {
 
+  private static final Counter MUTES = VoiceChatIntegration.METRICS.counter("mutes");
+  private static final Counter UNMUTES = VoiceChatIntegration.METRICS.counter("unmutes");
+
+  private final VoiceChatIntegration integration;
   private final AbstractLabyModProtocolService protocolService;
   private final AddonProtocol addonProtocol;
+  private final VoiceChatMuteRegistry muteRegistry;
   private final UUID uniqueId;
-  private VoiceChatMute mute;
 
   protected VoiceChatPlayer(
+      VoiceChatIntegration integration,
       AbstractLabyModProtocolService protocolService,
       AddonProtocol addonProtocol,
+      VoiceChatMuteRegistry muteRegistry,
       UUID uniqueId
   ) {
+    this.integration = integration;
     this.protocolService = protocolService;
     this.addonProtocol = addonProtocol;
+    this.muteRegistry = muteRegistry;
     this.uniqueId = uniqueId;
   }
 
   /**
    * Mutes the current player with the provided mute, also sends to mute packet to all other
-   * LabyMod players on the server. As long as not unmuted via {@link #unmute} this mute will also
-   * be sent to new LabyMod players joining the server
+   * LabyMod players on the server that can hear the player, see
+   * {@link VoiceChatIntegration#setAudienceResolver}. As long as not unmuted via {@link #unmute}
+   * this mute will also be sent to new LabyMod players joining the server
    *
    * @param mute the mute to apply
    */
   public void mute(@NotNull VoiceChatMute mute) {
     Objects.requireNonNull(mute, "Mute can not be null. Use VoiceChatPlayer#unmute to unmute");
-    this.mute = mute;
-    for (AbstractLabyModPlayer<?> player : this.protocolService.getPlayers()) {
-      player.sendPacket(new VoiceChatMutePacket(mute));
-    }
+    this.muteRegistry.put(mute);
+    MUTES.increment();
+    this.integration.sendMute(mute);
   }
 
   /**
    * Unmutes the current player, also sends the unmute packet to all other LabyMod players on the
-   * server
+   * server that received the mute
    */
   public void unmute() {
-    this.mute = null;
-    for (AbstractLabyModPlayer<?> player : this.protocolService.getPlayers()) {
-      player.sendPacket(new VoiceChatUnmutePacket(this.uniqueId));
-    }
+    this.muteRegistry.remove(this.uniqueId);
+    UNMUTES.increment();
+    this.integration.sendUnmute(this.uniqueId);
   }
 
   /**
    * Opens the voice chat channels screen for the current player
    */
   public void openVoiceChatChannels() {
-    this.addonProtocol.sendPacket(this.uniqueId, new VoiceChatOpenChannelsPacket());
+    this.integration.packetQueues()
+        .queue(this.uniqueId)
+        .enqueue(this.addonProtocol, new VoiceChatOpenChannelsPacket());
   }
 
   /**
    * @return the mute of the player, null if the player is not muted (server-side)
    */
   public @Nullable VoiceChatMute getMute() {
-    return this.mute;
+    return this.muteRegistry.getMute(this.uniqueId);
   }
 
   /**
    * @return whether the player is muted or not
    */
   public boolean isMuted() {
-    return this.mute != null;
+    return this.muteRegistry.isMuted(this.uniqueId);
   }
 
   @Override
   public String toString() {
     return "VoiceChatPlayer{" +
-        "mute=" + this.mute +
+        "mute=" + this.getMute() +
         ", uniqueId=" + this.uniqueId +
         '}';
   }
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.voicechat;
+
+import net.labymod.serverapi.core.AddonProtocol;
+import net.labymod.serverapi.integration.common.capability.ClientCapabilities;
+import net.labymod.serverapi.integration.common.packet.EncodedPacket;
+import net.labymod.serverapi.integration.common.queue.OutboundPacketQueues;
+import net.labymod.serverapi.integration.voicechat.packets.VoiceChatBulkUnmutePacket;
+import net.labymod.serverapi.integration.voicechat.packets.VoiceChatCapabilitiesPacket;
+import net.labymod.serverapi.integration.voicechat.packets.VoiceChatUnmutePacket;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sends unmutes as a single {@link VoiceChatBulkUnmutePacket} to the clients that announced
+ * support for it and as one {@link VoiceChatUnmutePacket} per unmuted player to all other
+ * clients. Every packet is encoded only once for all recipients of a batch.
+ */
+final class VoiceChatUnmuteEncoder {
+
+  private final AddonProtocol addonProtocol;
+  private final ClientCapabilities capabilities;
+  private final OutboundPacketQueues packetQueues;
+
+  private final Map<UUID, EncodedPacket> unmutePackets = new HashMap<>();
+  private final Map<List<UUID>, EncodedPacket> bulkUnmutePackets = new HashMap<>();
+  private List<UUID> lastUnmutes;
+  private EncodedPacket lastBulkUnmutePacket;
+
+  VoiceChatUnmuteEncoder(
+      AddonProtocol addonProtocol,
+      ClientCapabilities capabilities,
+      OutboundPacketQueues packetQueues
+  ) {
+    this.addonProtocol = addonProtocol;
+    this.capabilities = capabilities;
+    this.packetQueues = packetQueues;
+  }
+
+  /**
+   * Sends the provided unmutes to the provided recipient.
+   *
+   * @param recipient the unique id of the recipient
+   * @param unmutes   the unique ids of the unmuted players
+   */
+  void send(UUID recipient, List<UUID> unmutes) {
+    if (unmutes.size() > 1
+        && this.capabilities.supports(recipient, VoiceChatCapabilitiesPacket.BULK_UNMUTE)) {
+      this.packetQueues.send(recipient, this.bulkUnmutePacket(unmutes));
+      return;
+    }
+
+    for (UUID uniqueId : unmutes) {
+      this.packetQueues.send(
+          recipient,
+          this.unmutePackets.computeIfAbsent(uniqueId, this::unmutePacket)
+      );
+    }
+  }
+
+  private EncodedPacket bulkUnmutePacket(List<UUID> unmutes) {
+    // broadcasts pass the same list for every recipient
+    if (unmutes != this.lastUnmutes) {
+      this.lastBulkUnmutePacket = this.bulkUnmutePackets.computeIfAbsent(
+          unmutes,
+          key -> EncodedPacket.encode(
+              this.addonProtocol,
+              VoiceChatIntegration.BULK_UNMUTE_PACKET_ID,
+              new VoiceChatBulkUnmutePacket(key)
+          )
+      );
+      this.lastUnmutes = unmutes;
+    }
+
+    return this.lastBulkUnmutePacket;
+  }
+
+  private EncodedPacket unmutePacket(UUID uniqueId) {
+    return EncodedPacket.encode(
+        this.addonProtocol,
+        VoiceChatIntegration.UNMUTE_PACKET_ID,
+        new VoiceChatUnmutePacket(uniqueId)
+    );
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.voicechat.audience;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Resolves which players can hear each other, so mutes are only sent to the players that can hear
+ * the muted player. Players are split into groups, for example by world or game instance, and only
+ * hear the players of their own group.
+ */
+public interface VoiceChatAudienceResolver {
+
+  /**
+   * Resolves the group of the provided player. The result is cached until the group of the player
+   * is updated, so the group has to be comparable with {@link Object#equals}.
+   *
+   * @param uniqueId the unique id of the player
+   * @return the group of the player, for example the name of the world or the id of the game
+   * instance, null if the player can neither hear nor be heard by anyone
+   */
+  @Nullable Object resolveGroup(@NotNull UUID uniqueId);
+
+  /**
+   * Decides whether a player can hear another player of the same group. Always {@code true} by
+   * default.
+   *
+   * @param listener the unique id of the listening player
+   * @param speaker  the unique id of the speaking player
+   * @return whether the listener can hear the speaker
+   */
+  default boolean canHear(@NotNull UUID listener, @NotNull UUID speaker) {
+    return true;
+  }
+
+  /**
+   * @param groupResolver the function resolving the group of a player, see
+   *                      {@link #resolveGroup(UUID)}
+   * @return a resolver in which all players of the same group can hear each other
+   */
+  static @NotNull VoiceChatAudienceResolver byGroup(
+      @NotNull Function<UUID, ?> groupResolver
+  ) {
+    Objects.requireNonNull(groupResolver, "Group resolver cannot be null");
+    return groupResolver::apply;
+  }
+
+  /**
+   * @param groupResolver the function resolving the group of a player, see
+   *                      {@link #resolveGroup(UUID)}
+   * @param canHear       the predicate deciding whether the first player can hear the second
+   *                      player of the same group
+   * @return a resolver in which the players of the same group can hear each other if the
+   * predicate matches
+   */
+  static @NotNull VoiceChatAudienceResolver byGroup(
+      @NotNull Function<UUID, ?> groupResolver,
+      @NotNull BiPredicate<UUID, UUID> canHear
+  ) {
+    Objects.requireNonNull(groupResolver, "Group resolver cannot be null");
+    Objects.requireNonNull(canHear, "Predicate cannot be null");
+    return new VoiceChatAudienceResolver() {
+      @Override
+      public @Nullable Object resolveGroup(@NotNull UUID uniqueId) {
+        return groupResolver.apply(uniqueId);
+      }
+
+      @Override
+      public boolean canHear(@NotNull UUID listener, @NotNull UUID speaker) {
+        return canHear.test(listener, speaker);
+      }
+    };
+  }
+}
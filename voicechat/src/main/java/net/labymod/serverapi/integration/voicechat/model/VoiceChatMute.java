@@ -93,6 +93,14 @@ public class VoiceChatMute {
     return this.end == 0;
   }
 
+  /**
+   * @param timestamp the timestamp to check against
+   * @return whether the mute is temporary and has ended at the provided timestamp
+   */
+  public boolean isExpired(long timestamp) {
+    return !this.isPermanent() && this.end <= timestamp;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
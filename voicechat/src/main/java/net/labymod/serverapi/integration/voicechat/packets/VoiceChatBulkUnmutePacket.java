@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.voicechat.packets;
+
+import net.labymod.serverapi.api.packet.Packet;
+import net.labymod.serverapi.api.payload.io.PayloadReader;
+import net.labymod.serverapi.api.payload.io.PayloadWriter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Unmutes multiple users at once. Only sent to clients that announced
+ * {@link VoiceChatCapabilitiesPacket#BULK_UNMUTE}.
+ */
+public class VoiceChatBulkUnmutePacket implements Packet {
+
+  private List<UUID> uniqueIds;
+
+  /**
+   * Creates a new unmute packet for multiple users
+   *
+   * @param uniqueIds the unique ids of the users to unmute
+   */
+  public VoiceChatBulkUnmutePacket(@NotNull List<UUID> uniqueIds) {
+    Objects.requireNonNull(uniqueIds, "Unique ids cannot be null");
+    this.uniqueIds = uniqueIds;
+  }
+
+  /**
+   * Creates a new unmute packet for multiple users
+   *
+   * @param uniqueIds the unique ids of the users to unmute
+   */
+  public VoiceChatBulkUnmutePacket(@NotNull UUID... uniqueIds) {
+    Objects.requireNonNull(uniqueIds, "Unique ids cannot be null");
+    this.uniqueIds = Collections.unmodifiableList(Arrays.asList(uniqueIds));
+  }
+
+  @Override
+  public void read(@NotNull PayloadReader reader) {
+    this.uniqueIds = reader.readList(reader::readUUID);
+  }
+
+  @Override
+  public void write(@NotNull PayloadWriter writer) {
+    writer.writeCollection(this.uniqueIds, writer::writeUUID);
+  }
+
+  public @NotNull List<UUID> getUniqueIds() {
+    return this.uniqueIds;
+  }
+
+  @Override
+  public String toString() {
+    return "VoiceChatBulkUnmutePacket{" +
+        "uniqueIds=" + this.uniqueIds +
+        '}';
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.voicechat.packets;
+
+import net.labymod.serverapi.api.packet.Packet;
+import net.labymod.serverapi.api.payload.io.PayloadReader;
+import net.labymod.serverapi.api.payload.io.PayloadWriter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Sent by the client to announce which optional voice chat packets it supports.
+ */
+public class VoiceChatCapabilitiesPacket implements Packet {
+
+  /**
+   * The client is able to read the {@link VoiceChatBulkUnmutePacket}.
+   */
+  public static final int BULK_UNMUTE = 1;
+
+  private int capabilities;
+
+  public VoiceChatCapabilitiesPacket(int capabilities) {
+    this.capabilities = capabilities;
+  }
+
+  @Override
+  public void read(@NotNull PayloadReader reader) {
+    this.capabilities = reader.readVarInt();
+  }
+
+  @Override
+  public void write(@NotNull PayloadWriter writer) {
+    writer.writeVarInt(this.capabilities);
+  }
+
+  public int getCapabilities() {
+    return this.capabilities;
+  }
+
+  /**
+   * @param capability the capability to check
+   * @return whether the client supports the provided capability
+   */
+  public boolean supports(int capability) {
+    return (this.capabilities & capability) == capability;
+  }
+
+  @Override
+  public String toString() {
+    return "VoiceChatCapabilitiesPacket{" +
+        "capabilities=" + this.capabilities +
+        '}';
+  }
+}
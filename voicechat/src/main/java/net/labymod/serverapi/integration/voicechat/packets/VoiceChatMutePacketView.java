@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.voicechat.packets;
+
+import net.labymod.serverapi.integration.common.payload.LazyPayloadList;
+import net.labymod.serverapi.integration.common.payload.PayloadCursor;
+import net.labymod.serverapi.integration.voicechat.model.VoiceChatMute;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+/**
+ * A lazily decoded view of the payload of a {@link VoiceChatMutePacket}, intended for proxies
+ * that count, filter or forward mute packets. The mutes are only decoded when they are accessed
+ * and the muted player and end of a mute can be read without decoding the reason.
+ */
+public final class VoiceChatMutePacketView extends LazyPayloadList<VoiceChatMute> {
+
+  private VoiceChatMutePacketView(byte[] data, int offset, int length) {
+    super(VoiceChatMutePacket.class, data, offset, length);
+  }
+
+  /**
+   * @param data the payload of a mute packet, without the packet id
+   * @return a view of the payload
+   */
+  public static @NotNull VoiceChatMutePacketView wrap(@NotNull byte[] data) {
+    return wrap(data, 0, data.length);
+  }
+
+  /**
+   * @param data   the array containing the payload of a mute packet
+   * @param offset the index of the first byte of the payload, after the packet id
+   * @param length the length of the payload
+   * @return a view of the payload
+   */
+  public static @NotNull VoiceChatMutePacketView wrap(
+      @NotNull byte[] data,
+      int offset,
+      int length
+  ) {
+    return new VoiceChatMutePacketView(data, offset, length);
+  }
+
+  /**
+   * @param index the index of the mute
+   * @return the unique id of the muted player
+   */
+  public @NotNull UUID getUniqueId(int index) {
+    return this.cursor(index).readUUID();
+  }
+
+  /**
+   * @param index the index of the mute
+   * @return the end of the mute, 0 if the mute is permanent
+   */
+  public long getEnd(int index) {
+    PayloadCursor cursor = this.cursor(index);
+    cursor.skip(2 * Long.BYTES);
+    cursor.skipOptionalString();
+    return cursor.readBoolean() ? cursor.readLong() : 0;
+  }
+
+  /**
+   * @return a packet containing all decoded mutes
+   */
+  public @NotNull VoiceChatMutePacket toPacket() {
+    return new VoiceChatMutePacket(new ArrayList<>(this));
+  }
+
+  @Override
+  protected void skip(@NotNull PayloadCursor cursor) {
+    cursor.skip(2 * Long.BYTES);
+    cursor.skipOptionalString();
+    if (cursor.readBoolean()) {
+      cursor.skip(Long.BYTES);
+    }
+  }
+
+  @Override
+  protected @NotNull VoiceChatMute decode(@NotNull PayloadCursor cursor) {
+    UUID uniqueId = cursor.readUUID();
+    String reason = cursor.readOptionalString();
+    return VoiceChatMute.create(uniqueId, reason, cursor.readBoolean() ? cursor.readLong() : 0);
+  }
+}
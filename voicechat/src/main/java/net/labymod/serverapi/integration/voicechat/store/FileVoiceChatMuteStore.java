@@ -0,0 +1,504 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.voicechat.store;
+
+import net.labymod.serverapi.integration.voicechat.model.VoiceChatMute;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link VoiceChatMuteStore} keeping all mutes in two files of a directory: a compacted
+ * snapshot of all mutes and an append-only log of the changes since the snapshot was written.
+ * <p>
+ * Changes are collected in memory and appended to the log in batches by a background thread
+ * (write-behind), several changes of the same player between two writes only result in a single
+ * log entry. Once the log contains more entries than the snapshot, both are compacted into a new
+ * snapshot. Expired mutes are dropped when compacting. Changes passed to a closed store are
+ * rejected with an {@link IllegalStateException}.
+ */
+public final class FileVoiceChatMuteStore implements VoiceChatMuteStore {
+
+  /**
+   * The default delay between two writes of the pending changes.
+   */
+  public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000L;
+
+  private static final String SNAPSHOT_FILE = "mutes.snapshot";
+  private static final String LOG_FILE = "mutes.log";
+
+  private static final int SNAPSHOT_MAGIC = 0x564D5331; // VMS1
+  private static final byte ENTRY_SAVE = 1;
+  private static final byte ENTRY_DELETE = 2;
+
+  // compaction is not worth it for tiny logs
+  private static final int MIN_COMPACTION_ENTRIES = 1024;
+
+  private final Path snapshotPath;
+  private final Path logPath;
+  private final ScheduledExecutorService executor;
+
+  // null values are deletions, guarded by itself
+  private final Map<UUID, VoiceChatMute> pending = new LinkedHashMap<>();
+  // the state of the files, only accessed while holding the write lock
+  private final Map<UUID, VoiceChatMute> persisted = new LinkedHashMap<>();
+  private final Object writeLock = new Object();
+
+  private final LongAdder writtenEntries = new LongAdder();
+  private final LongAdder coalescedChanges = new LongAdder();
+  private final LongAdder failedWrites = new LongAdder();
+
+  private int logEntries;
+  private volatile boolean closed;
+
+  private FileVoiceChatMuteStore(Path directory, long flushIntervalMillis) {
+    this.snapshotPath = directory.resolve(SNAPSHOT_FILE);
+    this.logPath = directory.resolve(LOG_FILE);
+    this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "labymod-voicechat-mute-store");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.executor.scheduleWithFixedDelay(
+        this::flushQuietly,
+        flushIntervalMillis,
+        flushIntervalMillis,
+        TimeUnit.MILLISECONDS
+    );
+  }
+
+  /**
+   * Opens the store in the provided directory, see {@link #open(Path, long)}.
+   *
+   * @param directory the directory of the store
+   * @return the opened store
+   * @throws IOException if the directory could not be created
+   */
+  public static @NotNull FileVoiceChatMuteStore open(@NotNull Path directory) throws IOException {
+    return open(directory, DEFAULT_FLUSH_INTERVAL_MILLIS);
+  }
+
+  /**
+   * Opens the store in the provided directory, the directory is created if it does not exist.
+   *
+   * @param directory           the directory of the store
+   * @param flushIntervalMillis the delay between two writes of the pending changes
+   * @return the opened store
+   * @throws IOException if the directory could not be created
+   */
+  public static @NotNull FileVoiceChatMuteStore open(
+      @NotNull Path directory,
+      long flushIntervalMillis
+  ) throws IOException {
+    Objects.requireNonNull(directory, "Directory cannot be null");
+    if (flushIntervalMillis <= 0) {
+      throw new IllegalArgumentException("Flush interval must be positive");
+    }
+
+    Files.createDirectories(directory);
+    return new FileVoiceChatMuteStore(directory, flushIntervalMillis);
+  }
+
+  @Override
+  public @NotNull Collection<VoiceChatMute> load() throws IOException {
+    synchronized (this.writeLock) {
+      this.persisted.clear();
+      this.readSnapshot();
+      if (!this.readLog()) {
+        // drop the incomplete entry, otherwise the next entries would be appended after it
+        this.compact();
+      }
+
+      return new ArrayList<>(this.persisted.values());
+    }
+  }
+
+  @Override
+  public void save(@NotNull VoiceChatMute mute) {
+    Objects.requireNonNull(mute, "Mute cannot be null");
+    this.enqueue(mute.getUniqueId(), mute);
+  }
+
+  @Override
+  public void delete(@NotNull UUID uniqueId) {
+    Objects.requireNonNull(uniqueId, "Unique id cannot be null");
+    this.enqueue(uniqueId, null);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    synchronized (this.writeLock) {
+      Map<UUID, VoiceChatMute> changes;
+      synchronized (this.pending) {
+        if (this.pending.isEmpty()) {
+          return;
+        }
+
+        changes = new LinkedHashMap<>(this.pending);
+        this.pending.clear();
+      }
+
+      try {
+        this.append(changes);
+      } catch (IOException exception) {
+        this.failedWrites.increment();
+        this.requeue(changes);
+        throw exception;
+      }
+
+      if (this.logEntries >= MIN_COMPACTION_ENTRIES && this.logEntries > this.persisted.size()) {
+        this.compact();
+      }
+    }
+  }
+
+  /**
+   * Writes all mutes into a new snapshot and empties the log.
+   *
+   * @throws IOException if the snapshot could not be written
+   */
+  public void compact() throws IOException {
+    synchronized (this.writeLock) {
+      long timestamp = System.currentTimeMillis();
+      List<VoiceChatMute> mutes = new ArrayList<>(this.persisted.size());
+      for (VoiceChatMute mute : this.persisted.values()) {
+        if (!mute.isExpired(timestamp)) {
+          mutes.add(mute);
+        }
+      }
+
+      Path temporary = this.snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+      try (FileChannel channel = FileChannel.open(
+          temporary,
+          StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING,
+          StandardOpenOption.WRITE
+      )) {
+        DataOutputStream output = openOutput(channel);
+        output.writeInt(SNAPSHOT_MAGIC);
+        output.writeInt(mutes.size());
+        for (VoiceChatMute mute : mutes) {
+          writeMute(output, mute);
+        }
+
+        output.flush();
+        // the snapshot has to be on the disk before it replaces the previous one
+        channel.force(true);
+      }
+
+      try {
+        Files.move(
+            temporary,
+            this.snapshotPath,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE
+        );
+      } catch (AtomicMoveNotSupportedException exception) {
+        Files.move(temporary, this.snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+      }
+
+      Files.deleteIfExists(this.logPath);
+      this.logEntries = 0;
+
+      this.persisted.clear();
+      for (VoiceChatMute mute : mutes) {
+        this.persisted.put(mute.getUniqueId(), mute);
+      }
+    }
+  }
+
+  /**
+   * Writes all pending changes, compacts the files and stops the background thread.
+   *
+   * @throws IOException if the changes could not be written
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (this.writeLock) {
+      if (this.closed) {
+        return;
+      }
+
+      this.closed = true;
+    }
+
+    this.executor.shutdown();
+    try {
+      this.executor.awaitTermination(10, TimeUnit.SECONDS);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+
+    this.flush();
+    this.compact();
+  }
+
+  /**
+   * @return the amount of changes that were not written yet
+   */
+  public int getPendingCount() {
+    synchronized (this.pending) {
+      return this.pending.size();
+    }
+  }
+
+  /**
+   * @return the amount of entries appended to the log
+   */
+  public long getWrittenCount() {
+    return this.writtenEntries.sum();
+  }
+
+  /**
+   * @return the amount of changes that replaced a pending change of the same player
+   */
+  public long getCoalescedCount() {
+    return this.coalescedChanges.sum();
+  }
+
+  /**
+   * @return the amount of failed background writes, the changes of a failed write are retried
+   */
+  public long getFailedWriteCount() {
+    return this.failedWrites.sum();
+  }
+
+  private void enqueue(UUID uniqueId, VoiceChatMute mute) {
+    synchronized (this.pending) {
+      if (this.closed) {
+        throw new IllegalStateException("Store is closed");
+      }
+
+      if (this.pending.containsKey(uniqueId)) {
+        this.coalescedChanges.increment();
+        // keep the order of the changes in the log
+        this.pending.remove(uniqueId);
+      }
+
+      this.pending.put(uniqueId, mute);
+    }
+  }
+
+  private void requeue(Map<UUID, VoiceChatMute> changes) {
+    synchronized (this.pending) {
+      Map<UUID, VoiceChatMute> newer = new LinkedHashMap<>(this.pending);
+      this.pending.clear();
+      this.pending.putAll(changes);
+      this.pending.putAll(newer);
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      this.flush();
+    } catch (IOException exception) {
+      // already counted, the changes are written with the next flush
+    }
+  }
+
+  private void append(Map<UUID, VoiceChatMute> changes) throws IOException {
+    try (FileChannel channel = FileChannel.open(
+        this.logPath,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND
+    )) {
+      long length = channel.size();
+      try {
+        DataOutputStream output = openOutput(channel);
+        for (Map.Entry<UUID, VoiceChatMute> entry : changes.entrySet()) {
+          VoiceChatMute mute = entry.getValue();
+          if (mute == null) {
+            output.writeByte(ENTRY_DELETE);
+            writeUniqueId(output, entry.getKey());
+          } else {
+            output.writeByte(ENTRY_SAVE);
+            writeMute(output, mute);
+          }
+        }
+
+        output.flush();
+        // the batch counts as written once it is on the disk
+        channel.force(false);
+      } catch (IOException exception) {
+        // drop the partially written batch, it is written again with the next flush
+        try {
+          channel.truncate(length);
+        } catch (IOException truncateException) {
+          exception.addSuppressed(truncateException);
+        }
+
+        throw exception;
+      }
+    }
+
+    for (Map.Entry<UUID, VoiceChatMute> entry : changes.entrySet()) {
+      if (entry.getValue() == null) {
+        this.persisted.remove(entry.getKey());
+      } else {
+        this.persisted.put(entry.getKey(), entry.getValue());
+      }
+    }
+
+    this.logEntries += changes.size();
+    this.writtenEntries.add(changes.size());
+  }
+
+  private void readSnapshot() throws IOException {
+    try (DataInputStream input = openInput(this.snapshotPath)) {
+      if (input.readInt() != SNAPSHOT_MAGIC) {
+        throw new IOException("Invalid mute snapshot " + this.snapshotPath);
+      }
+
+      int size = input.readInt();
+      for (int i = 0; i < size; i++) {
+        VoiceChatMute mute = readMute(input);
+        this.persisted.put(mute.getUniqueId(), mute);
+      }
+    } catch (NoSuchFileException exception) {
+      // nothing was compacted yet
+    }
+  }
+
+  /**
+   * @return false if the last entry of the log is incomplete
+   */
+  private boolean readLog() throws IOException {
+    this.logEntries = 0;
+    try (DataInputStream input = openInput(this.logPath)) {
+      while (true) {
+        int type = input.read();
+        if (type == -1) {
+          break;
+        }
+
+        if (type == ENTRY_SAVE) {
+          VoiceChatMute mute = readMute(input);
+          this.persisted.put(mute.getUniqueId(), mute);
+        } else if (type == ENTRY_DELETE) {
+          this.persisted.remove(readUniqueId(input));
+        } else {
+          throw new IOException("Invalid mute log entry " + type + " in " + this.logPath);
+        }
+
+        this.logEntries++;
+      }
+    } catch (EOFException exception) {
+      // the last entry was not completely written, for example because the server crashed
+      return false;
+    } catch (NoSuchFileException exception) {
+      // no changes since the last compaction
+    }
+
+    return true;
+  }
+
+  private static DataInputStream openInput(Path path) throws IOException {
+    return new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+  }
+
+  private static DataOutputStream openOutput(FileChannel channel) {
+    // not closed by the caller, closing the channel is enough as the stream is flushed explicitly
+    return new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+  }
+
+  private static void writeMute(DataOutputStream output, VoiceChatMute mute) throws IOException {
+    writeUniqueId(output, mute.getUniqueId());
+    String reason = mute.getReason();
+    output.writeBoolean(reason != null);
+    if (reason != null) {
+      // not writeUTF, it is limited to 65535 bytes
+      byte[] bytes = reason.getBytes(StandardCharsets.UTF_8);
+      output.writeInt(bytes.length);
+      output.write(bytes);
+    }
+
+    output.writeLong(mute.getEnd());
+  }
+
+  private static VoiceChatMute readMute(DataInputStream input) throws IOException {
+    UUID uniqueId = readUniqueId(input);
+    String reason = null;
+    if (input.readBoolean()) {
+      int length = input.readInt();
+      if (length < 0) {
+        throw new IOException("Invalid mute reason length " + length);
+      }
+
+      byte[] bytes = new byte[length];
+      input.readFully(bytes);
+      reason = new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    return VoiceChatMute.create(uniqueId, reason, input.readLong());
+  }
+
+  private static void writeUniqueId(
+      DataOutputStream output,
+      UUID uniqueId
+  ) throws IOException {
+    output.writeLong(uniqueId.getMostSignificantBits());
+    output.writeLong(uniqueId.getLeastSignificantBits());
+  }
+
+  private static UUID readUniqueId(DataInputStream input) throws IOException {
+    return new UUID(input.readLong(), input.readLong());
+  }
+
+  @Override
+  public String toString() {
+    return "FileVoiceChatMuteStore{" +
+        "snapshot=" + this.snapshotPath +
+        ", pending=" + this.getPendingCount() +
+        ", written=" + this.writtenEntries +
+        ", failedWrites=" + this.failedWrites +
+        '}';
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.voicechat.store;
+
+import net.labymod.serverapi.integration.voicechat.model.VoiceChatMute;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Persists the voice chat mutes of the server, see
+ * {@link net.labymod.serverapi.integration.voicechat.VoiceChatIntegration#setMuteStore}.
+ * <p>
+ * All mutes are loaded once, afterwards the mutes are read from the
+ * {@link net.labymod.serverapi.integration.voicechat.VoiceChatMuteRegistry} and the store is only
+ * written to. {@link #save} and {@link #delete} are called on the thread changing the mute, so
+ * implementations should not block and write the changes in the background instead.
+ */
+public interface VoiceChatMuteStore extends Closeable {
+
+  /**
+   * @return all stored mutes
+   * @throws IOException if the mutes could not be read
+   */
+  @NotNull Collection<VoiceChatMute> load() throws IOException;
+
+  /**
+   * Stores the provided mute, replacing the stored mute of the same player.
+   *
+   * @param mute the mute to store
+   */
+  void save(@NotNull VoiceChatMute mute);
+
+  /**
+   * Deletes the stored mute of the provided player.
+   *
+   * @param uniqueId the unique id of the player
+   */
+  void delete(@NotNull UUID uniqueId);
+
+  /**
+   * Writes all pending changes and waits until they were written.
+   *
+   * @throws IOException if the changes could not be written
+   */
+  void flush() throws IOException;
+}
@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.voicechat.sync;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * An in-process transport, all nodes sharing the same instance form a network. Messages are
+ * serialized and delivered synchronously on the publishing thread, which makes it suitable for
+ * tests and for several integrations running in the same process.
+ */
+public final class LoopbackVoiceChatMuteSyncTransport implements VoiceChatMuteSyncTransport {
+
+  private final List<Consumer<VoiceChatMuteSyncMessage>> listeners = new CopyOnWriteArrayList<>();
+
+  @Override
+  public void publish(@NotNull VoiceChatMuteSyncMessage message) {
+    Objects.requireNonNull(message, "Message cannot be null");
+    byte[] data = message.toByteArray();
+    for (Consumer<VoiceChatMuteSyncMessage> listener : this.listeners) {
+      listener.accept(VoiceChatMuteSyncMessage.fromByteArray(data));
+    }
+  }
+
+  @Override
+  public void subscribe(@NotNull Consumer<VoiceChatMuteSyncMessage> listener) {
+    Objects.requireNonNull(listener, "Listener cannot be null");
+    this.listeners.add(listener);
+  }
+
+  @Override
+  public String toString() {
+    return "LoopbackVoiceChatMuteSyncTransport{" +
+        "listeners=" + this.listeners.size() +
+        '}';
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.voicechat.sync;
+
+import net.labymod.serverapi.integration.voicechat.model.VoiceChatMute;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A versioned mute change of a single player, exchanged between the nodes of a network.
+ * <p>
+ * If two nodes change the mute of the same player, the change with the higher version wins. If
+ * the versions are equal, the mute with the later end wins (permanent mutes end last, unmutes
+ * first), then the change of the node with the greater id.
+ */
+public final class VoiceChatMuteDelta {
+
+  private final UUID uniqueId;
+  private final VoiceChatMute mute;
+  private final long version;
+  private final String origin;
+
+  private VoiceChatMuteDelta(UUID uniqueId, VoiceChatMute mute, long version, String origin) {
+    this.uniqueId = uniqueId;
+    this.mute = mute;
+    this.version = version;
+    this.origin = origin;
+  }
+
+  /**
+   * @param mute    the applied mute
+   * @param version the version of the change
+   * @param origin  the id of the node the mute was applied on
+   * @return a new mute change
+   */
+  public static @NotNull VoiceChatMuteDelta mute(
+      @NotNull VoiceChatMute mute,
+      long version,
+      @NotNull String origin
+  ) {
+    Objects.requireNonNull(mute, "Mute cannot be null");
+    Objects.requireNonNull(origin, "Origin cannot be null");
+    return new VoiceChatMuteDelta(mute.getUniqueId(), mute, version, origin);
+  }
+
+  /**
+   * @param uniqueId the unique id of the unmuted player
+   * @param version  the version of the change
+   * @param origin   the id of the node the player was unmuted on
+   * @return a new unmute change
+   */
+  public static @NotNull VoiceChatMuteDelta unmute(
+      @NotNull UUID uniqueId,
+      long version,
+      @NotNull String origin
+  ) {
+    Objects.requireNonNull(uniqueId, "Unique id cannot be null");
+    Objects.requireNonNull(origin, "Origin cannot be null");
+    return new VoiceChatMuteDelta(uniqueId, null, version, origin);
+  }
+
+  /**
+   * @return the unique id of the player
+   */
+  public @NotNull UUID getUniqueId() {
+    return this.uniqueId;
+  }
+
+  /**
+   * @return the applied mute, null if the player was unmuted
+   */
+  public @Nullable VoiceChatMute getMute() {
+    return this.mute;
+  }
+
+  /**
+   * @return whether the player was unmuted
+   */
+  public boolean isUnmute() {
+    return this.mute == null;
+  }
+
+  /**
+   * @return the version of the change
+   */
+  public long getVersion() {
+    return this.version;
+  }
+
+  /**
+   * @return the id of the node the change was made on
+   */
+  public @NotNull String getOrigin() {
+    return this.origin;
+  }
+
+  /**
+   * @param other the other change of the same player
+   * @return whether this change wins over the other change
+   */
+  public boolean isNewerThan(@NotNull VoiceChatMuteDelta other) {
+    Objects.requireNonNull(other, "Other cannot be null");
+    if (this.version != other.version) {
+      return this.version > other.version;
+    }
+
+    long end = this.effectiveEnd();
+    long otherEnd = other.effectiveEnd();
+    if (end != otherEnd) {
+      return end > otherEnd;
+    }
+
+    return this.origin.compareTo(other.origin) > 0;
+  }
+
+  private long effectiveEnd() {
+    if (this.mute == null) {
+      return Long.MIN_VALUE;
+    }
+
+    return this.mute.isPermanent() ? Long.MAX_VALUE : this.mute.getEnd();
+  }
+
+  @Override
+  public String toString() {
+    return "VoiceChatMuteDelta{" +
+        "uniqueId=" + this.uniqueId +
+        ", mute=" + this.mute +
+        ", version=" + this.version +
+        ", origin='" + this.origin + '\'' +
+        '}';
+  }
+}
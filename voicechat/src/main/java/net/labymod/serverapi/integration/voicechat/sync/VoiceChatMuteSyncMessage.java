@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.voicechat.sync;
+
+import net.labymod.serverapi.api.payload.io.PayloadReader;
+import net.labymod.serverapi.api.payload.io.PayloadWriter;
+import net.labymod.serverapi.integration.voicechat.model.VoiceChatMute;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A batch of mute changes published by a node. Transports that leave the process can use
+ * {@link #toByteArray()} and {@link #fromByteArray(byte[])} to serialize the message.
+ */
+public final class VoiceChatMuteSyncMessage {
+
+  private final String origin;
+  private final List<VoiceChatMuteDelta> deltas;
+
+  public VoiceChatMuteSyncMessage(
+      @NotNull String origin,
+      @NotNull List<VoiceChatMuteDelta> deltas
+  ) {
+    Objects.requireNonNull(origin, "Origin cannot be null");
+    Objects.requireNonNull(deltas, "Deltas cannot be null");
+    this.origin = origin;
+    this.deltas = Collections.unmodifiableList(deltas);
+  }
+
+  /**
+   * @param data the serialized message
+   * @return the deserialized message
+   */
+  public static @NotNull VoiceChatMuteSyncMessage fromByteArray(@NotNull byte[] data) {
+    Objects.requireNonNull(data, "Data cannot be null");
+    PayloadReader reader = new PayloadReader(data);
+    String origin = reader.readString();
+    List<VoiceChatMuteDelta> deltas = reader.readList(() -> {
+      long version = reader.readVarLong();
+      String deltaOrigin = reader.readString();
+      if (!reader.readBoolean()) {
+        return VoiceChatMuteDelta.unmute(reader.readUUID(), version, deltaOrigin);
+      }
+
+      VoiceChatMute mute = VoiceChatMute.create(
+          reader.readUUID(),
+          reader.readOptionalString(),
+          reader.readVarLong()
+      );
+      return VoiceChatMuteDelta.mute(mute, version, deltaOrigin);
+    });
+    return new VoiceChatMuteSyncMessage(origin, deltas);
+  }
+
+  /**
+   * @return the serialized message
+   */
+  public @NotNull byte[] toByteArray() {
+    PayloadWriter writer = new PayloadWriter();
+    writer.writeString(this.origin);
+    writer.writeCollection(this.deltas, delta -> {
+      writer.writeVarLong(delta.getVersion());
+      writer.writeString(delta.getOrigin());
+
+      VoiceChatMute mute = delta.getMute();
+      writer.writeBoolean(mute != null);
+      if (mute == null) {
+        writer.writeUUID(delta.getUniqueId());
+        return;
+      }
+
+      writer.writeUUID(mute.getUniqueId());
+      writer.writeOptionalString(mute.getReason());
+      writer.writeVarLong(mute.getEnd());
+    });
+    return writer.toByteArray();
+  }
+
+  /**
+   * @return the id of the node that published the message
+   */
+  public @NotNull String getOrigin() {
+    return this.origin;
+  }
+
+  /**
+   * @return the mute changes, at most one per player
+   */
+  public @NotNull List<VoiceChatMuteDelta> getDeltas() {
+    return this.deltas;
+  }
+
+  @Override
+  public String toString() {
+    return "VoiceChatMuteSyncMessage{" +
+        "origin='" + this.origin + '\'' +
+        ", deltas=" + this.deltas.size() +
+        '}';
+  }
+}
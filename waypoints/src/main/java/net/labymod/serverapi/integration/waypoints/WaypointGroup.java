@@ -0,0 +1,416 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.waypoints;
+
+import net.labymod.serverapi.core.AbstractLabyModProtocolService;
+import net.labymod.serverapi.core.AddonProtocol;
+import net.labymod.serverapi.integration.common.packet.EncodedPacket;
+import net.labymod.serverapi.integration.waypoints.model.ServerWaypoint;
+import net.labymod.serverapi.integration.waypoints.model.WaypointPosition;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointBulkRemovePacket;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointRemovePacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A named set of waypoints that is shared by all subscribed players. Changes to the group are
+ * encoded once and sent to all subscribers. The packet containing all waypoints of the group is
+ * cached, so subscribing a player does not encode the waypoints again as long as the group did
+ * not change. Movements only renew the cached packet once per tick, players subscribing in the
+ * meantime receive the movements with the other subscribers.
+ */
+public class WaypointGroup {
+
+  private final WaypointsIntegration integration;
+  private final AbstractLabyModProtocolService protocolService;
+  private final AddonProtocol addonProtocol;
+  private final String name;
+  private final boolean global;
+  private final Map<String, ServerWaypoint> waypoints = new LinkedHashMap<>();
+  private final Set<UUID> subscribers = ConcurrentHashMap.newKeySet();
+  private final WaypointPositionQueue positionQueue = new WaypointPositionQueue();
+
+  private EncodedPacket snapshot;
+  private EncodedPacket compactSnapshot;
+
+  protected WaypointGroup(
+      WaypointsIntegration integration,
+      AbstractLabyModProtocolService protocolService,
+      AddonProtocol addonProtocol,
+      String name,
+      boolean global
+  ) {
+    this.integration = integration;
+    this.protocolService = protocolService;
+    this.addonProtocol = addonProtocol;
+    this.name = name;
+    this.global = global;
+  }
+
+  /**
+   * @return the name of the group
+   */
+  public @NotNull String getName() {
+    return this.name;
+  }
+
+  /**
+   * @return whether every player is subscribed to the group when joining the server
+   */
+  public boolean isGlobal() {
+    return this.global;
+  }
+
+  /**
+   * Adds or updates the provided waypoints and sends them to all subscribers.
+   *
+   * @param waypoints the waypoints to add or update
+   */
+  public void addWaypoints(@NotNull Collection<ServerWaypoint> waypoints) {
+    Objects.requireNonNull(waypoints, "Waypoints cannot be null");
+    if (waypoints.isEmpty()) {
+      return;
+    }
+
+    List<ServerWaypoint> added = new ArrayList<>(waypoints);
+    List<String> addedIds = new ArrayList<>(added.size());
+    synchronized (this) {
+      for (ServerWaypoint waypoint : added) {
+        Objects.requireNonNull(waypoint, "Waypoint cannot be null");
+        this.waypoints.put(waypoint.getId(), waypoint);
+        addedIds.add(waypoint.getId());
+      }
+
+      // the added waypoints already contain their position
+      this.positionQueue.discard(addedIds);
+      this.invalidate();
+    }
+
+    EncodedPacket[] encoded = new EncodedPacket[2];
+    this.broadcast(subscriber -> {
+      boolean compact = this.integration.isCompactEncodingSupported(subscriber);
+      int index = compact ? 1 : 0;
+      if (encoded[index] == null) {
+        encoded[index] = this.integration.encodeWaypoints(added, compact);
+      }
+
+      return encoded[index];
+    });
+  }
+
+  /**
+   * Adds or updates the provided waypoint and sends it to all subscribers.
+   *
+   * @param waypoint the waypoint to add or update
+   */
+  public void addWaypoint(@NotNull ServerWaypoint waypoint) {
+    this.addWaypoints(Collections.singletonList(waypoint));
+  }
+
+  /**
+   * Removes the waypoint with the provided id and removes it from all subscribers.
+   *
+   * @param waypointId the id of the waypoint to remove
+   */
+  public void removeWaypoint(@NotNull String waypointId) {
+    Objects.requireNonNull(waypointId, "Waypoint id cannot be null");
+    this.removeWaypoints(Collections.singletonList(waypointId));
+  }
+
+  /**
+   * Removes the waypoints with the provided ids and removes them from all subscribers. The
+   * packets are encoded once, subscribers that support it receive a single packet for all
+   * waypoints.
+   *
+   * @param waypointIds the ids of the waypoints to remove
+   */
+  public void removeWaypoints(@NotNull Collection<String> waypointIds) {
+    Objects.requireNonNull(waypointIds, "Waypoint ids cannot be null");
+    List<String> removed = new ArrayList<>(waypointIds.size());
+    synchronized (this) {
+      for (String waypointId : waypointIds) {
+        if (this.waypoints.remove(waypointId) != null) {
+          removed.add(waypointId);
+        }
+      }
+
+      if (removed.isEmpty()) {
+        return;
+      }
+
+      this.positionQueue.discard(removed);
+      this.invalidate();
+    }
+
+    this.broadcastRemovals(removed);
+  }
+
+  /**
+   * Removes all waypoints of the group and removes them from all subscribers. The subscribers
+   * stay subscribed to the group.
+   */
+  public void clear() {
+    List<String> removed;
+    synchronized (this) {
+      if (this.waypoints.isEmpty()) {
+        return;
+      }
+
+      removed = new ArrayList<>(this.waypoints.keySet());
+      this.waypoints.clear();
+      this.positionQueue.drain();
+      this.invalidate();
+    }
+
+    this.broadcastRemovals(removed);
+  }
+
+  /**
+   * Moves a waypoint of the group. The movement is sent to all subscribers with the next
+   * {@link WaypointsIntegration#tick}, multiple movements of the same waypoint in the meantime are
+   * merged into one. Subscribers that support it only receive the new position instead of the
+   * full waypoint.
+   *
+   * @param waypointId the id of the waypoint to move
+   * @param x          the new x-coordinate of the waypoint
+   * @param y          the new y-coordinate of the waypoint
+   * @param z          the new z-coordinate of the waypoint
+   */
+  public void moveWaypoint(@NotNull String waypointId, double x, double y, double z) {
+    WaypointPosition position = new WaypointPosition(waypointId, x, y, z);
+    synchronized (this) {
+      ServerWaypoint waypoint = this.waypoints.get(waypointId);
+      if (waypoint == null) {
+        return;
+      }
+
+      // the snapshot is renewed when the movement is flushed to all subscribers
+      this.waypoints.put(waypointId, position.applyTo(waypoint));
+      this.positionQueue.move(position);
+    }
+  }
+
+  void flushPositions() {
+    List<WaypointPosition> positions;
+    List<ServerWaypoint> waypoints;
+    synchronized (this) {
+      List<WaypointPosition> drained = this.positionQueue.drain();
+      if (drained.isEmpty()) {
+        return;
+      }
+
+      // players subscribing from now on do not receive the movements below
+      this.invalidate();
+
+      positions = new ArrayList<>(drained.size());
+      waypoints = new ArrayList<>(drained.size());
+      for (WaypointPosition position : drained) {
+        ServerWaypoint waypoint = this.waypoints.get(position.getId());
+        if (waypoint != null) {
+          positions.add(position);
+          waypoints.add(waypoint);
+        }
+      }
+    }
+
+    if (positions.isEmpty()) {
+      return;
+    }
+
+    // 0: full waypoints, 1: compact waypoints, 2: positions only
+    EncodedPacket[] encoded = new EncodedPacket[3];
+    this.broadcast(subscriber -> {
+      int index;
+      if (this.integration.isPositionUpdateSupported(subscriber)) {
+        index = 2;
+      } else {
+        index = this.integration.isCompactEncodingSupported(subscriber) ? 1 : 0;
+      }
+
+      if (encoded[index] == null) {
+        encoded[index] = index == 2
+            ? this.integration.encodePositions(positions)
+            : this.integration.encodeWaypoints(waypoints, index == 1);
+      }
+
+      return encoded[index];
+    });
+  }
+
+  /**
+   * @return a copy of all waypoints of the group
+   */
+  public synchronized @NotNull List<ServerWaypoint> getWaypoints() {
+    return new ArrayList<>(this.waypoints.values());
+  }
+
+  /**
+   * Subscribes the player to the group and sends all waypoints of the group to the player.
+   *
+   * @param uniqueId the unique id of the player
+   */
+  public void subscribe(@NotNull UUID uniqueId) {
+    Objects.requireNonNull(uniqueId, "Unique id cannot be null");
+    if (!this.subscribers.add(uniqueId)) {
+      return;
+    }
+
+    boolean compact = this.integration.isCompactEncodingSupported(uniqueId);
+    EncodedPacket snapshot = this.snapshot(compact);
+    if (snapshot != null) {
+      this.integration.packetQueues().send(uniqueId, snapshot);
+    }
+  }
+
+  /**
+   * Unsubscribes the player from the group and removes all waypoints of the group from the
+   * player.
+   *
+   * @param uniqueId the unique id of the player
+   */
+  public void unsubscribe(@NotNull UUID uniqueId) {
+    this.unsubscribe(uniqueId, true);
+  }
+
+  void unsubscribe(@NotNull UUID uniqueId, boolean removeWaypoints) {
+    Objects.requireNonNull(uniqueId, "Unique id cannot be null");
+    if (!this.subscribers.remove(uniqueId) || !removeWaypoints) {
+      return;
+    }
+
+    List<String> waypointIds = this.getWaypointIds();
+    if (waypointIds.size() > 1 && this.integration.isBulkRemoveSupported(uniqueId)) {
+      this.integration.packetQueues().send(
+          uniqueId,
+          this.addonProtocol,
+          new WaypointBulkRemovePacket(waypointIds)
+      );
+      return;
+    }
+
+    for (String waypointId : waypointIds) {
+      this.integration.packetQueues().send(
+          uniqueId,
+          this.addonProtocol,
+          new WaypointRemovePacket(waypointId)
+      );
+    }
+  }
+
+  /**
+   * @param uniqueId the unique id of the player
+   * @return whether the player is subscribed to the group
+   */
+  public boolean isSubscribed(@NotNull UUID uniqueId) {
+    return this.subscribers.contains(uniqueId);
+  }
+
+  void forget(UUID uniqueId) {
+    this.subscribers.remove(uniqueId);
+  }
+
+  private synchronized List<String> getWaypointIds() {
+    return new ArrayList<>(this.waypoints.keySet());
+  }
+
+  private synchronized EncodedPacket snapshot(boolean compact) {
+    if (this.waypoints.isEmpty()) {
+      return null;
+    }
+
+    if (compact) {
+      if (this.compactSnapshot == null) {
+        this.compactSnapshot = this.integration.encodeWaypoints(this.getWaypoints(), true);
+      }
+
+      return this.compactSnapshot;
+    }
+
+    if (this.snapshot == null) {
+      this.snapshot = this.integration.encodeWaypoints(this.getWaypoints(), false);
+    }
+
+    return this.snapshot;
+  }
+
+  private void invalidate() {
+    this.snapshot = null;
+    this.compactSnapshot = null;
+  }
+
+  private void broadcastRemovals(List<String> waypointIds) {
+    EncodedPacket[][] encoded = new EncodedPacket[2][];
+    this.broadcastAll(subscriber -> {
+      boolean bulk = this.integration.isBulkRemoveSupported(subscriber);
+      int index = bulk ? 1 : 0;
+      if (encoded[index] == null) {
+        encoded[index] = this.integration.encodeRemovals(waypointIds, bulk);
+      }
+
+      return encoded[index];
+    });
+  }
+
+  private void broadcast(Function<UUID, EncodedPacket> packetFunction) {
+    this.broadcastAll(subscriber -> new EncodedPacket[] {packetFunction.apply(subscriber)});
+  }
+
+  private void broadcastAll(Function<UUID, EncodedPacket[]> packetFunction) {
+    WaypointsIntegration.BROADCAST_RECIPIENTS.record(this.subscribers.size());
+    Iterator<UUID> iterator = this.subscribers.iterator();
+    while (iterator.hasNext()) {
+      UUID subscriber = iterator.next();
+      if (this.protocolService.getPlayer(subscriber) == null) {
+        iterator.remove();
+        continue;
+      }
+
+      for (EncodedPacket packet : packetFunction.apply(subscriber)) {
+        this.integration.packetQueues().send(subscriber, packet);
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "WaypointGroup{" +
+        "name='" + this.name + '\'' +
+        ", global=" + this.global +
+        ", subscribers=" + this.subscribers.size() +
+        '}';
+  }
+}
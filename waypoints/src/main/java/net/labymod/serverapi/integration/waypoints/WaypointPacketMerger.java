@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.waypoints;
+
+import net.labymod.serverapi.api.packet.Packet;
+import net.labymod.serverapi.integration.common.queue.PacketMerger;
+import net.labymod.serverapi.integration.waypoints.model.ServerWaypoint;
+import net.labymod.serverapi.integration.waypoints.model.WaypointPosition;
+import net.labymod.serverapi.integration.waypoints.packets.CompactWaypointPacket;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointBulkRemovePacket;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointClearPacket;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointPacket;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointPositionPacket;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointRemovePacket;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Merges queued waypoint packets of a player:
+ * <ul>
+ *   <li>consecutive waypoint packets are merged into one, later waypoints replace earlier ones
+ *   with the same id</li>
+ *   <li>consecutive position packets are merged into one, keeping the latest position</li>
+ *   <li>consecutive bulk remove packets are merged into one</li>
+ *   <li>waypoint changes followed by a clear packet are replaced by the clear packet</li>
+ *   <li>a remove followed by a waypoint packet re-adding the same waypoint is dropped</li>
+ * </ul>
+ */
+final class WaypointPacketMerger implements PacketMerger {
+
+  @Override
+  public @Nullable Packet merge(@NotNull Packet previous, @NotNull Packet next) {
+    if (previous instanceof WaypointPacket && next instanceof WaypointPacket) {
+      return new WaypointPacket(mergeWaypoints(
+          ((WaypointPacket) previous).getWaypoints(),
+          ((WaypointPacket) next).getWaypoints()
+      ));
+    }
+
+    if (previous instanceof CompactWaypointPacket && next instanceof CompactWaypointPacket) {
+      CompactWaypointPacket previousPacket = (CompactWaypointPacket) previous;
+      CompactWaypointPacket nextPacket = (CompactWaypointPacket) next;
+      if (previousPacket.isQuantized() != nextPacket.isQuantized()) {
+        return null;
+      }
+
+      return new CompactWaypointPacket(
+          mergeWaypoints(previousPacket.getWaypoints(), nextPacket.getWaypoints()),
+          nextPacket.isQuantized()
+      );
+    }
+
+    if (previous instanceof WaypointPositionPacket && next instanceof WaypointPositionPacket) {
+      Map<String, WaypointPosition> positions = new LinkedHashMap<>();
+      for (WaypointPosition position : ((WaypointPositionPacket) previous).getPositions()) {
+        positions.put(position.getId(), position);
+      }
+
+      for (WaypointPosition position : ((WaypointPositionPacket) next).getPositions()) {
+        positions.put(position.getId(), position);
+      }
+
+      return new WaypointPositionPacket(new ArrayList<>(positions.values()));
+    }
+
+    if (next instanceof WaypointClearPacket && isWaypointChange(previous)) {
+      // the changes are cleared anyway
+      return next;
+    }
+
+    if (previous instanceof WaypointBulkRemovePacket && next instanceof WaypointBulkRemovePacket) {
+      Set<String> ids = new LinkedHashSet<>(((WaypointBulkRemovePacket) previous).getIds());
+      ids.addAll(((WaypointBulkRemovePacket) next).getIds());
+      return new WaypointBulkRemovePacket(new ArrayList<>(ids));
+    }
+
+    if (previous instanceof WaypointRemovePacket) {
+      String removedId = ((WaypointRemovePacket) previous).getId();
+      List<ServerWaypoint> readded = null;
+      if (next instanceof WaypointPacket) {
+        readded = ((WaypointPacket) next).getWaypoints();
+      } else if (next instanceof CompactWaypointPacket) {
+        readded = ((CompactWaypointPacket) next).getWaypoints();
+      }
+
+      if (readded != null && containsId(readded, removedId)) {
+        // the waypoint packet replaces the removed waypoint anyway
+        return next;
+      }
+    }
+
+    return null;
+  }
+
+  private static List<ServerWaypoint> mergeWaypoints(
+      List<ServerWaypoint> previous,
+      List<ServerWaypoint> next
+  ) {
+    Map<String, ServerWaypoint> waypoints = new LinkedHashMap<>();
+    for (ServerWaypoint waypoint : previous) {
+      waypoints.put(waypoint.getId(), waypoint);
+    }
+
+    for (ServerWaypoint waypoint : next) {
+      waypoints.put(waypoint.getId(), waypoint);
+    }
+
+    return new ArrayList<>(waypoints.values());
+  }
+
+  private static boolean isWaypointChange(Packet packet) {
+    return packet instanceof WaypointPacket
+        || packet instanceof CompactWaypointPacket
+        || packet instanceof WaypointPositionPacket
+        || packet instanceof WaypointRemovePacket
+        || packet instanceof WaypointBulkRemovePacket
+        || packet instanceof WaypointClearPacket;
+  }
+
+  private static boolean containsId(List<ServerWaypoint> waypoints, String id) {
+    for (ServerWaypoint waypoint : waypoints) {
+      if (waypoint.getId().equals(id)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.waypoints;
+
+import net.labymod.serverapi.api.packet.Packet;
+import net.labymod.serverapi.integration.common.queue.PacketSplitter;
+import net.labymod.serverapi.integration.waypoints.model.ServerWaypoint;
+import net.labymod.serverapi.integration.waypoints.packets.CompactWaypointPacket;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointPacket;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits waypoint packets into packets containing consecutive ranges of the waypoints. Adding
+ * the waypoints in several packets has the same effect as adding them at once.
+ */
+final class WaypointPacketSplitter implements PacketSplitter {
+
+  @Override
+  public @Nullable List<Packet> split(@NotNull Packet packet, int chunks) {
+    if (packet instanceof WaypointPacket) {
+      WaypointPacket waypointPacket = (WaypointPacket) packet;
+      List<Packet> packets = new ArrayList<>(chunks);
+      for (List<ServerWaypoint> waypoints : split(waypointPacket.getWaypoints(), chunks)) {
+        packets.add(new WaypointPacket(waypoints));
+      }
+
+      return packets;
+    }
+
+    if (packet instanceof CompactWaypointPacket) {
+      CompactWaypointPacket compactPacket = (CompactWaypointPacket) packet;
+      List<Packet> packets = new ArrayList<>(chunks);
+      for (List<ServerWaypoint> waypoints : split(compactPacket.getWaypoints(), chunks)) {
+        packets.add(new CompactWaypointPacket(waypoints, compactPacket.isQuantized()));
+      }
+
+      return packets;
+    }
+
+    return null;
+  }
+
+  private static List<List<ServerWaypoint>> split(List<ServerWaypoint> waypoints, int chunks) {
+    int count = Math.min(chunks, waypoints.size());
+    List<List<ServerWaypoint>> ranges = new ArrayList<>(count);
+    for (int index = 0; index < count; index++) {
+      int from = waypoints.size() * index / count;
+      int to = waypoints.size() * (index + 1) / count;
+      ranges.add(new ArrayList<>(waypoints.subList(from, to)));
+    }
+
+    return ranges;
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.waypoints;
+
+import net.labymod.serverapi.integration.waypoints.model.WaypointPosition;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects waypoint movements until they are flushed. Only the latest position per waypoint is
+ * kept, so moving a waypoint multiple times within a tick results in a single update.
+ */
+final class WaypointPositionQueue {
+
+  private Map<String, WaypointPosition> positions = new LinkedHashMap<>();
+
+  synchronized void move(@NotNull WaypointPosition position) {
+    this.positions.put(position.getId(), position);
+  }
+
+  /**
+   * Removes the pending positions of the provided waypoints, for example because they were
+   * removed or replaced.
+   *
+   * @param waypointIds the ids of the waypoints
+   */
+  synchronized void discard(@NotNull Collection<String> waypointIds) {
+    if (this.positions.isEmpty()) {
+      return;
+    }
+
+    for (String waypointId : waypointIds) {
+      this.positions.remove(waypointId);
+    }
+  }
+
+  /**
+   * Removes all pending positions from the queue.
+   *
+   * @return the latest position of every moved waypoint
+   */
+  synchronized @NotNull List<WaypointPosition> drain() {
+    if (this.positions.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    List<WaypointPosition> positions = new ArrayList<>(this.positions.values());
+    this.positions = new LinkedHashMap<>();
+    return positions;
+  }
+}
@@ -0,0 +1,303 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.waypoints;
+
+import net.labymod.serverapi.integration.waypoints.model.ServerWaypoint;
+import net.labymod.serverapi.integration.waypoints.model.WaypointPosition;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Spatial index of server waypoints. Waypoints are stored per dimension in a uniform grid of
+ * vertical columns, so a range query only visits the columns that intersect the queried radius.
+ * Waypoints without a dimension are shown in every dimension and are therefore part of every
+ * query.
+ */
+public class WaypointSpatialIndex {
+
+  public static final int DEFAULT_CELL_SIZE = 64;
+
+  private final int cellSize;
+  private final Map<String, ServerWaypoint> waypoints = new HashMap<>();
+  private final Map<String, Map<Long, List<ServerWaypoint>>> dimensions = new HashMap<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  public WaypointSpatialIndex() {
+    this(DEFAULT_CELL_SIZE);
+  }
+
+  /**
+   * Creates a new spatial index.
+   *
+   * @param cellSize the width and depth of a grid column in blocks
+   */
+  public WaypointSpatialIndex(int cellSize) {
+    if (cellSize <= 0) {
+      throw new IllegalArgumentException("Cell size must be positive");
+    }
+
+    this.cellSize = cellSize;
+  }
+
+  /**
+   * Adds the provided waypoint to the index. If a waypoint with the same id is already indexed, it
+   * is replaced.
+   *
+   * @param waypoint the waypoint to add
+   */
+  public void add(@NotNull ServerWaypoint waypoint) {
+    Objects.requireNonNull(waypoint, "Waypoint cannot be null");
+    this.lock.writeLock().lock();
+    try {
+      this.addUnsafe(waypoint);
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Adds all provided waypoints to the index, replacing indexed waypoints with the same id.
+   *
+   * @param waypoints the waypoints to add
+   */
+  public void addAll(@NotNull Collection<ServerWaypoint> waypoints) {
+    Objects.requireNonNull(waypoints, "Waypoints cannot be null");
+    this.lock.writeLock().lock();
+    try {
+      for (ServerWaypoint waypoint : waypoints) {
+        Objects.requireNonNull(waypoint, "Waypoint cannot be null");
+        this.addUnsafe(waypoint);
+      }
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes the waypoint with the provided id from the index.
+   *
+   * @param id the id of the waypoint
+   * @return the removed waypoint, null if no waypoint with the id was indexed
+   */
+  public @Nullable ServerWaypoint remove(@NotNull String id) {
+    this.lock.writeLock().lock();
+    try {
+      return this.removeUnsafe(id);
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Moves the indexed waypoint to the provided position.
+   *
+   * @param position the new position of the waypoint
+   * @return the moved waypoint, null if no waypoint with the id is indexed
+   */
+  public @Nullable ServerWaypoint move(@NotNull WaypointPosition position) {
+    Objects.requireNonNull(position, "Position cannot be null");
+    this.lock.writeLock().lock();
+    try {
+      ServerWaypoint waypoint = this.waypoints.get(position.getId());
+      if (waypoint == null) {
+        return null;
+      }
+
+      ServerWaypoint moved = position.applyTo(waypoint);
+      this.addUnsafe(moved);
+      return moved;
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @param id the id of the waypoint
+   * @return the indexed waypoint with the provided id, null if no waypoint with the id is indexed
+   */
+  public @Nullable ServerWaypoint get(@NotNull String id) {
+    this.lock.readLock().lock();
+    try {
+      return this.waypoints.get(id);
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return the amount of indexed waypoints
+   */
+  public int size() {
+    this.lock.readLock().lock();
+    try {
+      return this.waypoints.size();
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Finds all waypoints within the provided radius around the provided position.
+   *
+   * @param dimension the dimension of the position
+   * @param x         the x-coordinate of the position
+   * @param y         the y-coordinate of the position
+   * @param z         the z-coordinate of the position
+   * @param radius    the radius in blocks
+   * @return the waypoints within the radius, including waypoints without a dimension
+   */
+  public @NotNull List<ServerWaypoint> query(
+      @NotNull String dimension,
+      double x,
+      double y,
+      double z,
+      double radius
+  ) {
+    Objects.requireNonNull(dimension, "Dimension cannot be null");
+    List<ServerWaypoint> result = new ArrayList<>();
+    this.lock.readLock().lock();
+    try {
+      this.query(this.dimensions.get(dimension), x, y, z, radius, result);
+      this.query(this.dimensions.get(null), x, y, z, radius, result);
+    } finally {
+      this.lock.readLock().unlock();
+    }
+
+    return result;
+  }
+
+  private void query(
+      Map<Long, List<ServerWaypoint>> cells,
+      double x,
+      double y,
+      double z,
+      double radius,
+      List<ServerWaypoint> result
+  ) {
+    if (cells == null) {
+      return;
+    }
+
+    double radiusSquared = radius * radius;
+    int minCellX = this.cell(x - radius);
+    int maxCellX = this.cell(x + radius);
+    int minCellZ = this.cell(z - radius);
+    int maxCellZ = this.cell(z + radius);
+
+    long cellCount = ((long) maxCellX - minCellX + 1) * ((long) maxCellZ - minCellZ + 1);
+    if (cellCount > cells.size()) {
+      // the radius covers more columns than are populated, visit the populated ones instead
+      for (List<ServerWaypoint> cell : cells.values()) {
+        collect(cell, x, y, z, radiusSquared, result);
+      }
+
+      return;
+    }
+
+    for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+      for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+        List<ServerWaypoint> cell = cells.get(key(cellX, cellZ));
+        if (cell != null) {
+          collect(cell, x, y, z, radiusSquared, result);
+        }
+      }
+    }
+  }
+
+  private void addUnsafe(ServerWaypoint waypoint) {
+    this.removeUnsafe(waypoint.getId());
+    this.waypoints.put(waypoint.getId(), waypoint);
+    this.dimensions.computeIfAbsent(waypoint.getDimension(), dimension -> new HashMap<>())
+        .computeIfAbsent(this.key(waypoint), key -> new ArrayList<>())
+        .add(waypoint);
+  }
+
+  private ServerWaypoint removeUnsafe(String id) {
+    ServerWaypoint waypoint = this.waypoints.remove(id);
+    if (waypoint == null) {
+      return null;
+    }
+
+    Map<Long, List<ServerWaypoint>> cells = this.dimensions.get(waypoint.getDimension());
+    long key = this.key(waypoint);
+    List<ServerWaypoint> cell = cells.get(key);
+    cell.remove(waypoint);
+    if (cell.isEmpty()) {
+      cells.remove(key);
+      if (cells.isEmpty()) {
+        this.dimensions.remove(waypoint.getDimension());
+      }
+    }
+
+    return waypoint;
+  }
+
+  private long key(ServerWaypoint waypoint) {
+    return key(this.cell(waypoint.getX()), this.cell(waypoint.getZ()));
+  }
+
+  private int cell(double coordinate) {
+    return (int) Math.floor(coordinate / this.cellSize);
+  }
+
+  private static long key(int cellX, int cellZ) {
+    return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+  }
+
+  private static void collect(
+      List<ServerWaypoint> cell,
+      double x,
+      double y,
+      double z,
+      double radiusSquared,
+      List<ServerWaypoint> result
+  ) {
+    for (ServerWaypoint waypoint : cell) {
+      double deltaX = waypoint.getX() - x;
+      double deltaY = waypoint.getY() - y;
+      double deltaZ = waypoint.getZ() - z;
+      if (deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ <= radiusSquared) {
+        result.add(waypoint);
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "WaypointSpatialIndex{" +
+        "cellSize=" + this.cellSize +
+        ", waypoints=" + this.size() +
+        '}';
+  }
+}
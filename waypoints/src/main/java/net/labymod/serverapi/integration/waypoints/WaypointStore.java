@@ -0,0 +1,185 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.waypoints;
+
+import net.labymod.serverapi.integration.waypoints.model.ServerWaypoint;
+import net.labymod.serverapi.integration.waypoints.model.WaypointPosition;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the waypoints of a single player, keyed by their id and grouped by their dimension.
+ */
+final class WaypointStore {
+
+  private final Map<String, ServerWaypoint> waypoints = new HashMap<>();
+  private final Map<String, Map<String, ServerWaypoint>> dimensions = new HashMap<>();
+
+  synchronized void put(@NotNull Collection<ServerWaypoint> waypoints) {
+    for (ServerWaypoint waypoint : waypoints) {
+      this.putUnsafe(waypoint);
+    }
+  }
+
+  synchronized void remove(@NotNull String id) {
+    this.unindex(this.waypoints.remove(id));
+  }
+
+  synchronized void clear() {
+    this.waypoints.clear();
+    this.dimensions.clear();
+  }
+
+  /**
+   * Moves the stored waypoint to the provided position.
+   *
+   * @param position the new position
+   * @return the moved waypoint, null if no waypoint with the id is stored
+   */
+  synchronized @Nullable ServerWaypoint move(@NotNull WaypointPosition position) {
+    ServerWaypoint waypoint = this.waypoints.get(position.getId());
+    if (waypoint == null) {
+      return null;
+    }
+
+    ServerWaypoint moved = position.applyTo(waypoint);
+    this.putUnsafe(moved);
+    return moved;
+  }
+
+  synchronized @Nullable ServerWaypoint get(@NotNull String id) {
+    return this.waypoints.get(id);
+  }
+
+  synchronized @NotNull List<ServerWaypoint> getWaypoints() {
+    return new ArrayList<>(this.waypoints.values());
+  }
+
+  /**
+   * @param dimension the dimension of the waypoints
+   * @return the stored waypoints of the provided dimension, not including waypoints without a
+   * dimension if the provided dimension is not {@code null}
+   */
+  synchronized @NotNull List<ServerWaypoint> getWaypoints(@Nullable String dimension) {
+    Map<String, ServerWaypoint> bucket = this.dimensions.get(dimension);
+    return bucket != null ? new ArrayList<>(bucket.values()) : new ArrayList<>();
+  }
+
+  /**
+   * @param dimension the dimension to exclude
+   * @return the stored waypoints that have a dimension other than the provided dimension
+   */
+  synchronized @NotNull List<ServerWaypoint> getWaypointsOutside(@Nullable String dimension) {
+    List<ServerWaypoint> waypoints = new ArrayList<>();
+    for (Map.Entry<String, Map<String, ServerWaypoint>> entry : this.dimensions.entrySet()) {
+      if (entry.getKey() != null && !entry.getKey().equals(dimension)) {
+        waypoints.addAll(entry.getValue().values());
+      }
+    }
+
+    return waypoints;
+  }
+
+  /**
+   * Replaces the stored waypoints with the provided waypoints.
+   *
+   * @param waypoints the waypoints the player should have
+   * @return the waypoints that were added or changed and the ids of the waypoints that were removed
+   */
+  synchronized @NotNull Delta sync(@NotNull Collection<ServerWaypoint> waypoints) {
+    Map<String, ServerWaypoint> desired = new LinkedHashMap<>();
+    for (ServerWaypoint waypoint : waypoints) {
+      desired.put(waypoint.getId(), waypoint);
+    }
+
+    List<String> removed = new ArrayList<>();
+    Iterator<Map.Entry<String, ServerWaypoint>> iterator = this.waypoints.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, ServerWaypoint> entry = iterator.next();
+      if (!desired.containsKey(entry.getKey())) {
+        removed.add(entry.getKey());
+        iterator.remove();
+        this.unindex(entry.getValue());
+      }
+    }
+
+    List<ServerWaypoint> changed = new ArrayList<>();
+    for (ServerWaypoint waypoint : desired.values()) {
+      ServerWaypoint previous = this.putUnsafe(waypoint);
+      if (!waypoint.contentEquals(previous)) {
+        changed.add(waypoint);
+      }
+    }
+
+    return new Delta(changed, removed);
+  }
+
+  private ServerWaypoint putUnsafe(ServerWaypoint waypoint) {
+    ServerWaypoint previous = this.waypoints.put(waypoint.getId(), waypoint);
+    this.unindex(previous);
+    this.dimensions.computeIfAbsent(waypoint.getDimension(), dimension -> new HashMap<>())
+        .put(waypoint.getId(), waypoint);
+    return previous;
+  }
+
+  private void unindex(ServerWaypoint waypoint) {
+    if (waypoint == null) {
+      return;
+    }
+
+    Map<String, ServerWaypoint> bucket = this.dimensions.get(waypoint.getDimension());
+    if (bucket != null && bucket.remove(waypoint.getId()) != null && bucket.isEmpty()) {
+      this.dimensions.remove(waypoint.getDimension());
+    }
+  }
+
+  static final class Delta {
+
+    private final List<ServerWaypoint> changed;
+    private final List<String> removed;
+
+    private Delta(List<ServerWaypoint> changed, List<String> removed) {
+      this.changed = Collections.unmodifiableList(changed);
+      this.removed = Collections.unmodifiableList(removed);
+    }
+
+    @NotNull List<ServerWaypoint> changed() {
+      return this.changed;
+    }
+
+    @NotNull List<String> removed() {
+      return this.removed;
+    }
+  }
+}
@@ -26,21 +26,75 @@ package net.labymod.serverapi.integration.waypoints;
 
 import com.google.auto.service.AutoService;
 import net.labymod.serverapi.api.packet.Direction;
+import net.labymod.serverapi.api.packet.Packet;
 import net.labymod.serverapi.core.AbstractLabyModPlayer;
 import net.labymod.serverapi.core.AbstractLabyModProtocolService;
 import net.labymod.serverapi.core.AddonProtocol;
 import net.labymod.serverapi.core.integration.LabyModIntegrationPlayer;
 import net.labymod.serverapi.core.integration.LabyModProtocolIntegration;
+import net.labymod.serverapi.integration.common.capability.ClientCapabilities;
+import net.labymod.serverapi.integration.common.metrics.Histogram;
+import net.labymod.serverapi.integration.common.metrics.IntegrationMetrics;
+import net.labymod.serverapi.integration.common.packet.EncodedPacket;
+import net.labymod.serverapi.integration.common.passthrough.PayloadPassthrough;
+import net.labymod.serverapi.integration.common.queue.BandwidthBudget;
+import net.labymod.serverapi.integration.common.queue.OutboundPacketQueues;
+import net.labymod.serverapi.integration.common.queue.PacketPriority;
+import net.labymod.serverapi.integration.waypoints.model.ServerWaypoint;
+import net.labymod.serverapi.integration.waypoints.model.WaypointPosition;
+import net.labymod.serverapi.integration.waypoints.packets.CompactWaypointPacket;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointBulkRemovePacket;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointCapabilitiesPacket;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointClearPacket;
 import net.labymod.serverapi.integration.waypoints.packets.WaypointDimensionPacket;
 import net.labymod.serverapi.integration.waypoints.packets.WaypointPacket;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointPositionPacket;
 import net.labymod.serverapi.integration.waypoints.packets.WaypointRemovePacket;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @AutoService(LabyModProtocolIntegration.class)
 public class WaypointsIntegration implements LabyModProtocolIntegration {
 
+  public static final double DEFAULT_VIEW_DISTANCE = 512;
+
+  static final int WAYPOINT_PACKET_ID = 0;
+  static final int WAYPOINT_REMOVE_PACKET_ID = 1;
+  static final int WAYPOINT_DIMENSION_PACKET_ID = 2;
+  static final int COMPACT_WAYPOINT_PACKET_ID = 3;
+  static final int WAYPOINT_CAPABILITIES_PACKET_ID = 4;
+  static final int WAYPOINT_POSITION_PACKET_ID = 5;
+  static final int WAYPOINT_BULK_REMOVE_PACKET_ID = 6;
+  static final int WAYPOINT_CLEAR_PACKET_ID = 7;
+
+  static final IntegrationMetrics METRICS = IntegrationMetrics.of("waypoints");
+  static final Histogram BROADCAST_RECIPIENTS = METRICS.histogram("broadcast.recipients");
+  private static final Histogram CREATE_PLAYER_TIME = METRICS.histogram("create_player.nanos");
+  private static final Histogram TICK_TIME = METRICS.histogram("tick.nanos");
+
+  private final WaypointSpatialIndex waypointIndex = new WaypointSpatialIndex();
+  private final Map<String, WaypointGroup> groups = new ConcurrentHashMap<>();
+  private final ClientCapabilities capabilities = new ClientCapabilities();
+  private final Set<WaypointsPlayer> pendingPositions = ConcurrentHashMap.newKeySet();
+
   private AbstractLabyModProtocolService protocolService;
   private AddonProtocol addonProtocol;
+  private OutboundPacketQueues packetQueues;
+  private PayloadPassthrough passthrough;
+  private volatile double viewDistance = DEFAULT_VIEW_DISTANCE;
+  private volatile boolean quantizeCoordinates;
+  private volatile boolean dimensionScoping;
 
   @Override
   public void initialize(AbstractLabyModProtocolService protocolService) {
@@ -51,16 +105,497 @@ public class WaypointsIntegration implements LabyModProtocolIntegration {
     this.protocolService = protocolService;
 
     this.addonProtocol = new AddonProtocol(protocolService, "waypoints");
-    this.addonProtocol.registerPacket(0, WaypointPacket.class, Direction.CLIENTBOUND);
-    this.addonProtocol.registerPacket(1, WaypointRemovePacket.class, Direction.CLIENTBOUND);
-    this.addonProtocol.registerPacket(2, WaypointDimensionPacket.class, Direction.CLIENTBOUND);
+    this.addonProtocol.registerPacket(
+        WAYPOINT_PACKET_ID,
+        WaypointPacket.class,
+        Direction.CLIENTBOUND
+    );
+    this.addonProtocol.registerPacket(
+        WAYPOINT_REMOVE_PACKET_ID,
+        WaypointRemovePacket.class,
+        Direction.CLIENTBOUND
+    );
+    this.addonProtocol.registerPacket(
+        WAYPOINT_DIMENSION_PACKET_ID,
+        WaypointDimensionPacket.class,
+        Direction.CLIENTBOUND
+    );
+    this.addonProtocol.registerPacket(
+        COMPACT_WAYPOINT_PACKET_ID,
+        CompactWaypointPacket.class,
+        Direction.CLIENTBOUND
+    );
+    this.addonProtocol.registerPacket(
+        WAYPOINT_CAPABILITIES_PACKET_ID,
+        WaypointCapabilitiesPacket.class,
+        Direction.SERVERBOUND,
+        (sender, packet) -> this.capabilities.put(sender, packet.getCapabilities())
+    );
+    this.addonProtocol.registerPacket(
+        WAYPOINT_POSITION_PACKET_ID,
+        WaypointPositionPacket.class,
+        Direction.CLIENTBOUND
+    );
+    this.addonProtocol.registerPacket(
+        WAYPOINT_BULK_REMOVE_PACKET_ID,
+        WaypointBulkRemovePacket.class,
+        Direction.CLIENTBOUND
+    );
+    this.addonProtocol.registerPacket(
+        WAYPOINT_CLEAR_PACKET_ID,
+        WaypointClearPacket.class,
+        Direction.CLIENTBOUND
+    );
 
     protocolService.registry().registerProtocol(this.addonProtocol);
+
+    this.packetQueues = OutboundPacketQueues.of(protocolService);
+    this.packetQueues.registerMerger(this.addonProtocol, new WaypointPacketMerger());
+    this.packetQueues.registerSplitter(this.addonProtocol, new WaypointPacketSplitter());
+    // bulk waypoint syncs must not delay more important packets of the player
+    this.packetQueues.registerPriority(
+        WaypointPacket.class,
+        WAYPOINT_PACKET_ID,
+        PacketPriority.LOW
+    );
+    this.packetQueues.registerPriority(
+        CompactWaypointPacket.class,
+        COMPACT_WAYPOINT_PACKET_ID,
+        PacketPriority.LOW
+    );
+
+    this.passthrough = new PayloadPassthrough(protocolService, this.addonProtocol)
+        .register(WAYPOINT_PACKET_ID, WaypointPacket.class)
+        .register(WAYPOINT_REMOVE_PACKET_ID, WaypointRemovePacket.class)
+        .register(WAYPOINT_DIMENSION_PACKET_ID, WaypointDimensionPacket.class);
   }
 
   @Override
   public LabyModIntegrationPlayer createIntegrationPlayer(AbstractLabyModPlayer<?> labyModPlayer) {
-    return new WaypointsPlayer(this.addonProtocol, labyModPlayer.getUniqueId());
+    long start = CREATE_PLAYER_TIME.start();
+    UUID uniqueId = labyModPlayer.getUniqueId();
+    for (WaypointGroup group : this.groups.values()) {
+      group.forget(uniqueId);
+      if (group.isGlobal()) {
+        group.subscribe(uniqueId);
+      }
+    }
+
+    WaypointsPlayer player = new WaypointsPlayer(this, this.addonProtocol, uniqueId);
+    CREATE_PLAYER_TIME.recordSince(start);
+    return player;
+  }
+
+  /**
+   * Sends all waypoint movements since the last tick to the players and group subscribers and
+   * forgets the announced capabilities of players that left. This method is intended to be called
+   * once per server tick.
+   */
+  public void tick() {
+    long start = TICK_TIME.start();
+    for (WaypointGroup group : this.groups.values()) {
+      group.flushPositions();
+    }
+
+    // only the players that moved a waypoint since the last tick
+    Iterator<WaypointsPlayer> iterator = this.pendingPositions.iterator();
+    while (iterator.hasNext()) {
+      WaypointsPlayer player = iterator.next();
+      iterator.remove();
+      if (this.protocolService.getPlayer(player.getUniqueId()) != null) {
+        player.flushWaypointPositions();
+      }
+    }
+
+    // capabilities can arrive before the player joined, so they are not cleared on join
+    this.capabilities.prune(this.protocolService, System.currentTimeMillis());
+    TICK_TIME.recordSince(start);
+  }
+
+  void markPositionsPending(WaypointsPlayer player) {
+    this.pendingPositions.add(player);
+  }
+
+  /**
+   * Moves a waypoint of the {@link #waypointIndex() waypoint index}. Every player that received
+   * the waypoint by a position update gets the new position with the next {@link #tick}, the
+   * other players get it once they are in range.
+   *
+   * @param waypointId the id of the waypoint to move
+   * @param x          the new x-coordinate of the waypoint
+   * @param y          the new y-coordinate of the waypoint
+   * @param z          the new z-coordinate of the waypoint
+   */
+  public void moveIndexedWaypoint(@NotNull String waypointId, double x, double y, double z) {
+    WaypointPosition position = new WaypointPosition(waypointId, x, y, z);
+    if (this.waypointIndex.move(position) == null) {
+      return;
+    }
+
+    for (AbstractLabyModPlayer<?> player : this.protocolService.getPlayers()) {
+      WaypointsPlayer waypointsPlayer = player.getIntegrationPlayer(WaypointsPlayer.class);
+      if (waypointsPlayer != null) {
+        waypointsPlayer.moveNearby(position);
+      }
+    }
+  }
+
+  /**
+   * Removes the waypoints with the provided ids from all players. Only waypoints that were sent to
+   * the players directly are removed, use {@link WaypointGroup#removeWaypoints} for waypoints of
+   * a group. The packets are encoded once for all players.
+   *
+   * @param waypointIds the ids of the waypoints to remove
+   */
+  public void removeWaypoints(@NotNull Collection<String> waypointIds) {
+    Objects.requireNonNull(waypointIds, "Waypoint ids cannot be null");
+    List<String> ids = new ArrayList<>(waypointIds);
+    if (ids.isEmpty()) {
+      return;
+    }
+
+    EncodedPacket[] bulkPackets = null;
+    EncodedPacket[] singlePackets = null;
+    BROADCAST_RECIPIENTS.record(this.protocolService.getPlayers().size());
+    for (AbstractLabyModPlayer<?> player : this.protocolService.getPlayers()) {
+      UUID uniqueId = player.getUniqueId();
+      WaypointsPlayer waypointsPlayer = player.getIntegrationPlayer(WaypointsPlayer.class);
+      if (waypointsPlayer != null) {
+        waypointsPlayer.forgetWaypoints(ids);
+      }
+
+      EncodedPacket[] packets;
+      if (this.isBulkRemoveSupported(uniqueId)) {
+        if (bulkPackets == null) {
+          bulkPackets = this.encodeRemovals(ids, true);
+        }
+
+        packets = bulkPackets;
+      } else {
+        if (singlePackets == null) {
+          singlePackets = this.encodeRemovals(ids, false);
+        }
+
+        packets = singlePackets;
+      }
+
+      for (EncodedPacket packet : packets) {
+        this.packetQueues().send(uniqueId, packet);
+      }
+    }
+  }
+
+  /**
+   * Removes all server waypoints from all players, see {@link WaypointsPlayer#clearWaypoints}.
+   */
+  public void clearWaypoints() {
+    for (AbstractLabyModPlayer<?> player : this.protocolService.getPlayers()) {
+      WaypointsPlayer waypointsPlayer = player.getIntegrationPlayer(WaypointsPlayer.class);
+      if (waypointsPlayer != null) {
+        waypointsPlayer.clearWaypoints();
+      }
+    }
+  }
+
+  /**
+   * Removes all waypoints of the group with the provided name, see {@link WaypointGroup#clear}.
+   *
+   * @param name the name of the group
+   */
+  public void clearGroup(@NotNull String name) {
+    Objects.requireNonNull(name, "Name cannot be null");
+    WaypointGroup group = this.groups.get(name);
+    if (group != null) {
+      group.clear();
+    }
+  }
+
+  /**
+   * Creates a new waypoint group. If the group is global, all players on the server are
+   * subscribed to it and every player joining the server is subscribed automatically.
+   *
+   * @param name   the name of the group
+   * @param global whether every player should be subscribed to the group
+   * @return the created group
+   * @throws IllegalArgumentException if a group with the provided name already exists
+   */
+  public @NotNull WaypointGroup createGroup(@NotNull String name, boolean global) {
+    Objects.requireNonNull(name, "Name cannot be null");
+    WaypointGroup group = new WaypointGroup(
+        this,
+        this.protocolService,
+        this.waypointsProtocol(),
+        name,
+        global
+    );
+
+    if (this.groups.putIfAbsent(name, group) != null) {
+      throw new IllegalArgumentException("Waypoint group " + name + " already exists");
+    }
+
+    if (global) {
+      for (AbstractLabyModPlayer<?> player : this.protocolService.getPlayers()) {
+        group.subscribe(player.getUniqueId());
+      }
+    }
+
+    return group;
+  }
+
+  /**
+   * @param name the name of the group
+   * @return the group with the provided name, null if no such group exists
+   */
+  public @Nullable WaypointGroup getGroup(@NotNull String name) {
+    return this.groups.get(name);
+  }
+
+  /**
+   * @return all existing waypoint groups
+   */
+  public @NotNull Collection<WaypointGroup> getGroups() {
+    return Collections.unmodifiableCollection(this.groups.values());
+  }
+
+  /**
+   * Removes the group with the provided name and removes its waypoints from all subscribers.
+   *
+   * @param name the name of the group
+   */
+  public void removeGroup(@NotNull String name) {
+    WaypointGroup group = this.groups.remove(name);
+    if (group == null) {
+      return;
+    }
+
+    for (AbstractLabyModPlayer<?> player : this.protocolService.getPlayers()) {
+      group.unsubscribe(player.getUniqueId());
+    }
+  }
+
+  /**
+   * @return the spatial index of the server waypoints that are sent to players based on their
+   * position, see {@link WaypointsPlayer#updatePosition}
+   */
+  public @NotNull WaypointSpatialIndex waypointIndex() {
+    return this.waypointIndex;
+  }
+
+  /**
+   * @return the radius in blocks in which indexed waypoints are sent to players
+   */
+  public double getViewDistance() {
+    return this.viewDistance;
+  }
+
+  /**
+   * Sets the radius in blocks in which indexed waypoints are sent to players. Defaults to
+   * {@link #DEFAULT_VIEW_DISTANCE}.
+   *
+   * @param viewDistance the radius in blocks
+   */
+  public void setViewDistance(double viewDistance) {
+    if (viewDistance < 0) {
+      throw new IllegalArgumentException("View distance cannot be negative");
+    }
+
+    this.viewDistance = viewDistance;
+  }
+
+  /**
+   * @return the outbound bandwidth every player has for waypoints, null if it is not limited
+   */
+  public @Nullable BandwidthBudget getBandwidthBudget() {
+    return this.packetQueues().getBandwidthBudget(this.waypointsProtocol());
+  }
+
+  /**
+   * Limits the outbound bandwidth every player has for waypoints, so large waypoint syncs, for
+   * example right after joining, are split into chunks and spread across several ticks. Only the
+   * waypoint packets are limited, all other waypoint changes keep their order but are not delayed
+   * otherwise. Requires {@link OutboundPacketQueues#flush()} to be called once per tick. Disabled
+   * by default.
+   *
+   * @param budget the budget, null to not limit the bandwidth
+   */
+  public void setBandwidthBudget(@Nullable BandwidthBudget budget) {
+    this.packetQueues().setBandwidthBudget(this.waypointsProtocol(), budget);
+  }
+
+  /**
+   * @return whether coordinates are quantized when sending waypoints in the compact encoding
+   */
+  public boolean isQuantizeCoordinates() {
+    return this.quantizeCoordinates;
+  }
+
+  /**
+   * Sets whether coordinates are quantized to {@code 1/16} of a block when sending waypoints to
+   * players that support the compact encoding. Disabled by default.
+   *
+   * @param quantizeCoordinates whether coordinates should be quantized
+   */
+  public void setQuantizeCoordinates(boolean quantizeCoordinates) {
+    this.quantizeCoordinates = quantizeCoordinates;
+  }
+
+  /**
+   * @return whether players only receive their own waypoints of the dimension they are in
+   */
+  public boolean isDimensionScoping() {
+    return this.dimensionScoping;
+  }
+
+  /**
+   * Sets whether players only receive their own waypoints of the dimension that was last set via
+   * {@link WaypointsPlayer#setDimension}. Waypoints of other dimensions are sent once the player
+   * switches to their dimension and are removed again when the player leaves it. Waypoints
+   * without a dimension and waypoints of groups are always sent. Disabled by default.
+   * <p>
+   * If enabled, the dimension has to be set every time the player changes the dimension,
+   * otherwise the player keeps the waypoints of the previous dimension. Changing the setting
+   * removes or sends the waypoints of other dimensions to the players that are already online.
+   *
+   * @param dimensionScoping whether waypoints should be scoped to the dimension of the player
+   */
+  public synchronized void setDimensionScoping(boolean dimensionScoping) {
+    if (this.dimensionScoping == dimensionScoping) {
+      return;
+    }
+
+    this.dimensionScoping = dimensionScoping;
+    if (this.protocolService == null) {
+      return;
+    }
+
+    for (AbstractLabyModPlayer<?> player : this.protocolService.getPlayers()) {
+      WaypointsPlayer waypointsPlayer = player.getIntegrationPlayer(WaypointsPlayer.class);
+      if (waypointsPlayer != null) {
+        waypointsPlayer.rescope(dimensionScoping);
+      }
+    }
+  }
+
+  /**
+   * @param uniqueId the unique id of the player
+   * @return whether the player announced support for the {@link CompactWaypointPacket}
+   */
+  public boolean isCompactEncodingSupported(@NotNull UUID uniqueId) {
+    return this.hasCapability(uniqueId, WaypointCapabilitiesPacket.COMPACT_ENCODING);
+  }
+
+  /**
+   * @param uniqueId the unique id of the player
+   * @return whether the player announced support for the {@link WaypointPositionPacket}
+   */
+  public boolean isPositionUpdateSupported(@NotNull UUID uniqueId) {
+    return this.hasCapability(uniqueId, WaypointCapabilitiesPacket.POSITION_UPDATES);
+  }
+
+  /**
+   * @param uniqueId the unique id of the player
+   * @return whether the player announced support for the {@link WaypointBulkRemovePacket}
+   */
+  public boolean isBulkRemoveSupported(@NotNull UUID uniqueId) {
+    return this.hasCapability(uniqueId, WaypointCapabilitiesPacket.BULK_REMOVE);
+  }
+
+  /**
+   * @param uniqueId the unique id of the player
+   * @return whether the player announced support for the {@link WaypointClearPacket}
+   */
+  public boolean isClearSupported(@NotNull UUID uniqueId) {
+    return this.hasCapability(uniqueId, WaypointCapabilitiesPacket.CLEAR);
+  }
+
+  private boolean hasCapability(UUID uniqueId, int capability) {
+    return this.capabilities.supports(uniqueId, capability);
+  }
+
+  /**
+   * Creates the packet to send the provided waypoints to the provided player, using the compact
+   * encoding if the player supports it.
+   */
+  @NotNull Packet createWaypointPacket(UUID recipient, List<ServerWaypoint> waypoints) {
+    // the packet might be encoded on another thread later, the caller may still change the list
+    List<ServerWaypoint> copy = new ArrayList<>(waypoints);
+    if (this.isCompactEncodingSupported(recipient)) {
+      return new CompactWaypointPacket(copy, this.quantizeCoordinates);
+    }
+
+    return new WaypointPacket(copy);
+  }
+
+  /**
+   * Encodes the packets to remove the provided waypoints, either a single bulk remove packet or
+   * one remove packet per waypoint.
+   */
+  @NotNull EncodedPacket[] encodeRemovals(List<String> waypointIds, boolean bulk) {
+    if (bulk && waypointIds.size() > 1) {
+      return new EncodedPacket[] {EncodedPacket.encode(
+          this.addonProtocol,
+          WAYPOINT_BULK_REMOVE_PACKET_ID,
+          new WaypointBulkRemovePacket(waypointIds)
+      )};
+    }
+
+    EncodedPacket[] packets = new EncodedPacket[waypointIds.size()];
+    for (int i = 0; i < packets.length; i++) {
+      packets[i] = EncodedPacket.encode(
+          this.addonProtocol,
+          WAYPOINT_REMOVE_PACKET_ID,
+          new WaypointRemovePacket(waypointIds.get(i))
+      );
+    }
+
+    return packets;
+  }
+
+  @NotNull EncodedPacket encodePositions(List<WaypointPosition> positions) {
+    return EncodedPacket.encode(
+        this.addonProtocol,
+        WAYPOINT_POSITION_PACKET_ID,
+        new WaypointPositionPacket(positions)
+    );
+  }
+
+  @NotNull EncodedPacket encodeWaypoints(List<ServerWaypoint> waypoints, boolean compact) {
+    if (compact) {
+      return EncodedPacket.encode(
+          this.addonProtocol,
+          COMPACT_WAYPOINT_PACKET_ID,
+          new CompactWaypointPacket(waypoints, this.quantizeCoordinates)
+      );
+    }
+
+    return EncodedPacket.encode(
+        this.addonProtocol,
+        WAYPOINT_PACKET_ID,
+        new WaypointPacket(waypoints)
+    );
+  }
+
+  @NotNull OutboundPacketQueues packetQueues() {
+    if (this.packetQueues == null) {
+      throw new IllegalStateException("WaypointsIntegration is not initialized yet");
+    }
+
+    return this.packetQueues;
+  }
+
+  /**
+   * Returns the passthrough forwarding received waypoint, remove and dimension payloads without
+   * decoding them, intended for proxies that pass the waypoints of their backend servers on to the
+   * players.
+   *
+   * @return the waypoints passthrough
+   */
+  public @NotNull PayloadPassthrough passthrough() {
+    if (this.passthrough == null) {
+      throw new IllegalStateException("WaypointsIntegration is not initialized yet");
+    }
+
+    return this.passthrough;
   }
 
   public @NotNull AddonProtocol waypointsProtocol() {
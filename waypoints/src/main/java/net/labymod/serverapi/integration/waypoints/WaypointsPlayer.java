@@ -24,24 +24,51 @@
 
 package net.labymod.serverapi.integration.waypoints;
 
+import net.labymod.serverapi.api.packet.Packet;
 import net.labymod.serverapi.core.AddonProtocol;
 import net.labymod.serverapi.core.integration.LabyModIntegrationPlayer;
+import net.labymod.serverapi.integration.common.metrics.Counter;
 import net.labymod.serverapi.integration.waypoints.model.ServerWaypoint;
+import net.labymod.serverapi.integration.waypoints.model.WaypointPosition;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointBulkRemovePacket;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointClearPacket;
 import net.labymod.serverapi.integration.waypoints.packets.WaypointDimensionPacket;
-import net.labymod.serverapi.integration.waypoints.packets.WaypointPacket;
+import net.labymod.serverapi.integration.waypoints.packets.WaypointPositionPacket;
 import net.labymod.serverapi.integration.waypoints.packets.WaypointRemovePacket;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 public class WaypointsPlayer implements LabyModIntegrationPlayer {
 
+  private static final Counter DIMENSION_CHANGES =
+      WaypointsIntegration.METRICS.counter("dimension.changes");
+
+  private final WaypointsIntegration integration;
   private final AddonProtocol addonProtocol;
   private final UUID uniqueId;
+  // own waypoints take precedence over nearby waypoints of the index with the same id
+  private final WaypointStore store = new WaypointStore();
+  private final WaypointStore nearbyStore = new WaypointStore();
+  private final WaypointPositionQueue positionQueue = new WaypointPositionQueue();
+
+  private volatile String dimension;
 
-  protected WaypointsPlayer(AddonProtocol addonProtocol, UUID uniqueId) {
+  protected WaypointsPlayer(
+      WaypointsIntegration integration,
+      AddonProtocol addonProtocol,
+      UUID uniqueId
+  ) {
+    this.integration = integration;
     this.addonProtocol = addonProtocol;
     this.uniqueId = uniqueId;
   }
@@ -56,7 +83,8 @@ public class WaypointsPlayer implements LabyModIntegrationPlayer {
       @Nullable String dimension,
       @NotNull WaypointDimensionPacket.Until until
   ) {
-    this.addonProtocol.sendPacket(this.uniqueId, new WaypointDimensionPacket(dimension, until));
+    this.sendPacket(new WaypointDimensionPacket(dimension, until));
+    this.changeDimension(dimension);
   }
 
   /**
@@ -66,14 +94,24 @@ public class WaypointsPlayer implements LabyModIntegrationPlayer {
    * @param dimension the dimension to use (if null, the current vanilla dimension is used)
    */
   public void setDimension(@Nullable String dimension) {
-    this.addonProtocol.sendPacket(this.uniqueId, new WaypointDimensionPacket(dimension));
+    this.sendPacket(new WaypointDimensionPacket(dimension));
+    this.changeDimension(dimension);
   }
 
   /**
    * Resets the dimension of the player to the current dimension the player is on.
    */
   public void resetDimension() {
-    this.addonProtocol.sendPacket(this.uniqueId, new WaypointDimensionPacket(null));
+    this.sendPacket(new WaypointDimensionPacket(null));
+    this.changeDimension(null);
+  }
+
+  /**
+   * @return the dimension that was last set via {@link #setDimension}, null if it was never set
+   * or {@link #resetDimension reset}
+   */
+  public @Nullable String getDimension() {
+    return this.dimension;
   }
 
   /**
@@ -91,7 +129,7 @@ public class WaypointsPlayer implements LabyModIntegrationPlayer {
    * @param waypoints The waypoints to add or update
    */
   public void sendWaypoints(ServerWaypoint... waypoints) {
-    this.addonProtocol.sendPacket(this.uniqueId, new WaypointPacket(waypoints));
+    this.sendWaypoints(Arrays.asList(waypoints));
   }
 
   /**
@@ -100,7 +138,167 @@ public class WaypointsPlayer implements LabyModIntegrationPlayer {
    * @param waypoints The waypoints to add or update
    */
   public void sendWaypoints(List<ServerWaypoint> waypoints) {
-    this.addonProtocol.sendPacket(this.uniqueId, new WaypointPacket(waypoints));
+    this.store.put(waypoints);
+    List<ServerWaypoint> visible = this.filterVisible(waypoints);
+    if (!visible.isEmpty()) {
+      this.sendPacket(this.integration.createWaypointPacket(this.uniqueId, visible));
+    }
+  }
+
+  /**
+   * Replaces all waypoints of the player with the provided waypoints. Only waypoints that the
+   * player does not have yet or that changed since they were sent are sent again, and only the
+   * waypoints that are not part of the provided waypoints anymore are removed.
+   *
+   * @param waypoints The waypoints the player should have
+   */
+  public void syncWaypoints(Collection<ServerWaypoint> waypoints) {
+    WaypointStore.Delta delta = this.store.sync(waypoints);
+    List<ServerWaypoint> changed = new ArrayList<>(delta.changed());
+    List<String> removed = new ArrayList<>(delta.removed().size());
+    for (String removedId : delta.removed()) {
+      // the nearby waypoint was hidden by the own waypoint with the same id
+      ServerWaypoint nearby = this.nearbyStore.get(removedId);
+      if (nearby == null) {
+        removed.add(removedId);
+      } else {
+        changed.add(nearby);
+      }
+    }
+
+    this.sendDelta(changed, removed);
+  }
+
+  /**
+   * Moves a waypoint that was already sent to the player. The movement is sent with the next
+   * {@link WaypointsIntegration#tick} or {@link #flushWaypointPositions}, multiple movements of
+   * the same waypoint in the meantime are merged into one. Players that support it only receive
+   * the new position instead of the full waypoint. Waypoints of the
+   * {@link WaypointsIntegration#waypointIndex() waypoint index} are shared with other players and
+   * are moved with {@link WaypointsIntegration#moveIndexedWaypoint} for all of them.
+   *
+   * @param waypointId the id of the waypoint to move
+   * @param x          the new x-coordinate of the waypoint
+   * @param y          the new y-coordinate of the waypoint
+   * @param z          the new z-coordinate of the waypoint
+   */
+  public void moveWaypoint(@NotNull String waypointId, double x, double y, double z) {
+    WaypointPosition position = new WaypointPosition(waypointId, x, y, z);
+    if (this.store.move(position) != null) {
+      this.positionQueue.move(position);
+      this.integration.markPositionsPending(this);
+    } else if (this.nearbyStore.get(waypointId) != null) {
+      this.integration.moveIndexedWaypoint(waypointId, x, y, z);
+    }
+  }
+
+  /**
+   * Moves a waypoint of the waypoint index that was sent to the player by a position update.
+   *
+   * @param position the new position of the waypoint
+   */
+  void moveNearby(@NotNull WaypointPosition position) {
+    if (this.nearbyStore.move(position) == null) {
+      return;
+    }
+
+    // the own waypoint with the same id hides the nearby one
+    if (this.store.get(position.getId()) == null) {
+      this.positionQueue.move(position);
+      this.integration.markPositionsPending(this);
+    }
+  }
+
+  /**
+   * Sends all pending waypoint movements to the player.
+   */
+  public void flushWaypointPositions() {
+    List<WaypointPosition> positions = this.positionQueue.drain();
+    if (positions.isEmpty()) {
+      return;
+    }
+
+    List<WaypointPosition> visiblePositions = new ArrayList<>(positions.size());
+    List<ServerWaypoint> waypoints = new ArrayList<>(positions.size());
+    for (WaypointPosition position : positions) {
+      ServerWaypoint waypoint = this.getWaypoint(position.getId());
+      if (waypoint != null && this.isVisible(waypoint)) {
+        visiblePositions.add(position);
+        waypoints.add(waypoint);
+      }
+    }
+
+    if (visiblePositions.isEmpty()) {
+      return;
+    }
+
+    if (this.integration.isPositionUpdateSupported(this.uniqueId)) {
+      this.sendPacket(new WaypointPositionPacket(visiblePositions));
+    } else {
+      this.sendPacket(this.integration.createWaypointPacket(this.uniqueId, waypoints));
+    }
+  }
+
+  /**
+   * Updates the position of the player and sends all waypoints of the
+   * {@link WaypointsIntegration#waypointIndex() waypoint index} within the
+   * {@link WaypointsIntegration#getViewDistance() view distance}. Waypoints that were sent by a
+   * previous update and are now out of range are removed, waypoints that are still in range and
+   * did not change are not sent again. The nearby waypoints are tracked separately from the
+   * waypoints sent to the player directly, which take precedence if they have the same id.
+   *
+   * @param dimension the dimension the player is in
+   * @param x         the x-coordinate of the player
+   * @param y         the y-coordinate of the player
+   * @param z         the z-coordinate of the player
+   */
+  public void updatePosition(@NotNull String dimension, double x, double y, double z) {
+    this.updatePosition(dimension, x, y, z, this.integration.getViewDistance());
+  }
+
+  /**
+   * Updates the position of the player and sends all waypoints of the
+   * {@link WaypointsIntegration#waypointIndex() waypoint index} within the provided radius.
+   * Waypoints that were sent by a previous update and are now out of range are removed, waypoints
+   * that are still in range and did not change are not sent again.
+   *
+   * @param dimension the dimension the player is in
+   * @param x         the x-coordinate of the player
+   * @param y         the y-coordinate of the player
+   * @param z         the z-coordinate of the player
+   * @param radius    the radius in blocks
+   */
+  public void updatePosition(
+      @NotNull String dimension,
+      double x,
+      double y,
+      double z,
+      double radius
+  ) {
+    List<ServerWaypoint> nearby = this.integration.waypointIndex().query(
+        dimension,
+        x,
+        y,
+        z,
+        radius
+    );
+
+    WaypointStore.Delta delta = this.nearbyStore.sync(nearby);
+    List<ServerWaypoint> changed = new ArrayList<>(delta.changed().size());
+    for (ServerWaypoint waypoint : delta.changed()) {
+      if (this.store.get(waypoint.getId()) == null) {
+        changed.add(waypoint);
+      }
+    }
+
+    List<String> removed = new ArrayList<>(delta.removed().size());
+    for (String removedId : delta.removed()) {
+      if (this.store.get(removedId) == null) {
+        removed.add(removedId);
+      }
+    }
+
+    this.sendDelta(changed, removed);
   }
 
   /**
@@ -109,7 +307,53 @@ public class WaypointsPlayer implements LabyModIntegrationPlayer {
    * @param waypointId The id of the waypoint to remove
    */
   public void removeWaypoint(String waypointId) {
-    this.addonProtocol.sendPacket(this.uniqueId, new WaypointRemovePacket(waypointId));
+    this.store.remove(waypointId);
+    this.nearbyStore.remove(waypointId);
+    this.sendPacket(new WaypointRemovePacket(waypointId));
+  }
+
+  /**
+   * Remove the waypoints with the provided ids. Players that support it receive a single packet
+   * for all waypoints.
+   *
+   * @param waypointIds The ids of the waypoints to remove
+   */
+  public void removeWaypoints(@NotNull Collection<String> waypointIds) {
+    Objects.requireNonNull(waypointIds, "Waypoint ids cannot be null");
+    List<String> ids = new ArrayList<>(waypointIds);
+    this.forgetWaypoints(ids);
+    this.sendRemovals(ids);
+  }
+
+  /**
+   * Removes all server waypoints from the player, including the waypoints of groups. The player
+   * is unsubscribed from all groups. Players that support it receive a single packet, all other
+   * players receive the removals of the waypoints they have.
+   */
+  public void clearWaypoints() {
+    Set<String> ids = new LinkedHashSet<>();
+    for (ServerWaypoint waypoint : this.store.getWaypoints()) {
+      ids.add(waypoint.getId());
+    }
+
+    for (ServerWaypoint waypoint : this.nearbyStore.getWaypoints()) {
+      ids.add(waypoint.getId());
+    }
+
+    this.store.clear();
+    this.nearbyStore.clear();
+    this.positionQueue.drain();
+
+    boolean clearSupported = this.integration.isClearSupported(this.uniqueId);
+    for (WaypointGroup group : this.integration.getGroups()) {
+      group.unsubscribe(this.uniqueId, !clearSupported);
+    }
+
+    if (clearSupported) {
+      this.sendPacket(new WaypointClearPacket());
+    } else {
+      this.sendRemovals(new ArrayList<>(ids));
+    }
   }
 
   /**
@@ -118,7 +362,199 @@ public class WaypointsPlayer implements LabyModIntegrationPlayer {
    * @param waypoint The waypoint to remove
    */
   public void removeWaypoint(ServerWaypoint waypoint) {
-    this.addonProtocol.sendPacket(this.uniqueId, new WaypointRemovePacket(waypoint));
+    this.removeWaypoint(waypoint.getId());
+  }
+
+  /**
+   * Subscribes the player to the provided group, see {@link WaypointGroup#subscribe}.
+   *
+   * @param group the group to subscribe to
+   */
+  public void subscribe(@NotNull WaypointGroup group) {
+    group.subscribe(this.uniqueId);
+  }
+
+  /**
+   * Unsubscribes the player from the provided group, see {@link WaypointGroup#unsubscribe}.
+   *
+   * @param group the group to unsubscribe from
+   */
+  public void unsubscribe(@NotNull WaypointGroup group) {
+    group.unsubscribe(this.uniqueId);
+  }
+
+  /**
+   * @return the waypoints that were sent to the player and not removed since. Waypoints of
+   * subscribed groups and nearby waypoints sent by {@link #updatePosition} are not included
+   */
+  public @NotNull List<ServerWaypoint> getWaypoints() {
+    return this.store.getWaypoints();
+  }
+
+  @NotNull UUID getUniqueId() {
+    return this.uniqueId;
+  }
+
+  void forgetWaypoints(List<String> waypointIds) {
+    for (String waypointId : waypointIds) {
+      this.store.remove(waypointId);
+      this.nearbyStore.remove(waypointId);
+    }
+  }
+
+  private @Nullable ServerWaypoint getWaypoint(String waypointId) {
+    ServerWaypoint waypoint = this.store.get(waypointId);
+    return waypoint != null ? waypoint : this.nearbyStore.get(waypointId);
+  }
+
+  private void sendDelta(List<ServerWaypoint> changed, List<String> removed) {
+    this.sendRemovals(removed);
+    List<ServerWaypoint> visible = this.filterVisible(changed);
+    if (!visible.isEmpty()) {
+      this.sendPacket(this.integration.createWaypointPacket(this.uniqueId, visible));
+    }
+  }
+
+  /**
+   * Removes the waypoints of the previous dimension and sends the waypoints of the new dimension
+   * if {@link WaypointsIntegration#isDimensionScoping() dimension scoping} is enabled.
+   */
+  private synchronized void changeDimension(@Nullable String dimension) {
+    String previous = this.dimension;
+    this.dimension = dimension;
+    if (!this.integration.isDimensionScoping() || Objects.equals(previous, dimension)) {
+      return;
+    }
+
+    DIMENSION_CHANGES.increment();
+
+    List<ServerWaypoint> evicted;
+    List<ServerWaypoint> added;
+    if (previous == null) {
+      // the player had the waypoints of all dimensions
+      evicted = this.merge(
+          this.store.getWaypointsOutside(dimension),
+          this.nearbyStore.getWaypointsOutside(dimension)
+      );
+      added = Collections.emptyList();
+    } else if (dimension == null) {
+      // the player needs the waypoints of all dimensions
+      evicted = Collections.emptyList();
+      added = this.merge(
+          this.store.getWaypointsOutside(previous),
+          this.nearbyStore.getWaypointsOutside(previous)
+      );
+    } else {
+      evicted = this.merge(
+          this.store.getWaypoints(previous),
+          this.nearbyStore.getWaypoints(previous)
+      );
+      added = this.merge(
+          this.store.getWaypoints(dimension),
+          this.nearbyStore.getWaypoints(dimension)
+      );
+    }
+
+    this.sendRemovals(ids(evicted));
+    if (!added.isEmpty()) {
+      this.sendPacket(this.integration.createWaypointPacket(this.uniqueId, added));
+    }
+  }
+
+  /**
+   * Removes the waypoints outside the dimension of the player if
+   * {@link WaypointsIntegration#isDimensionScoping() dimension scoping} was enabled, or sends them
+   * if it was disabled.
+   *
+   * @param dimensionScoping whether dimension scoping is enabled now
+   */
+  synchronized void rescope(boolean dimensionScoping) {
+    String dimension = this.dimension;
+    if (dimension == null) {
+      // the player has the waypoints of all dimensions either way
+      return;
+    }
+
+    List<ServerWaypoint> outside = this.merge(
+        this.store.getWaypointsOutside(dimension),
+        this.nearbyStore.getWaypointsOutside(dimension)
+    );
+    if (outside.isEmpty()) {
+      return;
+    }
+
+    if (dimensionScoping) {
+      this.sendRemovals(ids(outside));
+    } else {
+      this.sendPacket(this.integration.createWaypointPacket(this.uniqueId, outside));
+    }
+  }
+
+  private List<ServerWaypoint> merge(List<ServerWaypoint> own, List<ServerWaypoint> nearby) {
+    if (nearby.isEmpty()) {
+      return own;
+    }
+
+    List<ServerWaypoint> waypoints = new ArrayList<>(own);
+    for (ServerWaypoint waypoint : nearby) {
+      if (this.store.get(waypoint.getId()) == null) {
+        waypoints.add(waypoint);
+      }
+    }
+
+    return waypoints;
+  }
+
+  private static List<String> ids(List<ServerWaypoint> waypoints) {
+    List<String> waypointIds = new ArrayList<>(waypoints.size());
+    for (ServerWaypoint waypoint : waypoints) {
+      waypointIds.add(waypoint.getId());
+    }
+
+    return waypointIds;
+  }
+
+  private void sendRemovals(List<String> waypointIds) {
+    if (waypointIds.isEmpty()) {
+      return;
+    }
+
+    if (waypointIds.size() > 1 && this.integration.isBulkRemoveSupported(this.uniqueId)) {
+      this.sendPacket(new WaypointBulkRemovePacket(new ArrayList<>(waypointIds)));
+      return;
+    }
+
+    for (String waypointId : waypointIds) {
+      this.sendPacket(new WaypointRemovePacket(waypointId));
+    }
+  }
+
+  private List<ServerWaypoint> filterVisible(List<ServerWaypoint> waypoints) {
+    String dimension = this.dimension;
+    if (!this.integration.isDimensionScoping() || dimension == null) {
+      return waypoints;
+    }
+
+    List<ServerWaypoint> visible = new ArrayList<>(waypoints.size());
+    for (ServerWaypoint waypoint : waypoints) {
+      if (this.isVisible(waypoint)) {
+        visible.add(waypoint);
+      }
+    }
+
+    return visible;
+  }
+
+  private boolean isVisible(ServerWaypoint waypoint) {
+    String dimension = this.dimension;
+    return !this.integration.isDimensionScoping()
+        || dimension == null
+        || waypoint.getDimension() == null
+        || dimension.equals(waypoint.getDimension());
+  }
+
+  private void sendPacket(Packet packet) {
+    this.integration.packetQueues().queue(this.uniqueId).enqueue(this.addonProtocol, packet);
   }
 
   @Override
@@ -0,0 +1,227 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.waypoints.model;
+
+import net.labymod.serverapi.integration.waypoints.model.ServerWaypoint.ServerWaypointIconType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A list of waypoints that stores the properties of all waypoints in parallel arrays instead of
+ * one {@link ServerWaypoint} object per waypoint, intended for large sets of waypoints that are
+ * kept in memory. {@link #get(int)} creates a new {@link ServerWaypoint} on each call, the
+ * properties of a single waypoint can be accessed without creating one via {@link #getId(int)},
+ * {@link #getX(int)} and so on.
+ * <p>
+ * Waypoints can only be added, replaced or cleared. This class is not thread-safe.
+ */
+public final class PackedWaypointList extends AbstractList<ServerWaypoint>
+    implements RandomAccess {
+
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final ServerWaypointIconType[] ICON_TYPES = ServerWaypointIconType.values();
+
+  private String[] ids;
+  private String[] names;
+  private double[] coordinates;
+  private String[] dimensions;
+  private byte[] iconTypes;
+  private String[] icons;
+  private int[] colors;
+  private final BitSet hasColor = new BitSet();
+  private int size;
+
+  public PackedWaypointList() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public PackedWaypointList(int initialCapacity) {
+    if (initialCapacity < 0) {
+      throw new IllegalArgumentException("Initial capacity cannot be negative");
+    }
+
+    this.ids = new String[initialCapacity];
+    this.names = new String[initialCapacity];
+    this.coordinates = new double[initialCapacity * 3];
+    this.dimensions = new String[initialCapacity];
+    this.iconTypes = new byte[initialCapacity];
+    this.icons = new String[initialCapacity];
+    this.colors = new int[initialCapacity];
+  }
+
+  /**
+   * @param waypoints the waypoints to add
+   * @return a new packed list containing the provided waypoints
+   */
+  public static @NotNull PackedWaypointList of(@NotNull Collection<ServerWaypoint> waypoints) {
+    Objects.requireNonNull(waypoints, "Waypoints cannot be null");
+    PackedWaypointList list = new PackedWaypointList(waypoints.size());
+    list.addAll(waypoints);
+    return list;
+  }
+
+  @Override
+  public boolean add(@NotNull ServerWaypoint waypoint) {
+    Objects.requireNonNull(waypoint, "Waypoint cannot be null");
+    if (this.size == this.ids.length) {
+      this.grow();
+    }
+
+    this.store(this.size++, waypoint);
+    this.modCount++;
+    return true;
+  }
+
+  @Override
+  public @NotNull ServerWaypoint set(int index, @NotNull ServerWaypoint waypoint) {
+    Objects.requireNonNull(waypoint, "Waypoint cannot be null");
+    ServerWaypoint previous = this.get(index);
+    this.store(index, waypoint);
+    return previous;
+  }
+
+  @Override
+  public @NotNull ServerWaypoint get(int index) {
+    this.checkIndex(index);
+    int offset = index * 3;
+    return new ServerWaypoint(
+        this.ids[index],
+        this.names[index],
+        this.coordinates[offset],
+        this.coordinates[offset + 1],
+        this.coordinates[offset + 2],
+        this.dimensions[index],
+        ICON_TYPES[this.iconTypes[index]],
+        this.icons[index],
+        this.colors[index],
+        this.hasColor.get(index)
+    );
+  }
+
+  public @NotNull String getId(int index) {
+    this.checkIndex(index);
+    return this.ids[index];
+  }
+
+  public double getX(int index) {
+    this.checkIndex(index);
+    return this.coordinates[index * 3];
+  }
+
+  public double getY(int index) {
+    this.checkIndex(index);
+    return this.coordinates[index * 3 + 1];
+  }
+
+  public double getZ(int index) {
+    this.checkIndex(index);
+    return this.coordinates[index * 3 + 2];
+  }
+
+  public @Nullable String getDimension(int index) {
+    this.checkIndex(index);
+    return this.dimensions[index];
+  }
+
+  /**
+   * @param id the id of the waypoint
+   * @return the index of the waypoint with the provided id, or {@code -1} if there is none
+   */
+  public int indexOfId(@NotNull String id) {
+    Objects.requireNonNull(id, "Id cannot be null");
+    for (int index = 0; index < this.size; index++) {
+      if (id.equals(this.ids[index])) {
+        return index;
+      }
+    }
+
+    return -1;
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(this.ids, 0, this.size, null);
+    Arrays.fill(this.names, 0, this.size, null);
+    Arrays.fill(this.dimensions, 0, this.size, null);
+    Arrays.fill(this.icons, 0, this.size, null);
+    this.hasColor.clear();
+    this.size = 0;
+    this.modCount++;
+  }
+
+  /**
+   * Shrinks the arrays to the current size of the list.
+   */
+  public void trimToSize() {
+    this.resize(this.size);
+  }
+
+  private void store(int index, ServerWaypoint waypoint) {
+    int offset = index * 3;
+    this.ids[index] = waypoint.getId();
+    this.names[index] = waypoint.getName();
+    this.coordinates[offset] = waypoint.getX();
+    this.coordinates[offset + 1] = waypoint.getY();
+    this.coordinates[offset + 2] = waypoint.getZ();
+    this.dimensions[index] = waypoint.getDimension();
+    this.iconTypes[index] = (byte) waypoint.iconType().ordinal();
+    this.icons[index] = waypoint.getIcon();
+    this.colors[index] = waypoint.getColor(0);
+    this.hasColor.set(index, waypoint.hasColor());
+  }
+
+  private void grow() {
+    int capacity = this.ids.length;
+    this.resize(Math.max(DEFAULT_CAPACITY, capacity + (capacity >> 1)));
+  }
+
+  private void resize(int capacity) {
+    this.ids = Arrays.copyOf(this.ids, capacity);
+    this.names = Arrays.copyOf(this.names, capacity);
+    this.coordinates = Arrays.copyOf(this.coordinates, capacity * 3);
+    this.dimensions = Arrays.copyOf(this.dimensions, capacity);
+    this.iconTypes = Arrays.copyOf(this.iconTypes, capacity);
+    this.icons = Arrays.copyOf(this.icons, capacity);
+    this.colors = Arrays.copyOf(this.colors, capacity);
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= this.size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+    }
+  }
+}
@@ -30,6 +30,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class ServerWaypoint {
 
@@ -41,7 +42,9 @@ public class ServerWaypoint {
   private final String dimension;
   private final ServerWaypointIconType iconType;
   private final String icon;
-  private final Integer color;
+  private final int color;
+  private final boolean hasColor;
+  private final int hash;
 
   /**
    * Use the {@link Builder} to create a new instance of this class instead.
@@ -57,6 +60,25 @@ public class ServerWaypoint {
       @NotNull ServerWaypointIconType iconType,
       @Nullable String icon,
       @Nullable Integer color
+  ) {
+    this(id, name, x, y, z, dimension, iconType, icon, color != null ? color : 0, color != null);
+  }
+
+  /**
+   * Use the {@link Builder} to create a new instance of this class instead.
+   */
+  @ApiStatus.Internal
+  public ServerWaypoint(
+      @NotNull String id,
+      @NotNull String name,
+      double x,
+      double y,
+      double z,
+      @Nullable String dimension,
+      @NotNull ServerWaypointIconType iconType,
+      @Nullable String icon,
+      int color,
+      boolean hasColor
   ) {
     Objects.requireNonNull(id, "Id cannot be null");
     Objects.requireNonNull(name, "Name cannot be null");
@@ -65,10 +87,12 @@ public class ServerWaypoint {
     this.x = x;
     this.y = y;
     this.z = z;
-    this.dimension = dimension;
+    this.dimension = WaypointStrings.intern(dimension);
     this.iconType = iconType;
-    this.icon = icon;
-    this.color = color;
+    this.icon = WaypointStrings.intern(icon);
+    this.color = hasColor ? color : 0;
+    this.hasColor = hasColor;
+    this.hash = id.hashCode();
   }
 
   public static @NotNull Builder builder() {
@@ -139,7 +163,22 @@ public class ServerWaypoint {
    * @return the color of the waypoint. The color is represented as an RGB integer.
    */
   public @Nullable Integer getColor() {
-    return this.color;
+    return this.hasColor ? this.color : null;
+  }
+
+  /**
+   * @param defaultColor the color to return if the waypoint has no color
+   * @return the color of the waypoint as an RGB integer, without boxing it.
+   */
+  public int getColor(int defaultColor) {
+    return this.hasColor ? this.color : defaultColor;
+  }
+
+  /**
+   * @return {@code true} if the waypoint has a color, otherwise {@code false}.
+   */
+  public boolean hasColor() {
+    return this.hasColor;
   }
 
   /**
@@ -149,6 +188,34 @@ public class ServerWaypoint {
     return this.id != null && this.name != null;
   }
 
+  /**
+   * Compares all properties of this waypoint with the provided waypoint, unlike
+   * {@link #equals(Object)} which only compares the id.
+   *
+   * @param other the waypoint to compare with
+   * @return {@code true} if both waypoints are displayed identically, otherwise {@code false}.
+   */
+  public boolean contentEquals(@Nullable ServerWaypoint other) {
+    if (this == other) {
+      return true;
+    }
+
+    if (other == null) {
+      return false;
+    }
+
+    return Double.compare(this.x, other.x) == 0
+        && Double.compare(this.y, other.y) == 0
+        && Double.compare(this.z, other.z) == 0
+        && Objects.equals(this.id, other.id)
+        && Objects.equals(this.name, other.name)
+        && Objects.equals(this.dimension, other.dimension)
+        && this.iconType == other.iconType
+        && Objects.equals(this.icon, other.icon)
+        && this.hasColor == other.hasColor
+        && this.color == other.color;
+  }
+
   public @NotNull Builder toBuilder() {
     return new Builder(this);
   }
@@ -162,12 +229,12 @@ public class ServerWaypoint {
       return false;
     }
     ServerWaypoint that = (ServerWaypoint) object;
-    return Objects.equals(this.id, that.id);
+    return this.hash == that.hash && Objects.equals(this.id, that.id);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(this.id);
+    return this.hash;
   }
 
   @Override
@@ -181,7 +248,7 @@ public class ServerWaypoint {
         ", dimension='" + this.dimension + '\'' +
         ", iconType=" + this.iconType +
         ", icon='" + this.icon + '\'' +
-        ", color=" + this.color +
+        ", color=" + this.getColor() +
         '}';
   }
 
@@ -203,7 +270,7 @@ public class ServerWaypoint {
     private Integer color;
 
     Builder() {
-      this.id = String.valueOf(UUID.randomUUID());
+      this.id = randomId();
     }
 
     Builder(@NotNull ServerWaypoint waypoint) {
@@ -220,7 +287,7 @@ public class ServerWaypoint {
       this.dimension = waypoint.dimension;
       this.iconType = waypoint.iconType;
       this.icon = waypoint.icon;
-      this.color = waypoint.color;
+      this.color = waypoint.getColor();
     }
 
     /**
@@ -360,5 +427,17 @@ public class ServerWaypoint {
           this.color
       );
     }
+
+    /**
+     * Creates a random version 4 uuid string. Unlike {@link UUID#randomUUID()}, this does not use
+     * a {@link java.security.SecureRandom}, which is considerably slower when creating many
+     * waypoints and not required for ids.
+     */
+    private static String randomId() {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      long mostSignificantBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+      long leastSignificantBits = (random.nextLong() & ~(0x3L << 62)) | (0x2L << 62);
+      return new UUID(mostSignificantBits, leastSignificantBits).toString();
+    }
   }
 }
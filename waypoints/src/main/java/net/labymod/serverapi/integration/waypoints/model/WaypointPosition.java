@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.waypoints.model;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * The new position of an already sent waypoint.
+ */
+public class WaypointPosition {
+
+  private final String id;
+  private final double x;
+  private final double y;
+  private final double z;
+
+  public WaypointPosition(@NotNull String id, double x, double y, double z) {
+    Objects.requireNonNull(id, "Id cannot be null");
+    this.id = id;
+    this.x = x;
+    this.y = y;
+    this.z = z;
+  }
+
+  /**
+   * @return the id of the waypoint
+   */
+  public @NotNull String getId() {
+    return this.id;
+  }
+
+  /**
+   * @return the new x-coordinate of the waypoint.
+   */
+  public double getX() {
+    return this.x;
+  }
+
+  /**
+   * @return the new y-coordinate of the waypoint.
+   */
+  public double getY() {
+    return this.y;
+  }
+
+  /**
+   * @return the new z-coordinate of the waypoint.
+   */
+  public double getZ() {
+    return this.z;
+  }
+
+  /**
+   * @param waypoint the waypoint to move
+   * @return a copy of the provided waypoint at this position
+   */
+  public @NotNull ServerWaypoint applyTo(@NotNull ServerWaypoint waypoint) {
+    return waypoint.toBuilder()
+        .x(this.x)
+        .y(this.y)
+        .z(this.z)
+        .build();
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (this == object) {
+      return true;
+    }
+
+    if (!(object instanceof WaypointPosition)) {
+      return false;
+    }
+
+    WaypointPosition that = (WaypointPosition) object;
+    return Double.compare(this.x, that.x) == 0
+        && Double.compare(this.y, that.y) == 0
+        && Double.compare(this.z, that.z) == 0
+        && Objects.equals(this.id, that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.id, this.x, this.y, this.z);
+  }
+
+  @Override
+  public String toString() {
+    return "WaypointPosition{" +
+        "id='" + this.id + '\'' +
+        ", x=" + this.x +
+        ", y=" + this.y +
+        ", z=" + this.z +
+        '}';
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.waypoints.model;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Pool for the strings that many waypoints share, like dimensions and icons. Waypoints created
+ * or read from a packet reference the pooled instance, so the duplicate strings can be collected
+ * right away. The pool only references its strings weakly, a string is evicted once no waypoint
+ * uses it anymore.
+ */
+public final class WaypointStrings {
+
+  private static final Map<String, WeakReference<String>> POOL = new WeakHashMap<>();
+
+  private WaypointStrings() {
+  }
+
+  /**
+   * @param value the string to pool
+   * @return the pooled instance equal to the provided string
+   */
+  public static @Nullable String intern(@Nullable String value) {
+    if (value == null) {
+      return null;
+    }
+
+    synchronized (POOL) {
+      WeakReference<String> reference = POOL.get(value);
+      String pooled = reference == null ? null : reference.get();
+      if (pooled != null) {
+        return pooled;
+      }
+
+      POOL.put(value, new WeakReference<>(value));
+      return value;
+    }
+  }
+
+  /**
+   * @return the amount of pooled strings that are still in use
+   */
+  public static int size() {
+    synchronized (POOL) {
+      return POOL.size();
+    }
+  }
+}
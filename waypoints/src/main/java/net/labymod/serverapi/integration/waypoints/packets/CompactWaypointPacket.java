@@ -0,0 +1,236 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.waypoints.packets;
+
+import net.labymod.serverapi.api.packet.Packet;
+import net.labymod.serverapi.api.payload.io.PayloadReader;
+import net.labymod.serverapi.api.payload.io.PayloadWriter;
+import net.labymod.serverapi.integration.waypoints.model.ServerWaypoint;
+import net.labymod.serverapi.integration.waypoints.model.WaypointStrings;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Compact alternative to the {@link WaypointPacket}, only sent to clients that announced support
+ * via the {@link WaypointCapabilitiesPacket}.
+ * <p>
+ * Dimensions and icons are written once into a string table and referenced by their index. Ids
+ * in the canonical UUID format (like the ones generated by {@link ServerWaypoint#builder()}) are
+ * written as 16 bytes instead of a 36 character string. Coordinates can optionally be quantized
+ * to {@code 1/16} of a block and written as variable-length integers.
+ */
+public class CompactWaypointPacket implements Packet {
+
+  /**
+   * The amount of steps per block if coordinates are quantized.
+   */
+  public static final int QUANTIZATION_SCALE = 16;
+
+  private static final int FLAG_UUID_ID = 1;
+  private static final int FLAG_COLOR = 1 << 1;
+
+  private List<ServerWaypoint> waypoints;
+  private boolean quantized;
+
+  /**
+   * Creates a new compact waypoint packet.
+   *
+   * @param waypoints the waypoints to add or update
+   * @param quantized whether the coordinates should be quantized
+   */
+  public CompactWaypointPacket(@NotNull List<ServerWaypoint> waypoints, boolean quantized) {
+    Objects.requireNonNull(waypoints, "Waypoints cannot be null");
+    this.waypoints = waypoints;
+    this.quantized = quantized;
+  }
+
+  @Override
+  public void read(@NotNull PayloadReader reader) {
+    int stringCount = reader.readVarInt();
+    String[] strings = new String[stringCount];
+    for (int i = 0; i < stringCount; i++) {
+      strings[i] = WaypointStrings.intern(reader.readString());
+    }
+
+    this.quantized = reader.readBoolean();
+    int size = reader.readVarInt();
+    ServerWaypoint.ServerWaypointIconType[] iconTypes =
+        ServerWaypoint.ServerWaypointIconType.values();
+    List<ServerWaypoint> waypoints = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      int flags = reader.readVarInt();
+      String id = (flags & FLAG_UUID_ID) != 0
+          ? reader.readUUID().toString()
+          : reader.readString();
+      String name = reader.readString();
+      double x = this.readCoordinate(reader);
+      double y = this.readCoordinate(reader);
+      double z = this.readCoordinate(reader);
+      String dimension = readTableString(reader, strings);
+      ServerWaypoint.ServerWaypointIconType iconType = iconTypes[reader.readVarInt()];
+      String icon = readTableString(reader, strings);
+      boolean hasColor = (flags & FLAG_COLOR) != 0;
+      int color = hasColor ? reader.readVarInt() : 0;
+      waypoints.add(new ServerWaypoint(
+          id,
+          name,
+          x,
+          y,
+          z,
+          dimension,
+          iconType,
+          icon,
+          color,
+          hasColor
+      ));
+    }
+
+    this.waypoints = waypoints;
+  }
+
+  @Override
+  public void write(@NotNull PayloadWriter writer) {
+    Map<String, Integer> table = new HashMap<>();
+    List<String> strings = new ArrayList<>();
+    for (ServerWaypoint waypoint : this.waypoints) {
+      intern(table, strings, waypoint.getDimension());
+      intern(table, strings, waypoint.getIcon());
+    }
+
+    writer.writeVarInt(strings.size());
+    for (String string : strings) {
+      writer.writeString(string);
+    }
+
+    writer.writeBoolean(this.quantized);
+    writer.writeVarInt(this.waypoints.size());
+    for (ServerWaypoint waypoint : this.waypoints) {
+      UUID uuidId = parseUUID(waypoint.getId());
+      boolean hasColor = waypoint.hasColor();
+
+      int flags = 0;
+      if (uuidId != null) {
+        flags |= FLAG_UUID_ID;
+      }
+
+      if (hasColor) {
+        flags |= FLAG_COLOR;
+      }
+
+      writer.writeVarInt(flags);
+      if (uuidId != null) {
+        writer.writeUUID(uuidId);
+      } else {
+        writer.writeString(waypoint.getId());
+      }
+
+      writer.writeString(waypoint.getName());
+      this.writeCoordinate(writer, waypoint.getX());
+      this.writeCoordinate(writer, waypoint.getY());
+      this.writeCoordinate(writer, waypoint.getZ());
+      writeTableString(writer, table, waypoint.getDimension());
+      writer.writeVarInt(waypoint.iconType().ordinal());
+      writeTableString(writer, table, waypoint.getIcon());
+      if (hasColor) {
+        writer.writeVarInt(waypoint.getColor(0));
+      }
+    }
+  }
+
+  public @NotNull List<ServerWaypoint> getWaypoints() {
+    return this.waypoints;
+  }
+
+  public boolean isQuantized() {
+    return this.quantized;
+  }
+
+  private double readCoordinate(PayloadReader reader) {
+    if (!this.quantized) {
+      return reader.readDouble();
+    }
+
+    int value = reader.readVarInt();
+    return (double) ((value >>> 1) ^ -(value & 1)) / QUANTIZATION_SCALE;
+  }
+
+  private void writeCoordinate(PayloadWriter writer, double coordinate) {
+    if (!this.quantized) {
+      writer.writeDouble(coordinate);
+      return;
+    }
+
+    int value = (int) Math.round(coordinate * QUANTIZATION_SCALE);
+    writer.writeVarInt((value << 1) ^ (value >> 31));
+  }
+
+  private static String readTableString(PayloadReader reader, String[] strings) {
+    int index = reader.readVarInt();
+    return index == 0 ? null : strings[index - 1];
+  }
+
+  private static void writeTableString(
+      PayloadWriter writer,
+      Map<String, Integer> table,
+      String string
+  ) {
+    writer.writeVarInt(string == null ? 0 : table.get(string) + 1);
+  }
+
+  private static void intern(Map<String, Integer> table, List<String> strings, String string) {
+    if (string != null && !table.containsKey(string)) {
+      table.put(string, strings.size());
+      strings.add(string);
+    }
+  }
+
+  private static UUID parseUUID(String id) {
+    if (id.length() != 36) {
+      return null;
+    }
+
+    try {
+      UUID uuid = UUID.fromString(id);
+      // only use the compact form if the id survives the round trip unchanged
+      return uuid.toString().equals(id) ? uuid : null;
+    } catch (IllegalArgumentException exception) {
+      return null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CompactWaypointPacket{" +
+        "waypoints=" + this.waypoints +
+        ", quantized=" + this.quantized +
+        '}';
+  }
+}
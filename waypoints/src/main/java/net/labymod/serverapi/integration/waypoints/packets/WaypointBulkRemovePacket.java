@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.waypoints.packets;
+
+import net.labymod.serverapi.api.packet.Packet;
+import net.labymod.serverapi.api.payload.io.PayloadReader;
+import net.labymod.serverapi.api.payload.io.PayloadWriter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Removes multiple waypoints at once. Only sent to clients that announced
+ * {@link WaypointCapabilitiesPacket#BULK_REMOVE}.
+ */
+public class WaypointBulkRemovePacket implements Packet {
+
+  private List<String> ids;
+
+  /**
+   * Creates a new remove packet for multiple waypoints
+   *
+   * @param ids the ids of the waypoints to remove
+   */
+  public WaypointBulkRemovePacket(@NotNull List<String> ids) {
+    Objects.requireNonNull(ids, "Ids cannot be null");
+    this.ids = ids;
+  }
+
+  /**
+   * Creates a new remove packet for multiple waypoints
+   *
+   * @param ids the ids of the waypoints to remove
+   */
+  public WaypointBulkRemovePacket(@NotNull String... ids) {
+    Objects.requireNonNull(ids, "Ids cannot be null");
+    this.ids = Collections.unmodifiableList(Arrays.asList(ids));
+  }
+
+  @Override
+  public void read(@NotNull PayloadReader reader) {
+    this.ids = reader.readList(reader::readString);
+  }
+
+  @Override
+  public void write(@NotNull PayloadWriter writer) {
+    writer.writeCollection(this.ids, writer::writeString);
+  }
+
+  public @NotNull List<String> getIds() {
+    return this.ids;
+  }
+
+  @Override
+  public String toString() {
+    return "WaypointBulkRemovePacket{" +
+        "ids=" + this.ids +
+        '}';
+  }
+}
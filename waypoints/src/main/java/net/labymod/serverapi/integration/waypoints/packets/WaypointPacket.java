@@ -51,17 +51,21 @@ public class WaypointPacket implements Packet {
 
   @Override
   public void read(@NotNull PayloadReader reader) {
-    this.waypoints = reader.readList(() -> new ServerWaypoint(
-        reader.readString(),
-        reader.readString(),
-        reader.readDouble(),
-        reader.readDouble(),
-        reader.readDouble(),
-        reader.readOptionalString(),
-        ServerWaypoint.ServerWaypointIconType.values()[reader.readVarInt()],
-        reader.readOptionalString(),
-        reader.readBoolean() ? reader.readVarInt() : null
-    ));
+    ServerWaypoint.ServerWaypointIconType[] iconTypes =
+        ServerWaypoint.ServerWaypointIconType.values();
+    this.waypoints = reader.readList(() -> {
+      String id = reader.readString();
+      String name = reader.readString();
+      double x = reader.readDouble();
+      double y = reader.readDouble();
+      double z = reader.readDouble();
+      String dimension = reader.readOptionalString();
+      ServerWaypoint.ServerWaypointIconType iconType = iconTypes[reader.readVarInt()];
+      String icon = reader.readOptionalString();
+      boolean hasColor = reader.readBoolean();
+      int color = hasColor ? reader.readVarInt() : 0;
+      return new ServerWaypoint(id, name, x, y, z, dimension, iconType, icon, color, hasColor);
+    });
   }
 
   @Override
@@ -75,9 +79,9 @@ public class WaypointPacket implements Packet {
       writer.writeOptionalString(waypoint.getDimension());
       writer.writeVarInt(waypoint.iconType().ordinal());
       writer.writeOptionalString(waypoint.getIcon());
-      if (waypoint.getColor() != null) {
+      if (waypoint.hasColor()) {
         writer.writeBoolean(true);
-        writer.writeVarInt(waypoint.getColor());
+        writer.writeVarInt(waypoint.getColor(0));
       } else {
         writer.writeBoolean(false);
       }
@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 LabyMedia GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.labymod.serverapi.integration.waypoints.packets;
+
+import net.labymod.serverapi.integration.common.payload.LazyPayloadList;
+import net.labymod.serverapi.integration.common.payload.PayloadCursor;
+import net.labymod.serverapi.integration.waypoints.model.ServerWaypoint;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+
+/**
+ * A lazily decoded view of the payload of a {@link WaypointPacket}, intended for proxies that
+ * count, filter or forward waypoint packets. The waypoints are only decoded when they are
+ * accessed and the id and dimension of a waypoint can be read without decoding the waypoint.
+ */
+public final class WaypointPacketView extends LazyPayloadList<ServerWaypoint> {
+
+  private static final ServerWaypoint.ServerWaypointIconType[] ICON_TYPES =
+      ServerWaypoint.ServerWaypointIconType.values();
+
+  private WaypointPacketView(byte[] data, int offset, int length) {
+    super(WaypointPacket.class, data, offset, length);
+  }
+
+  /**
+   * @param data the payload of a waypoint packet, without the packet id
+   * @return a view of the payload
+   */
+  public static @NotNull WaypointPacketView wrap(@NotNull byte[] data) {
+    return wrap(data, 0, data.length);
+  }
+
+  /**
+   * @param data   the array containing the payload of a waypoint packet
+   * @param offset the index of the first byte of the payload, after the packet id
+   * @param length the length of the payload
+   * @return a view of the payload
+   */
+  public static @NotNull WaypointPacketView wrap(@NotNull byte[] data, int offset, int length) {
+    return new WaypointPacketView(data, offset, length);
+  }
+
+  /**
+   * @param index the index of the waypoint
+   * @return the id of the waypoint
+   */
+  public @NotNull String getId(int index) {
+    return this.cursor(index).readString();
+  }
+
+  /**
+   * @param index the index of the waypoint
+   * @return the dimension of the waypoint
+   */
+  public @Nullable String getDimension(int index) {
+    PayloadCursor cursor = this.cursor(index);
+    cursor.skipString();
+    cursor.skipString();
+    cursor.skip(3 * Double.BYTES);
+    return cursor.readOptionalString();
+  }
+
+  /**
+   * @return a packet containing all decoded waypoints
+   */
+  public @NotNull WaypointPacket toPacket() {
+    return new WaypointPacket(new ArrayList<>(this));
+  }
+
+  @Override
+  protected void skip(@NotNull PayloadCursor cursor) {
+    cursor.skipString();
+    cursor.skipString();
+    cursor.skip(3 * Double.BYTES);
+    cursor.skipOptionalString();
+    cursor.readVarInt();
+    cursor.skipOptionalString();
+    if (cursor.readBoolean()) {
+      cursor.readVarInt();
+    }
+  }
+
+  @Override
+  protected @NotNull ServerWaypoint decode(@NotNull PayloadCursor cursor) {
+    String id = cursor.readString();
+    String name = cursor.readString();
+    double x = cursor.readDouble();
+    double y = cursor.readDouble();
+    double z = cursor.readDouble();
+    String dimension = cursor.readOptionalString();
+    ServerWaypoint.ServerWaypointIconType iconType = ICON_TYPES[cursor.readVarInt()];
+    String icon = cursor.readOptionalString();
+    boolean hasColor = cursor.readBoolean();
+    int color = hasColor ? cursor.readVarInt() : 0;
+    return new ServerWaypoint(id, name, x, y, z, dimension, iconType, icon, color, hasColor);
+  }
+}